@@ -0,0 +1,127 @@
+package ru.practicum.shareit.benchmark;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.experimental.UtilityClass;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.ShareItApp;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.item.CommentRepository;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+/**
+ * Starts the application for benchmarks and seeds it with {@value #OWNERS} owners,
+ * {@value #ITEMS_PER_OWNER} items per owner, {@value #BOOKINGS} bookings and {@value #COMMENTS}
+ * comments.
+ */
+@UtilityClass
+public class BenchmarkApplication {
+
+  static final int OWNERS = 10;
+  static final int BOOKERS = 40;
+  static final int ITEMS_PER_OWNER = 20;
+  static final int BOOKINGS = 4000;
+  static final int COMMENTS = 1000;
+
+  /**
+   * Switches off SQL and debug logging, which would otherwise dominate the measurements.
+   */
+  static final List<String> QUIET_LOGGING = List.of(
+      "--spring.jpa.show-sql=false",
+      "--logging.level.root=WARN",
+      "--logging.level.ru.practicum.shareit=WARN",
+      "--logging.level.org.hibernate.SQL=WARN",
+      "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+      "--logging.level.org.springframework.transaction.interceptor=WARN",
+      "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN");
+
+  /**
+   * Starts the application without the web layer on a private in-memory H2 database.
+   */
+  ConfigurableApplicationContext start(final List<String> extraArgs, final String... profiles) {
+    return builder(WebApplicationType.NONE, profiles).run(args(extraArgs));
+  }
+
+  /**
+   * Starts the application with the embedded web server on a random port, see
+   * {@code local.server.port}.
+   */
+  ConfigurableApplicationContext startServer(
+      final List<String> extraArgs,
+      final ApplicationContextInitializer<ConfigurableApplicationContext> initializer,
+      final String... profiles) {
+    final List<String> args = new ArrayList<>(extraArgs);
+    args.add("--server.port=0");
+    return builder(WebApplicationType.SERVLET, profiles)
+        .initializers(initializer)
+        .run(args(args));
+  }
+
+  private SpringApplicationBuilder builder(final WebApplicationType type,
+                                           final String... profiles) {
+    return new SpringApplicationBuilder(ShareItApp.class)
+        .web(type)
+        .profiles(profiles);
+  }
+
+  /**
+   * Command line arguments for a private in-memory H2 database, followed by {@code extraArgs}.
+   */
+  String[] args(final List<String> extraArgs) {
+    final List<String> args = new ArrayList<>(List.of(
+        "--spring.datasource.driverClassName=org.h2.Driver",
+        "--spring.datasource.url=jdbc:h2:mem:shareit-bench;MODE=PostgreSQL",
+        "--spring.datasource.username=bench",
+        "--spring.datasource.password=bench"));
+    args.addAll(extraArgs);
+    return args.toArray(String[]::new);
+  }
+
+  Fixture seed(final ConfigurableApplicationContext context) {
+    final LocalDateTime now = LocalDateTime.now();
+    final List<User> users = context.getBean(UserRepository.class)
+        .saveAll(BenchmarkData.users(OWNERS + BOOKERS).stream()
+            .peek(user -> user.setId(null))
+            .toList());
+    final List<User> owners = users.subList(0, OWNERS);
+    final List<User> bookers = users.subList(OWNERS, users.size());
+
+    final List<Item> items = context.getBean(ItemRepository.class)
+        .saveAll(BenchmarkData.items(OWNERS * ITEMS_PER_OWNER, owners).stream()
+            .peek(item -> {
+              item.setId(null);
+              item.setVersion(null);
+            })
+            .toList());
+
+    context.getBean(BookingRepository.class)
+        .saveAll(BenchmarkData.bookings(BOOKINGS, items, bookers, now).stream()
+            .peek(booking -> {
+              booking.setId(null);
+              booking.setVersion(null);
+            })
+            .toList());
+    context.getBean(CommentRepository.class)
+        .saveAll(BenchmarkData.comments(COMMENTS, items, bookers, now).stream()
+            .peek(comment -> comment.setId(null))
+            .toList());
+
+    final Item item = items.get(items.size() / 2);
+    return new Fixture(item.getOwner().getId(), bookers.getFirst().getId(), item.getId());
+  }
+
+  /**
+   * IDs of seeded rows used as benchmark arguments: an owner, one of the owner's items, and a
+   * booker.
+   */
+  record Fixture(Long ownerId, Long bookerId, Long itemId) {
+
+  }
+}
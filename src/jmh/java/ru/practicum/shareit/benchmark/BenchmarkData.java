@@ -0,0 +1,89 @@
+package ru.practicum.shareit.benchmark;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import lombok.experimental.UtilityClass;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+/**
+ * Builds detached entity graphs for benchmarks. A fixed seed keeps the data identical between
+ * runs, so results stay comparable.
+ */
+@UtilityClass
+public class BenchmarkData {
+
+  private static final long SEED = 42L;
+  private static final BookingStatus[] STATUSES = BookingStatus.values();
+
+  public List<User> users(final int count) {
+    final List<User> users = new ArrayList<>(count);
+    for (long i = 1; i <= count; i++) {
+      users.add(User.builder()
+          .id(i)
+          .name("User " + i)
+          .email("user" + i + "@shareit.ru")
+          .build());
+    }
+    return users;
+  }
+
+  public List<Item> items(final int count, final List<User> owners) {
+    final List<Item> items = new ArrayList<>(count);
+    for (long i = 1; i <= count; i++) {
+      items.add(Item.builder()
+          .id(i)
+          .name("Item " + i)
+          .description("Description of item " + i + " with a few more words to look realistic")
+          .available(i % 5 != 0)
+          .owner(owners.get((int) (i % owners.size())))
+          .version(0L)
+          .build());
+    }
+    return items;
+  }
+
+  /**
+   * Bookings spread over two years around {@code now}, so that past, current and future bookings
+   * are all present.
+   */
+  public List<Booking> bookings(final int count, final List<Item> items, final List<User> bookers,
+                                final LocalDateTime now) {
+    final Random random = new Random(SEED);
+    final List<Booking> bookings = new ArrayList<>(count);
+    for (long i = 1; i <= count; i++) {
+      final LocalDateTime start = now.plusHours(random.nextInt(2 * 365 * 24) - 365 * 24);
+      bookings.add(Booking.builder()
+          .id(i)
+          .start(start)
+          .end(start.plusHours(1 + random.nextInt(72)))
+          .item(items.get(random.nextInt(items.size())))
+          .booker(bookers.get(random.nextInt(bookers.size())))
+          .status(STATUSES[random.nextInt(STATUSES.length)])
+          .version(0L)
+          .build());
+    }
+    return bookings;
+  }
+
+  public List<Comment> comments(final int count, final List<Item> items, final List<User> authors,
+                                final LocalDateTime now) {
+    final Random random = new Random(SEED);
+    final List<Comment> comments = new ArrayList<>(count);
+    for (long i = 1; i <= count; i++) {
+      comments.add(Comment.builder()
+          .id(i)
+          .text("Comment " + i + ": worked as expected, would rent again.")
+          .item(items.get(random.nextInt(items.size())))
+          .author(authors.get(random.nextInt(authors.size())))
+          .created(now.minusDays(random.nextInt(365)))
+          .build());
+    }
+    return comments;
+  }
+}
@@ -0,0 +1,104 @@
+package ru.practicum.shareit.benchmark;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+import ru.practicum.shareit.benchmark.BenchmarkApplication.Fixture;
+import ru.practicum.shareit.booking.BookingController;
+import ru.practicum.shareit.item.ItemController;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+/**
+ * Compares the logging cost of the default configuration ({@code application.properties}, with SQL
+ * output and DEBUG application loggers) with the {@code prod} profile, by calling controllers
+ * with the real {@code logback-spring.xml}. Console output is discarded, so the numbers show the
+ * cost of building and formatting log events rather than terminal I/O.
+ * <p>
+ * Run with the GC profiler to get the allocation per call:
+ * {@code mvn verify -Pjmh -Djmh.args="LoggingBenchmark -prof gc"}, and compare
+ * {@code gc.alloc.rate.norm} of both profiles.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoggingBenchmark {
+
+  @Param({"default", "prod"})
+  public String profile;
+
+  private ConfigurableApplicationContext context;
+  private ItemController itemController;
+  private BookingController bookingController;
+  private Fixture fixture;
+  private PrintStream out;
+  private PrintStream err;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    out = System.out;
+    err = System.err;
+    final PrintStream discarded = new PrintStream(OutputStream.nullOutputStream());
+    System.setOut(discarded);
+    System.setErr(discarded);
+
+    final List<String> args = List.of("--logging.config=classpath:logback-spring.xml");
+    context = "prod".equals(profile)
+        ? BenchmarkApplication.start(args, "prod")
+        : BenchmarkApplication.start(args);
+    itemController = context.getBean(ItemController.class);
+    bookingController = context.getBean(BookingController.class);
+    fixture = BenchmarkApplication.seed(context);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    context.close();
+    System.setOut(out);
+    System.setErr(err);
+  }
+
+  @Benchmark
+  public ResponseEntity<ItemDto> getItemById() {
+    return itemController.getItemById(fixture.ownerId(), fixture.itemId(), null, request());
+  }
+
+  @Benchmark
+  public ServletWebRequest getUserItems() throws Exception {
+    final ServletWebRequest request = request();
+    itemController.getAllItemFromUser(fixture.ownerId(), null, request);
+    return request;
+  }
+
+  @Benchmark
+  public ServletWebRequest getAllBookingForOwner() throws Exception {
+    final ServletWebRequest request = request();
+    bookingController.getAllBookingForOwner(fixture.ownerId(), "ALL", null, false, request);
+    return request;
+  }
+
+  private static ServletWebRequest request() {
+    return new ServletWebRequest(new MockHttpServletRequest(), new MockHttpServletResponse());
+  }
+}
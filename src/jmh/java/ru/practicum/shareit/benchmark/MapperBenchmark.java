@@ -0,0 +1,78 @@
+package ru.practicum.shareit.benchmark;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.CommentMapper;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemMapper;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+/**
+ * Measures the DTO mappers over list sizes typical for single items, owner pages and large
+ * accounts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+  @Param({"10", "100", "1000"})
+  private int size;
+
+  private List<Booking> bookings;
+  private List<Item> items;
+  private List<Comment> comments;
+
+  @Setup
+  public void setUp() {
+    final LocalDateTime now = LocalDateTime.now();
+    final List<User> users = BenchmarkData.users(50);
+    items = BenchmarkData.items(size, users);
+    bookings = BenchmarkData.bookings(size, items, users, now);
+    comments = BenchmarkData.comments(size, items, users, now);
+  }
+
+  @Benchmark
+  public List<BookingResponseDto> bookingToResponseDto() {
+    return BookingMapper.mapToResponseDto(bookings);
+  }
+
+  @Benchmark
+  public List<BookingShortDto> bookingToShortDto() {
+    return bookings.stream()
+        .map(BookingMapper::mapToShortDto)
+        .toList();
+  }
+
+  @Benchmark
+  public List<ItemDto> itemToDto() {
+    return ItemMapper.mapToItemDto(items);
+  }
+
+  @Benchmark
+  public List<CommentDto> commentToDto() {
+    return CommentMapper.mapToCommentDto(comments);
+  }
+}
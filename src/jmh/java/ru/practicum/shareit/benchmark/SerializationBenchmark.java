@@ -0,0 +1,89 @@
+package ru.practicum.shareit.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.paramnames.ParameterNamesModule;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.fields.FieldSetConfig;
+import ru.practicum.shareit.formats.BinaryFormatsConfig;
+import ru.practicum.shareit.user.model.User;
+
+/**
+ * Compares JSON, CBOR and Smile for booking lists with nested items and bookers, as the booking
+ * list endpoints return them, on the writing side of the service and the reading side of a
+ * caller. The mappers are configured like the ones of the application. The payload size of every
+ * format is logged during setup.
+ */
+@Slf4j
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+  private static final TypeReference<List<BookingResponseDto>> BOOKINGS = new TypeReference<>() {
+  };
+
+  @Param({"json", "cbor", "smile"})
+  public String format;
+
+  @Param({"10", "100", "1000"})
+  public int size;
+
+  private ObjectMapper mapper;
+  private List<BookingResponseDto> bookings;
+  private byte[] payload;
+
+  @Setup
+  public void setUp() throws IOException {
+    final Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json()
+        .modulesToInstall(new ParameterNamesModule());
+    new FieldSetConfig().fieldSetFilterCustomizer().customize(builder);
+    final BinaryFormatsConfig formats = new BinaryFormatsConfig();
+    mapper = switch (format) {
+      case "json" -> builder.build();
+      case "cbor" -> formats.cborHttpMessageConverter(builder).getObjectMapper();
+      case "smile" -> formats.smileHttpMessageConverter(builder).getObjectMapper();
+      default -> throw new IllegalArgumentException("Unknown format " + format);
+    };
+
+    final List<User> users = BenchmarkData.users(50);
+    bookings = BookingMapper.mapToResponseDto(BenchmarkData.bookings(size,
+        BenchmarkData.items(size, users), users, LocalDateTime.now()));
+    payload = mapper.writeValueAsBytes(bookings);
+    if (!bookings.equals(mapper.readValue(payload, BOOKINGS))) {
+      throw new IllegalStateException(format + " does not read back the bookings it wrote");
+    }
+    log.info("{} payload of {} bookings: {} bytes", format, size, payload.length);
+  }
+
+  @Benchmark
+  public byte[] serialize() throws IOException {
+    return mapper.writeValueAsBytes(bookings);
+  }
+
+  @Benchmark
+  public List<BookingResponseDto> deserialize() throws IOException {
+    return mapper.readValue(payload, BOOKINGS);
+  }
+}
@@ -0,0 +1,95 @@
+package ru.practicum.shareit.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.benchmark.BenchmarkApplication.Fixture;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.fields.FieldSet;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+/**
+ * Measures the service layer end-to-end, including transactions, repository queries and mapping,
+ * against an in-memory H2 database seeded by {@link BenchmarkApplication}.
+ * <p>
+ * {@code instrumented=false} switches off the service timers, repository metrics and Hibernate
+ * statistics, so comparing both runs gives the instrumentation overhead per call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ServiceLayerBenchmark {
+
+  @Param({"true", "false"})
+  public boolean instrumented;
+
+  private ConfigurableApplicationContext context;
+  private ItemService itemService;
+  private BookingService bookingService;
+  private Fixture fixture;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    final List<String> args = new ArrayList<>(BenchmarkApplication.QUIET_LOGGING);
+    if (!instrumented) {
+      args.addAll(List.of("--shareit.metrics.services.enabled=false",
+          "--management.metrics.data.repository.autotime.enabled=false",
+          "--spring.jpa.properties.hibernate.generate_statistics=false"));
+    }
+    context = BenchmarkApplication.start(args);
+    itemService = context.getBean(ItemService.class);
+    bookingService = context.getBean(BookingService.class);
+    fixture = BenchmarkApplication.seed(context);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    context.close();
+  }
+
+  @Benchmark
+  public ItemDto getItemById() {
+    return itemService.getItemById(fixture.itemId(), fixture.ownerId(), FieldSet.ALL);
+  }
+
+  @Benchmark
+  public void forEachUserItem(final Blackhole blackhole) {
+    itemService.forEachUserItem(fixture.ownerId(), FieldSet.ALL, blackhole::consume);
+  }
+
+  @Benchmark
+  public List<ItemDto> searchItems() {
+    return itemService.searchItemsByPartialText("item 1");
+  }
+
+  @Benchmark
+  public void forEachBookingForOwner(final Blackhole blackhole) {
+    bookingService.forEachBookingForOwner(fixture.ownerId(), "ALL", FieldSet.ALL, false,
+        blackhole::consume);
+  }
+
+  @Benchmark
+  public void forEachCurrentBookingForUser(final Blackhole blackhole) {
+    bookingService.forEachBookingForUser(fixture.bookerId(), "CURRENT", FieldSet.ALL, false,
+        blackhole::consume);
+  }
+}
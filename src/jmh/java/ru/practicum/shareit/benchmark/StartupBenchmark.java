@@ -0,0 +1,128 @@
+package ru.practicum.shareit.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.h2.Driver;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cold start of the packaged application: every invocation starts a new JVM with
+ * the unpacked jar of {@code target}, refreshes the context including the embedded web server and
+ * the Flyway migrations of an empty H2 database, and exits.
+ * <p>
+ * {@code cds=true} starts with an AppCDS archive, dumped by a training run before the
+ * measurement. {@code aot=true} starts the AOT-processed context and needs a jar built with the
+ * {@code aot} profile: {@code mvn verify -Paot,jmh -Dcds.skip=true
+ * -Djmh.args="StartupBenchmark -p aot=false,true"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(1)
+public class StartupBenchmark {
+
+  private static final Path TARGET = Path.of("target");
+  private static final Path UNPACKED = TARGET.resolve("startup-benchmark");
+  private static final String ARCHIVE = "shareit.jsa";
+
+  @Param({"false", "true"})
+  public boolean cds;
+
+  @Param({"false"})
+  public boolean aot;
+
+  private List<String> command;
+
+  @Setup(Level.Trial)
+  public void setUp() throws Exception {
+    run(List.of("-Djarmode=tools", "-jar", packagedJar().toAbsolutePath().toString(), "extract",
+        "--destination", UNPACKED.toAbsolutePath().toString(),
+        "--application-filename", "shareit.jar", "--force"));
+    Files.deleteIfExists(UNPACKED.resolve(ARCHIVE));
+
+    final List<String> jvmArgs = new ArrayList<>();
+    if (aot) {
+      jvmArgs.add("-Dspring.aot.enabled=true");
+    }
+    if (cds) {
+      final List<String> training = new ArrayList<>(jvmArgs);
+      training.add("-XX:ArchiveClassesAtExit=" + ARCHIVE);
+      run(application(training));
+      jvmArgs.add("-XX:SharedArchiveFile=" + ARCHIVE);
+    }
+    command = application(jvmArgs);
+  }
+
+  @Benchmark
+  public void start() throws Exception {
+    run(command);
+  }
+
+  /**
+   * A JVM running the application up to the refreshed context. AppCDS only accepts jars on the
+   * class path, so the H2 driver is added as the jar it is loaded from.
+   */
+  private static List<String> application(final List<String> jvmArgs) throws URISyntaxException {
+    final Path h2 = Path.of(Driver.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+    final List<String> args = new ArrayList<>(jvmArgs);
+    args.addAll(List.of("-Dspring.context.exit=onRefresh",
+        "-cp", "shareit.jar" + File.pathSeparator + h2,
+        "ru.practicum.shareit.ShareItApp",
+        "--server.port=0"));
+    args.addAll(BenchmarkApplication.QUIET_LOGGING);
+    args.addAll(Arrays.asList(BenchmarkApplication.args(List.of())));
+    return args;
+  }
+
+  private static void run(final List<String> args) throws IOException, InterruptedException {
+    final List<String> command = new ArrayList<>();
+    command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+    command.addAll(args);
+    Files.createDirectories(UNPACKED);
+    final int exitCode = new ProcessBuilder(command)
+        .directory(UNPACKED.toFile())
+        .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+        .redirectError(ProcessBuilder.Redirect.DISCARD)
+        .start()
+        .waitFor();
+    if (exitCode != 0) {
+      throw new IllegalStateException("Exit code " + exitCode + " of " + command);
+    }
+  }
+
+  private static Path packagedJar() {
+    try (DirectoryStream<Path> jars = Files.newDirectoryStream(TARGET, "shareit-*.jar")) {
+      final Iterator<Path> iterator = jars.iterator();
+      if (!iterator.hasNext()) {
+        throw new IllegalStateException("No packaged jar in " + TARGET.toAbsolutePath()
+            + ", run the benchmarks with mvn verify -Pjmh");
+      }
+      return iterator.next();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
@@ -0,0 +1,198 @@
+package ru.practicum.shareit.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.benchmark.BenchmarkApplication.Fixture;
+
+/**
+ * Compares Tomcat on platform threads (the default) with the {@code virtual} profile under high
+ * concurrency. Every operation sends {@code concurrency} simultaneous HTTP requests and waits for
+ * all responses, so the score is the time to drain one burst.
+ * <p>
+ * In-memory H2 answers in microseconds, while production time is spent waiting for PostgreSQL.
+ * Every JDBC statement therefore sleeps {@code sqlLatencyMillis} before it is executed, holding
+ * its pooled connection like a real round trip would. With {@code poolSize} below the 200 Tomcat
+ * worker threads both modes are bound by the pool; above it the platform mode is bound by the
+ * worker threads. Both modes wait up to 30 seconds for a connection, so the shorter timeout of the
+ * {@code virtual} profile does not turn queueing into fast 503 responses; the {@code ok} and
+ * {@code failed} counters show whether every request of a burst succeeded. Throttling is off, so
+ * the bursts of one user are not answered with 429 and 503 responses.
+ * <p>
+ * Add {@code -jvmArgsAppend -Djdk.tracePinnedThreads=short} to report virtual threads pinned to
+ * their carrier while blocked.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ThreadModeBenchmark {
+
+  private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+  private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(60);
+
+  @Param({"platform", "virtual"})
+  public String threads;
+
+  @Param({"10", "250"})
+  public int poolSize;
+
+  @Param({"1000"})
+  public int concurrency;
+
+  @Param({"20"})
+  public long sqlLatencyMillis;
+
+  private ConfigurableApplicationContext context;
+  private SqlLatency sqlLatency;
+  private ExecutorService clientExecutor;
+  private HttpClient client;
+  private HttpRequest getBookings;
+  private HttpRequest getItemById;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    final List<String> args = new ArrayList<>(BenchmarkApplication.QUIET_LOGGING);
+    args.addAll(List.of(
+        "--shareit.sql.proxy.enabled=false",
+        "--shareit.throttling.enabled=false",
+        "--logging.level.ru.practicum.shareit.exception=ERROR",
+        "--logging.level.org.hibernate.engine.jdbc.spi.SqlExceptionHelper=OFF",
+        "--spring.datasource.hikari.maximum-pool-size=" + poolSize,
+        "--spring.datasource.hikari.minimum-idle=" + poolSize,
+        "--spring.datasource.hikari.connection-timeout=30000"));
+    sqlLatency = new SqlLatency();
+    context = "virtual".equals(threads)
+        ? BenchmarkApplication.startServer(args, sqlLatency::register, "virtual")
+        : BenchmarkApplication.startServer(args, sqlLatency::register);
+    final Fixture fixture = BenchmarkApplication.seed(context);
+    sqlLatency.millis = sqlLatencyMillis;
+
+    clientExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    client = HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_1_1)
+        .executor(clientExecutor)
+        .build();
+    final URI baseUri =
+        URI.create("http://localhost:" + context.getEnvironment().getProperty("local.server.port"));
+    getBookings = get(baseUri.resolve("/bookings"), fixture.bookerId());
+    getItemById = get(baseUri.resolve("/items/" + fixture.itemId()), fixture.ownerId());
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    client.close();
+    clientExecutor.close();
+    context.close();
+  }
+
+  @Benchmark
+  public void getBookings(final Responses responses) {
+    burst(getBookings, responses);
+  }
+
+  @Benchmark
+  public void getItemById(final Responses responses) {
+    burst(getItemById, responses);
+  }
+
+  private void burst(final HttpRequest request, final Responses responses) {
+    final List<CompletableFuture<HttpResponse<Void>>> pending = new ArrayList<>(concurrency);
+    for (int i = 0; i < concurrency; i++) {
+      pending.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding()));
+    }
+    for (CompletableFuture<HttpResponse<Void>> response : pending) {
+      if (response.join().statusCode() == 200) {
+        responses.ok++;
+      } else {
+        responses.failed++;
+      }
+    }
+  }
+
+  private static HttpRequest get(final URI uri, final Long userId) {
+    return HttpRequest.newBuilder(uri)
+        .header(USER_ID_HEADER, userId.toString())
+        .timeout(REQUEST_TIMEOUT)
+        .GET()
+        .build();
+  }
+
+  /**
+   * Responses received per second, reported next to the score.
+   */
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  public static class Responses {
+
+    public long ok;
+    public long failed;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+      ok = 0;
+      failed = 0;
+    }
+  }
+
+  /**
+   * Wraps the application {@link DataSource} so that every statement sleeps before it is executed.
+   * The delay is switched on only after seeding.
+   */
+  private static final class SqlLatency {
+
+    private volatile long millis;
+
+    private void register(final ConfigurableApplicationContext context) {
+      context.getBeanFactory().addBeanPostProcessor(new BeanPostProcessor() {
+        @Override
+        public Object postProcessAfterInitialization(final Object bean, final String beanName) {
+          if (bean instanceof DataSource dataSource) {
+            return ProxyDataSourceBuilder.create(beanName, dataSource)
+                .beforeQuery((execution, queries) -> sleep())
+                .build();
+          }
+          return bean;
+        }
+      });
+    }
+
+    private void sleep() {
+      if (millis > 0) {
+        try {
+          Thread.sleep(millis);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+    }
+  }
+}
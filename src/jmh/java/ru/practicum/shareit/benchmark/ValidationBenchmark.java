@@ -0,0 +1,88 @@
+package ru.practicum.shareit.benchmark;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.BookingState;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.validation.Create;
+import ru.practicum.shareit.validation.EndAfterStartValidator;
+import ru.practicum.shareit.validation.ValidStateValidator;
+
+/**
+ * Measures request parameter parsing and the custom constraint validators, both directly and
+ * through the Bean Validation engine as they run for every booking request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidationBenchmark {
+
+  @Param({"ALL", "current", " Rejected "})
+  private String state;
+
+  private ValidStateValidator validStateValidator;
+  private EndAfterStartValidator endAfterStartValidator;
+  private ValidatorFactory validatorFactory;
+  private Validator validator;
+  private BookingDto bookingDto;
+
+  @Setup
+  public void setUp() {
+    validStateValidator = new ValidStateValidator();
+    validStateValidator.initialize(null);
+    endAfterStartValidator = new EndAfterStartValidator();
+    validatorFactory = Validation.buildDefaultValidatorFactory();
+    validator = validatorFactory.getValidator();
+    final LocalDateTime start = LocalDateTime.now().plusDays(1);
+    bookingDto = BookingDto.builder()
+        .itemId(1L)
+        .start(start)
+        .end(start.plusDays(2))
+        .build();
+  }
+
+  @TearDown
+  public void tearDown() {
+    validatorFactory.close();
+  }
+
+  @Benchmark
+  public BookingState bookingStateFromString() {
+    return BookingState.fromString(state);
+  }
+
+  @Benchmark
+  public boolean validStateValidator() {
+    return validStateValidator.isValid(state, null);
+  }
+
+  @Benchmark
+  public boolean endAfterStartValidator() {
+    return endAfterStartValidator.isValid(bookingDto, null);
+  }
+
+  @Benchmark
+  public Set<ConstraintViolation<BookingDto>> bookingDtoBeanValidation() {
+    return validator.validate(bookingDto, Create.class);
+  }
+}
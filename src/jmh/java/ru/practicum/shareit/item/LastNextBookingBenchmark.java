@@ -0,0 +1,57 @@
+package ru.practicum.shareit.item;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.benchmark.BenchmarkData;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.user.model.User;
+
+/**
+ * Measures the selection of the last and the next booking of an item from its booking history,
+ * as done for every item by {@link ItemServiceImpl#getItemById} and
+ * {@link ItemServiceImpl#forEachUserItem}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LastNextBookingBenchmark {
+
+  @Param({"10", "100", "10000"})
+  private int bookingsPerItem;
+
+  private List<Booking> bookings;
+  private LocalDateTime now;
+
+  @Setup
+  public void setUp() {
+    now = LocalDateTime.now();
+    final List<User> users = BenchmarkData.users(20);
+    bookings = BenchmarkData.bookings(bookingsPerItem, BenchmarkData.items(1, users), users, now);
+  }
+
+  @Benchmark
+  public BookingShortDto lastBooking() {
+    return ItemServiceImpl.getLastBooking(bookings, now);
+  }
+
+  @Benchmark
+  public BookingShortDto nextBooking() {
+    return ItemServiceImpl.getNextBooking(bookings, now);
+  }
+}
@@ -0,0 +1,31 @@
+package ru.practicum.shareit;
+
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.fields.FieldSet;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.streaming.ArrayResponseStreamer;
+
+/**
+ * Hints for a GraalVM native image beyond what Spring AOT derives from the beans: the database
+ * specific migrations of {@code db/vendor}, and the declared fields that {@link FieldSet} reads
+ * from the response DTOs. Entities, repositories and the request and response bodies of the
+ * controllers are registered by Spring AOT itself, except for the list responses written by
+ * {@link ArrayResponseStreamer}, whose element types are bound here.
+ */
+class ShareItRuntimeHints implements RuntimeHintsRegistrar {
+
+  private final BindingReflectionHintsRegistrar bindings = new BindingReflectionHintsRegistrar();
+
+  @Override
+  public void registerHints(final RuntimeHints hints, final ClassLoader classLoader) {
+    hints.resources().registerPattern("db/vendor/*/*.sql");
+    hints.reflection()
+        .registerType(ItemDto.class, MemberCategory.DECLARED_FIELDS)
+        .registerType(BookingResponseDto.class, MemberCategory.DECLARED_FIELDS);
+    bindings.registerReflectionHints(hints.reflection(), ItemDto.class, BookingResponseDto.class);
+  }
+}
@@ -0,0 +1,59 @@
+package ru.practicum.shareit.booking;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.Immutable;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+/**
+ * Represents a closed {@link Booking} that ended before the archive horizon and was moved out of
+ * the "bookings" table by {@link BookingArchiver}. Archived bookings keep their ID and are never
+ * modified.
+ * <p>
+ * This class is mapped to the "bookings_archive" table in the database.
+ */
+@Entity
+@Immutable
+@Table(name = "bookings_archive")
+@NoArgsConstructor
+@Getter
+public class ArchivedBooking {
+
+  @Id
+  private Long id;
+
+  @Column(name = "start_date", nullable = false)
+  private LocalDateTime start;
+
+  @Column(name = "end_date", nullable = false)
+  private LocalDateTime end;
+
+  @ManyToOne(fetch = FetchType.LAZY, optional = false)
+  @JoinColumn(name = "item_id")
+  @ToString.Exclude
+  private Item item;
+
+  @ManyToOne(fetch = FetchType.LAZY, optional = false)
+  @JoinColumn(name = "booker_id")
+  @ToString.Exclude
+  private User booker;
+
+  @Column(nullable = false)
+  @Enumerated(EnumType.STRING)
+  private BookingStatus status;
+
+  @Column(nullable = false)
+  private LocalDateTime archived;
+}
@@ -0,0 +1,118 @@
+package ru.practicum.shareit.booking;
+
+import jakarta.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.streaming.StreamingReads;
+
+/**
+ * Repository interface for reading {@link ArchivedBooking} entities and for moving closed bookings
+ * into the archive. Archived bookings are read as streams together with their item and booker,
+ * see {@link StreamingReads}. Reads by ID and the last booking of an item fall back to the archive
+ * when the booking is no longer in the live table. The archived bookings of a deleted user are
+ * removed in batches by {@link ru.practicum.shareit.user.UserDeletionPurger}.
+ *
+ * @see BookingArchiver
+ */
+public interface ArchivedBookingRepository extends JpaRepository<ArchivedBooking, Long> {
+
+  @EntityGraph(attributePaths = {"item", "booker"})
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = StreamingReads.FETCH_SIZE))
+  Stream<ArchivedBooking> streamAllByBookerIdOrderByStartDesc(Long bookerId);
+
+  @EntityGraph(attributePaths = {"item", "booker"})
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = StreamingReads.FETCH_SIZE))
+  Stream<ArchivedBooking> streamAllByBookerIdAndStatusOrderByStartDesc(Long bookerId,
+                                                                       BookingStatus status);
+
+  @EntityGraph(attributePaths = {"item", "booker"})
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = StreamingReads.FETCH_SIZE))
+  Stream<ArchivedBooking> streamAllByItemOwnerIdOrderByStartDesc(Long ownerId);
+
+  @EntityGraph(attributePaths = {"item", "booker"})
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = StreamingReads.FETCH_SIZE))
+  Stream<ArchivedBooking> streamAllByItemOwnerIdAndStatusOrderByStartDesc(Long ownerId,
+                                                                          BookingStatus status);
+
+  @Query("""
+      select b
+      from ArchivedBooking as b
+      join fetch b.item as it
+      join fetch b.booker as bk
+      where b.id = :bookingId
+      and (bk.id = :userId or it.owner.id = :userId)
+      """)
+  Optional<ArchivedBooking> findByIdAndItemOwnerIdOrBookerId(
+      @Param("bookingId") Long bookingId,
+      @Param("userId") Long userId);
+
+  @Query("""
+      select b
+      from ArchivedBooking as b
+      join fetch b.item as it
+      join fetch b.booker as bk
+      where b.id in :bookingIds
+      and (bk.id = :userId or it.owner.id = :userId)
+      """)
+  List<ArchivedBooking> findAllByIdInAndItemOwnerIdOrBookerId(
+      @Param("bookingIds") Collection<Long> bookingIds,
+      @Param("userId") Long userId);
+
+  @Query("""
+      select b
+      from ArchivedBooking as b
+      join fetch b.booker
+      where b.item.id in :itemIds
+      and b.status in :statuses
+      and b.end = (
+        select max(a.end)
+        from ArchivedBooking as a
+        where a.item.id = b.item.id
+        and a.status in :statuses)
+      """)
+  List<ArchivedBooking> findLastByItemIdIn(
+      @Param("itemIds") Collection<Long> itemIds,
+      @Param("statuses") Collection<BookingStatus> statuses);
+
+  boolean existsByItemIdAndBookerIdAndStatus(Long itemId, Long bookerId, BookingStatus status);
+
+  @Modifying
+  @Query(value = """
+      insert into bookings_archive (id, start_date, end_date, item_id, booker_id, status, version,
+      archived)
+      select id, start_date, end_date, item_id, booker_id, status, version, :archived
+      from bookings
+      where id in :bookingIds
+      """, nativeQuery = true)
+  int copyFromBookings(@Param("bookingIds") Collection<Long> bookingIds,
+                       @Param("archived") LocalDateTime archived);
+
+  @Query("""
+      select b.id
+      from ArchivedBooking as b
+      where b.booker.id = :bookerId
+      """)
+  List<Long> findIdsByBookerId(@Param("bookerId") Long bookerId, Limit limit);
+
+  @Query("""
+      select b.id
+      from ArchivedBooking as b
+      where b.item.owner.id = :ownerId
+      """)
+  List<Long> findIdsByItemOwnerId(@Param("ownerId") Long ownerId, Limit limit);
+
+  @Modifying
+  @Query("delete from ArchivedBooking as b where b.id in :bookingIds")
+  int deleteAllByIdIn(@Param("bookingIds") Collection<Long> bookingIds);
+}
@@ -11,6 +11,7 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import java.time.LocalDateTime;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -64,6 +65,10 @@ public class Booking {
   @Enumerated(EnumType.STRING)
   private BookingStatus status;
 
+  @Version
+  @Column(name = "version", nullable = false)
+  private Long version;
+
   public void updateStatus(final BookingStatus newStatus) {
     if (this.status == BookingStatus.WAITING) {
       this.status = newStatus;
@@ -0,0 +1,89 @@
+package ru.practicum.shareit.booking;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Moves closed bookings, approved ones that are past and rejected ones, into the
+ * "bookings_archive" table once they ended more than {@code shareit.bookings.archive.horizon}
+ * ago, so that the live "bookings" table only holds recent history. Bookings are moved in batches
+ * of {@code shareit.bookings.archive.batch-size}, each in its own transaction.
+ *
+ * @see ArchivedBooking
+ */
+@Component
+@Slf4j
+public class BookingArchiver {
+
+  static final Set<BookingStatus> CLOSED_STATUSES =
+      Set.of(BookingStatus.APPROVED, BookingStatus.REJECTED);
+
+  private final BookingRepository bookingRepository;
+  private final ArchivedBookingRepository archivedBookingRepository;
+  private final TransactionTemplate transactionTemplate;
+  private final Counter archived;
+  private final boolean enabled;
+  private final Duration horizon;
+  private final int batchSize;
+
+  public BookingArchiver(
+      final BookingRepository bookingRepository,
+      final ArchivedBookingRepository archivedBookingRepository,
+      final TransactionTemplate transactionTemplate,
+      final MeterRegistry registry,
+      @Value("${shareit.bookings.archive.enabled:true}") final boolean enabled,
+      @Value("${shareit.bookings.archive.horizon:P365D}") final Duration horizon,
+      @Value("${shareit.bookings.archive.batch-size:500}") final int batchSize) {
+    this.bookingRepository = bookingRepository;
+    this.archivedBookingRepository = archivedBookingRepository;
+    this.transactionTemplate = transactionTemplate;
+    this.archived = Counter.builder("shareit.bookings.archived")
+        .description("Closed bookings moved to the archive")
+        .register(registry);
+    this.enabled = enabled;
+    this.horizon = horizon;
+    this.batchSize = batchSize;
+  }
+
+  @Scheduled(fixedDelayString = "${shareit.bookings.archive.interval:PT1H}")
+  public void archiveClosedBookings() {
+    if (!enabled) {
+      return;
+    }
+    final LocalDateTime now = LocalDateTime.now();
+    final LocalDateTime threshold = now.minus(horizon);
+    int total = 0;
+    int moved;
+    do {
+      moved = archiveBatch(threshold, now);
+      total += moved;
+    } while (moved == batchSize);
+    if (total > 0) {
+      log.info("Archived {} bookings that ended before {}.", total, threshold);
+    }
+  }
+
+  private int archiveBatch(final LocalDateTime threshold, final LocalDateTime now) {
+    final Integer moved = transactionTemplate.execute(status -> {
+      final List<Long> bookingIds = bookingRepository.findIdsByEndBeforeAndStatusIn(threshold,
+          CLOSED_STATUSES, Limit.of(batchSize));
+      if (bookingIds.isEmpty()) {
+        return 0;
+      }
+      archivedBookingRepository.copyFromBookings(bookingIds, now);
+      return bookingRepository.deleteAllByIdIn(bookingIds);
+    });
+    archived.increment(moved);
+    return moved;
+  }
+}
@@ -2,12 +2,15 @@ package ru.practicum.shareit.booking;
 
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
+import java.io.IOException;
 import java.net.URI;
 import java.util.List;
+import java.util.Optional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -17,9 +20,17 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import ru.practicum.shareit.booking.dto.BookingBulkStatusDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.dto.BookingStatusUpdateDto;
+import ru.practicum.shareit.fields.FieldSet;
+import ru.practicum.shareit.idempotency.IdempotencyService;
+import ru.practicum.shareit.streaming.ArrayResponseStreamer;
+import ru.practicum.shareit.utils.MultiGet;
 import ru.practicum.shareit.validation.Create;
 import ru.practicum.shareit.validation.ValidState;
 
@@ -35,15 +46,21 @@ import ru.practicum.shareit.validation.ValidState;
 public class BookingController {
 
   private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+  private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
   private final BookingService bookingService;
+  private final IdempotencyService idempotencyService;
+  private final ArrayResponseStreamer arrayResponseStreamer;
 
   @PostMapping
   public ResponseEntity<BookingResponseDto> createBooking(
       @RequestHeader(USER_ID_HEADER) Long userId,
+      @RequestHeader(name = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
       @Validated(Create.class) @RequestBody BookingDto bookingDto) {
-    log.info("Received request POST /bookings for user with ID {} to create booking {}.",
-        userId, bookingDto);
-    final BookingResponseDto bookingCreated = bookingService.createBooking(userId, bookingDto);
+    log.info("Received request POST /bookings for user with ID {}.", userId);
+    log.debug("Booking to create: {}.", bookingDto);
+    final BookingResponseDto bookingCreated = idempotencyService.execute(userId,
+        "POST /bookings", idempotencyKey, bookingDto, BookingResponseDto.class,
+        () -> bookingService.createBooking(userId, bookingDto));
     final URI location = ServletUriComponentsBuilder
         .fromCurrentRequest()
         .path("/{id}")
@@ -63,40 +80,85 @@ public class BookingController {
         + "to update booking status by item owner ID {}.", approved, ownerId);
     final BookingResponseDto updatedBooking = bookingService.updateStatus(bookingId, ownerId,
         approved);
-    log.info("Booking status updated successfully: {}", updatedBooking);
+    log.info("Booking ID {} status updated successfully to {}.", updatedBooking.getId(),
+        updatedBooking.getStatus());
+    log.debug("Booking updated: {}.", updatedBooking);
     return ResponseEntity.ok(updatedBooking);
   }
 
+  @PatchMapping("/owner/status")
+  public ResponseEntity<BookingBulkStatusDto> updateBookingStatuses(
+      @RequestHeader(USER_ID_HEADER) Long ownerId,
+      @Validated @RequestBody BookingStatusUpdateDto statusUpdate) {
+    log.info("Received request PATCH /bookings/owner/status to set approved={} "
+            + "for {} bookings by item owner ID {}.", statusUpdate.getApproved(),
+        statusUpdate.getBookingIds().size(), ownerId);
+    final BookingBulkStatusDto result = bookingService.updateStatuses(ownerId,
+        statusUpdate.getBookingIds(), statusUpdate.getApproved());
+    log.info("Bookings status updated: {} succeeded, {} failed.", result.getUpdated().size(),
+        result.getFailed().size());
+    return ResponseEntity.ok(result);
+  }
+
   @GetMapping("/{bookingId}")
   public ResponseEntity<BookingResponseDto> getBookingById(
       @RequestHeader(USER_ID_HEADER) Long userId,
-      @PathVariable("bookingId") @NotNull @Positive Long bookingId) {
+      @PathVariable("bookingId") @NotNull @Positive Long bookingId,
+      @RequestParam(name = FieldSet.PARAMETER, required = false) String fields,
+      WebRequest request) {
     log.info("Received GET /bookings/{} frim user ID {}.", bookingId, userId);
-    final BookingResponseDto booking = bookingService.getBookingById(bookingId, userId);
-    log.info("Returning booking data: {}", booking);
+    final FieldSet fieldSet = FieldSet.of(fields, BookingResponseDto.class);
+    final Optional<String> etag = bookingService.getBookingETag(bookingId, userId, fieldSet);
+    if (etag.isPresent() && request.checkNotModified(etag.get())) {
+      log.info("Booking ID {} not modified.", bookingId);
+      return null;
+    }
+    final BookingResponseDto booking = bookingService.getBookingById(bookingId, userId, fieldSet);
+    log.info("Returning booking ID {}.", booking.getId());
+    log.debug("Booking data: {}.", booking);
     return ResponseEntity.ok(booking);
   }
 
+  @GetMapping(params = MultiGet.PARAMETER)
+  public ResponseEntity<List<BookingResponseDto>> getBookingsByIds(
+      @RequestHeader(USER_ID_HEADER) Long userId,
+      @RequestParam(name = MultiGet.PARAMETER) List<Long> ids,
+      @RequestParam(name = FieldSet.PARAMETER, required = false) String fields) {
+    log.info("Received GET /bookings?ids= for {} bookings from user ID {}.", ids.size(), userId);
+    final List<BookingResponseDto> bookings = bookingService.getBookingsByIds(ids, userId,
+        FieldSet.of(fields, BookingResponseDto.class));
+    log.info("Returning {} bookings for user ID {}", bookings.size(), userId);
+    return ResponseEntity.ok(bookings);
+  }
+
   @GetMapping
-  public ResponseEntity<List<BookingResponseDto>> getAllBookingForUser(
+  public void getAllBookingForUser(
       @RequestHeader(USER_ID_HEADER) Long userId,
       @RequestParam(value = "state", defaultValue = "All")
-      @ValidState String state) {
+      @ValidState String state,
+      @RequestParam(name = FieldSet.PARAMETER, required = false) String fields,
+      @RequestParam(name = "includeArchived", defaultValue = "false") boolean includeArchived,
+      ServletWebRequest request) throws IOException, HttpMediaTypeNotAcceptableException {
     log.info("Received GET /bookings?state={} for booker ID {}.", state, userId);
-    final List<BookingResponseDto> bookings = bookingService.getAllBookingForUser(userId, state);
-    log.info("Returning {} bookings for user ID {}", bookings.size(), userId);
-    return ResponseEntity.ok(bookings);
+    final FieldSet fieldSet = FieldSet.of(fields, BookingResponseDto.class);
+    final int count = arrayResponseStreamer.<BookingResponseDto>write(request, action ->
+        bookingService.forEachBookingForUser(userId, state, fieldSet, includeArchived, action));
+    log.info("Returning {} bookings for user ID {}", count, userId);
   }
 
   @GetMapping("/owner")
-  public ResponseEntity<List<BookingResponseDto>> getAllBookingForOwner(
+  public void getAllBookingForOwner(
       @RequestHeader(USER_ID_HEADER) Long ownerId,
       @RequestParam(value = "state", defaultValue = "All")
-      @ValidState String state) {
+      @ValidState String state,
+      @RequestParam(name = FieldSet.PARAMETER, required = false) String fields,
+      @RequestParam(name = "includeArchived", defaultValue = "false") boolean includeArchived,
+      ServletWebRequest request) throws IOException, HttpMediaTypeNotAcceptableException {
     log.info("GET /bookings/owner?state={} for owner ID {}.", state, ownerId);
-    final List<BookingResponseDto> bookings = bookingService.getAllBookingForOwner(ownerId, state);
-    log.info("Returning {} bookings for owner ID {}", bookings.size(), ownerId);
-    return ResponseEntity.ok(bookings);
+    final FieldSet fieldSet = FieldSet.of(fields, BookingResponseDto.class);
+    final int count = arrayResponseStreamer.<BookingResponseDto>write(request, action ->
+        bookingService.forEachBookingForOwner(ownerId, state, fieldSet, includeArchived, action));
+    log.info("Returning {} bookings for owner ID {}", count, ownerId);
   }
 
 
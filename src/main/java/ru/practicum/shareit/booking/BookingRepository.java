@@ -1,12 +1,29 @@
 package ru.practicum.shareit.booking;
 
+import jakarta.persistence.QueryHint;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
-
+import ru.practicum.shareit.streaming.StreamingReads;
+
+/**
+ * Repository interface for {@link Booking} entities. The {@code stream} methods read the bookings
+ * of a booker or an owner together with their item and booker, for {@link StreamingReads}. The
+ * {@code findRevision} methods read the versions behind the ETags of a booking and of the last and
+ * next booking of an item. The {@code findIds} methods read the IDs of a batch for
+ * {@link BookingArchiver} and {@link ru.practicum.shareit.user.UserDeletionPurger}, which remove
+ * the batch with {@link #deleteAllByIdIn(Collection)}.
+ */
 public interface BookingRepository extends JpaRepository<Booking, Long> {
 
   @Query("""
@@ -24,6 +41,29 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
 
   Optional<Booking> findByIdAndItemOwnerId(Long bookingId, Long ownerId);
 
+  @Query("""
+      select new ru.practicum.shareit.booking.BookingRevision(b.version, it.version, bk.version)
+      from Booking as b
+      join b.item as it
+      join b.booker as bk
+      where b.id = :bookingId
+      and (bk.id = :userId or it.owner.id = :userId)
+      """)
+  Optional<BookingRevision> findRevisionByIdAndItemOwnerIdOrBookerId(
+      @Param("bookingId") Long bookingId,
+      @Param("userId") Long userId);
+
+  @Query("""
+      select new ru.practicum.shareit.booking.ItemBookingsRevision(count(b), max(b.id),
+          min(case when b.start > :now then b.start end),
+          min(case when b.end >= :now then b.end end))
+      from Booking as b
+      where b.item.id = :itemId
+      """)
+  ItemBookingsRevision findRevisionByItemId(
+      @Param("itemId") Long itemId,
+      @Param("now") LocalDateTime now);
+
   @Query("""
       select  b
       from Booking as b
@@ -34,48 +74,125 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
       @Param("bookingId") Long bookingId,
       @Param("userId") Long userId);
 
-  List<Booking> findAllByBookerIdOrderByStartDesc(Long bookerId);
+  @Query("""
+      select b
+      from Booking as b
+      join fetch b.item as it
+      join fetch b.booker
+      where b.id in :bookingIds
+      and it.owner.id = :ownerId
+      """)
+  List<Booking> findAllByIdInAndItemOwnerId(
+      @Param("bookingIds") Collection<Long> bookingIds,
+      @Param("ownerId") Long ownerId);
 
-  List<Booking> findAllByBookerIdAndStartAfterOrderByStartDesc(
+  @Query("""
+      select b
+      from Booking as b
+      join fetch b.item as it
+      join fetch b.booker as bk
+      where b.id in :bookingIds
+      and (bk.id = :userId or it.owner.id = :userId)
+      """)
+  List<Booking> findAllByIdInAndItemOwnerIdOrBookerId(
+      @Param("bookingIds") Collection<Long> bookingIds,
+      @Param("userId") Long userId);
+
+  @EntityGraph(attributePaths = {"item", "booker"})
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = StreamingReads.FETCH_SIZE))
+  Stream<Booking> streamAllByBookerIdOrderByStartDesc(Long bookerId);
+
+  @EntityGraph(attributePaths = {"item", "booker"})
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = StreamingReads.FETCH_SIZE))
+  Stream<Booking> streamAllByBookerIdAndStartAfterOrderByStartDesc(
       Long bookerId,
       LocalDateTime now);
 
-  List<Booking> findByBookerIdAndStatusAndEndBeforeOrderByStartDesc(
+  @EntityGraph(attributePaths = {"item", "booker"})
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = StreamingReads.FETCH_SIZE))
+  Stream<Booking> streamAllByBookerIdAndStatusAndEndBeforeOrderByStartDesc(
       Long bookerId,
       BookingStatus status,
       LocalDateTime now);
 
-  List<Booking> findAllByBookerIdAndStatusAndStartBeforeAndEndAfterOrderByStartDesc(
+  @EntityGraph(attributePaths = {"item", "booker"})
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = StreamingReads.FETCH_SIZE))
+  Stream<Booking> streamAllByBookerIdAndStatusAndStartBeforeAndEndAfterOrderByStartDesc(
       Long bookerId,
       BookingStatus status,
       LocalDateTime end,
       LocalDateTime start);
 
-  List<Booking> findAllByBookerIdAndStatusOrderByStartDesc(Long bookerId, BookingStatus status);
+  @EntityGraph(attributePaths = {"item", "booker"})
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = StreamingReads.FETCH_SIZE))
+  Stream<Booking> streamAllByBookerIdAndStatusOrderByStartDesc(Long bookerId,
+                                                               BookingStatus status);
 
-  List<Booking> findAllByItemOwnerIdOrderByStartDesc(Long ownerId);
+  @EntityGraph(attributePaths = {"item", "booker"})
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = StreamingReads.FETCH_SIZE))
+  Stream<Booking> streamAllByItemOwnerIdOrderByStartDesc(Long ownerId);
 
-  List<Booking> findAllByItemOwnerIdAndStartAfterOrderByStartDesc(
+  @EntityGraph(attributePaths = {"item", "booker"})
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = StreamingReads.FETCH_SIZE))
+  Stream<Booking> streamAllByItemOwnerIdAndStartAfterOrderByStartDesc(
       Long ownerId,
       LocalDateTime now);
 
-  List<Booking> findAllByItemOwnerIdAndStatusAndEndBeforeOrderByStartDesc(
+  @EntityGraph(attributePaths = {"item", "booker"})
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = StreamingReads.FETCH_SIZE))
+  Stream<Booking> streamAllByItemOwnerIdAndStatusAndEndBeforeOrderByStartDesc(
       Long ownerId,
       BookingStatus bookingStatus,
       LocalDateTime now);
 
-  List<Booking> findAllByItemOwnerIdAndStatusAndStartBeforeAndEndAfterOrderByStartDesc(
+  @EntityGraph(attributePaths = {"item", "booker"})
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = StreamingReads.FETCH_SIZE))
+  Stream<Booking> streamAllByItemOwnerIdAndStatusAndStartBeforeAndEndAfterOrderByStartDesc(
       Long ownerId,
       BookingStatus bookingStatus,
       LocalDateTime end,
       LocalDateTime start);
 
-  List<Booking> findAllByItemOwnerIdAndStatusOrderByStartDesc(Long ownerId, BookingStatus name);
+  @EntityGraph(attributePaths = {"item", "booker"})
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = StreamingReads.FETCH_SIZE))
+  Stream<Booking> streamAllByItemOwnerIdAndStatusOrderByStartDesc(Long ownerId,
+                                                                  BookingStatus status);
 
   List<Booking> findByItemIdAndItemOwnerId(Long itemId, Long userId);
 
+  List<Booking> findAllByItemIdInAndItemOwnerId(Collection<Long> itemIds, Long ownerId);
+
   Boolean existsByItemIdAndBookerIdAndStatusAndEndBefore(
       Long itemId, Long userId,
       BookingStatus bookingStatus,
       LocalDateTime now);
+
+  @Query("""
+      select b.id
+      from Booking as b
+      where b.end < :threshold
+      and b.status in :statuses
+      """)
+  List<Long> findIdsByEndBeforeAndStatusIn(
+      @Param("threshold") LocalDateTime threshold,
+      @Param("statuses") Collection<BookingStatus> statuses,
+      Limit limit);
+
+  @Query("""
+      select b.id
+      from Booking as b
+      where b.booker.id = :bookerId
+      """)
+  List<Long> findIdsByBookerId(@Param("bookerId") Long bookerId, Limit limit);
+
+  @Query("""
+      select b.id
+      from Booking as b
+      where b.item.owner.id = :ownerId
+      """)
+  List<Long> findIdsByItemOwnerId(@Param("ownerId") Long ownerId, Limit limit);
+
+  @Modifying
+  @Query("delete from Booking as b where b.id in :bookingIds")
+  int deleteAllByIdIn(@Param("bookingIds") Collection<Long> bookingIds);
 }
@@ -0,0 +1,7 @@
+package ru.practicum.shareit.booking;
+
+/**
+ * The versions a booking response is assembled of: the booking, its item and its booker.
+ */
+public record BookingRevision(Long version, Long itemVersion, Long bookerVersion) {
+}
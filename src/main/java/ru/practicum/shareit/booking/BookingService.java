@@ -1,8 +1,12 @@
 package ru.practicum.shareit.booking;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import ru.practicum.shareit.booking.dto.BookingBulkStatusDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.fields.FieldSet;
 
 /**
  * A Service interface that handles business logic related to bookings.
@@ -12,10 +16,17 @@ import ru.practicum.shareit.booking.dto.BookingResponseDto;
  *   <li> {@link #createBooking(Long, BookingDto)}: Creates a new booking for a user.</li>
  *   <li> {@link #updateStatus(Long, Long, Boolean)}: Updates the status of a booking
  *        (approved/rejected) by the owner.</li>
- *   <li> {@link #getBookingById(Long, Long)}: Retrieves a booking by its ID for either the owner or the booker.</li>
- *   <li> {@link #getAllBookingForUser(Long, String)}: Retrieves all bookings for a specific user (booker) by {@link BookingState}.</li>
- *   <li> {@link #getAllBookingForOwner(Long, String)}: Retrieves all bookings for a specific owner with ability to filter by values of the {@link BookingState}.</li>
+ *   <li> {@link #updateStatuses(Long, List, Boolean)}: Approves or rejects several bookings of the
+ *        owner at once, reporting the bookings that could not be updated.</li>
+ *   <li> {@link #getBookingById(Long, Long, FieldSet)}: Retrieves a booking by its ID for either the owner or the booker.</li>
+ *   <li> {@link #getBookingETag(Long, Long, FieldSet)}: Retrieves the ETag of the same response from the versions of the booking, its item and its booker, empty if the booking is not found.</li>
+ *   <li> {@link #getBookingsByIds(List, Long, FieldSet)}: Retrieves several bookings by their IDs in one query for either the owner or the booker.</li>
+ *   <li> {@link #forEachBookingForUser(Long, String, FieldSet, boolean, Consumer)}: Hands all bookings for a specific user (booker) by {@link BookingState} over one by one while they are read, without collecting them.</li>
+ *   <li> {@link #forEachBookingForOwner(Long, String, FieldSet, boolean, Consumer)}: Hands all bookings for a specific owner, filtered by values of the {@link BookingState}, over one by one while they are read.</li>
  * </ul>
+ * <p> The item and the booker of a booking are loaded only if the {@link FieldSet} includes them.
+ * <p> Closed bookings that ended before the archive horizon are moved to {@link ArchivedBooking};
+ * {@code PAST} and {@code ALL} include them only if {@code includeArchived} is set.
  *
  * @see Booking
  * @see BookingController
@@ -30,9 +41,18 @@ public interface BookingService {
 
   BookingResponseDto updateStatus(Long id, Long ownerId, Boolean approved);
 
-  BookingResponseDto getBookingById(Long bookingId, Long userId);
+  BookingBulkStatusDto updateStatuses(Long ownerId, List<Long> bookingIds, Boolean approved);
 
-  List<BookingResponseDto> getAllBookingForUser(Long bookerId, String state);
+  BookingResponseDto getBookingById(Long bookingId, Long userId, FieldSet fields);
 
-  List<BookingResponseDto> getAllBookingForOwner(Long ownerId, String state);
+  Optional<String> getBookingETag(Long bookingId, Long userId, FieldSet fields);
+
+  List<BookingResponseDto> getBookingsByIds(List<Long> bookingIds, Long userId,
+                                            FieldSet fields);
+
+  void forEachBookingForUser(Long bookerId, String state, FieldSet fields,
+                             boolean includeArchived, Consumer<BookingResponseDto> action);
+
+  void forEachBookingForOwner(Long ownerId, String state, FieldSet fields,
+                              boolean includeArchived, Consumer<BookingResponseDto> action);
 }
@@ -1,21 +1,44 @@
 package ru.practicum.shareit.booking;
 
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.aop.MeterTag;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingBulkStatusDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingMapper;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.UserAuthorizationException;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.fields.FieldSet;
+import ru.practicum.shareit.invalidation.InvalidationBus;
+import ru.practicum.shareit.invalidation.InvalidationTopic;
 import ru.practicum.shareit.item.ItemService;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.popular.PopularItemsTracker;
+import ru.practicum.shareit.metrics.BookingStateTagResolver;
+import ru.practicum.shareit.metrics.MetricsConfig;
+import ru.practicum.shareit.streaming.StreamingReads;
 import ru.practicum.shareit.user.UserService;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.utils.ETags;
+import ru.practicum.shareit.utils.MultiGet;
+import ru.practicum.shareit.utils.RetryOnConflict;
 
 /**
  * Service implementation class for managing booking-related operations. This class also contains
@@ -27,14 +50,19 @@ import ru.practicum.shareit.user.model.User;
  * @see BookingResponseDto
  */
 @Service
+@Timed(MetricsConfig.SERVICE_TIMER)
 @RequiredArgsConstructor
 @Slf4j
 @Transactional(readOnly = true)
 public class BookingServiceImpl implements BookingService {
 
   private final BookingRepository bookingRepository;
+  private final ArchivedBookingRepository archivedBookingRepository;
   private final UserService userService;
   private final ItemService itemService;
+  private final PopularItemsTracker popularItemsTracker;
+  private final StreamingReads streamingReads;
+  private final InvalidationBus invalidationBus;
 
 
   @Override
@@ -46,7 +74,7 @@ public class BookingServiceImpl implements BookingService {
     final User booker = userService.getByIdOrThrow(userId);
     final Item itemToBook = itemService.getItemOrThrow(bookingDto.getItemId());
 
-    if (userId.equals(itemToBook.getId())) {
+    if (userId.equals(itemToBook.getOwner().getId())) {
       throw new NotFoundException("Booker can not be owner of item to book.");
     }
     validateItemAvailable(itemToBook, bookingDto);
@@ -57,11 +85,14 @@ public class BookingServiceImpl implements BookingService {
     bookingToSave.setStatus(BookingStatus.WAITING);
 
     final Booking saved = bookingRepository.save(bookingToSave);
+    popularItemsTracker.recordBooking(itemToBook.getId());
+    publishInvalidations(List.of(saved));
     return BookingMapper.mapToResponseDto(saved);
   }
 
   @Override
   @Transactional
+  @RetryOnConflict
   public BookingResponseDto updateStatus(
       final Long bookingId, final Long userId, final Boolean approved) {
     log.debug("Updating a booking status of booking {} by owner ID {}.", bookingId, userId);
@@ -71,47 +102,146 @@ public class BookingServiceImpl implements BookingService {
     bookingToUpdate.updateStatus(approved ? BookingStatus.APPROVED : BookingStatus.REJECTED);
 
     final Booking bookingUpdated = bookingRepository.save(bookingToUpdate);
+    publishInvalidations(List.of(bookingUpdated));
     return BookingMapper.mapToResponseDto(bookingUpdated);
   }
 
   @Override
-  public BookingResponseDto getBookingById(final Long bookingId, final Long userId) {
+  @Transactional
+  @RetryOnConflict
+  public BookingBulkStatusDto updateStatuses(
+      final Long ownerId, final List<Long> bookingIds, final Boolean approved) {
+    log.debug("Updating status of {} bookings by owner ID {}.", bookingIds.size(), ownerId);
+
+    validateUserAuthorized(ownerId);
+    final Set<Long> uniqueIds = new LinkedHashSet<>(bookingIds);
+    final Map<Long, Booking> ownedBookings =
+        bookingRepository.findAllByIdInAndItemOwnerId(uniqueIds, ownerId)
+            .stream()
+            .collect(Collectors.toMap(Booking::getId, Function.identity()));
+    final BookingStatus newStatus = approved ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+
+    final List<Booking> updated = new ArrayList<>();
+    final List<BookingBulkStatusDto.Failure> failed = new ArrayList<>();
+    for (Long bookingId : uniqueIds) {
+      final Booking booking = ownedBookings.get(bookingId);
+      if (booking == null) {
+        log.warn("Booking ID {} not found for owner ID {}.", bookingId, ownerId);
+        failed.add(toFailure(bookingId, "Booking not found or user is not the owner."));
+        continue;
+      }
+      try {
+        booking.updateStatus(newStatus);
+        updated.add(booking);
+      } catch (ValidationException e) {
+        log.warn("Booking ID {} can not be moved from status {} to {}.", bookingId,
+            booking.getStatus(), newStatus);
+        failed.add(toFailure(bookingId, e.getMessage()));
+      }
+    }
+
+    bookingRepository.saveAll(updated);
+    bookingRepository.flush();
+    publishInvalidations(updated);
+    if (log.isDebugEnabled()) {
+      log.debug("Updated {} bookings, {} rejected for owner ID {}.", updated.size(),
+          failed.size(), ownerId);
+    }
+    return BookingBulkStatusDto.builder()
+        .updated(BookingMapper.mapToResponseDto(updated))
+        .failed(failed)
+        .build();
+  }
+
+  @Override
+  public BookingResponseDto getBookingById(final Long bookingId, final Long userId,
+                                           final FieldSet fields) {
     log.debug("Fetching Booking ID {} where user ID {} is either Owner or Booker.",
         bookingId, userId);
     validateUserAuthorized(userId);
 
-    final Booking bookingFound =
-        bookingRepository.findByIdAndItemOwnerIdOrBookerId(bookingId, userId)
-            .orElseThrow(() -> {
-              log.warn("Booking ID {} where user ID {} is either Owner or Booker not found.",
-                  bookingId, userId);
-              return new NotFoundException("Booking not found.");
-            });
-    return BookingMapper.mapToResponseDto(bookingFound);
+    return bookingRepository.findByIdAndItemOwnerIdOrBookerId(bookingId, userId)
+        .map(booking -> BookingMapper.mapToResponseDto(booking, fields))
+        .or(() -> archivedBookingRepository.findByIdAndItemOwnerIdOrBookerId(bookingId, userId)
+            .map(booking -> BookingMapper.mapToResponseDto(booking, fields)))
+        .orElseThrow(() -> {
+          log.warn("Booking ID {} where user ID {} is either Owner or Booker not found.",
+              bookingId, userId);
+          return new NotFoundException("Booking not found.");
+        });
+  }
+
+  @Override
+  public Optional<String> getBookingETag(final Long bookingId, final Long userId,
+                                         final FieldSet fields) {
+    return bookingRepository.findRevisionByIdAndItemOwnerIdOrBookerId(bookingId, userId)
+        .map(revision -> ETags.of(fields, revision));
+  }
+
+  @Override
+  public List<BookingResponseDto> getBookingsByIds(final List<Long> bookingIds,
+                                                   final Long userId, final FieldSet fields) {
+    final List<Long> ids = MultiGet.distinctIds(bookingIds);
+    log.debug("Fetching {} bookings by IDs where user ID {} is either Owner or Booker.",
+        ids.size(), userId);
+    validateUserAuthorized(userId);
+
+    final List<BookingResponseDto> bookingsFound = new ArrayList<>(BookingMapper.mapToResponseDto(
+        bookingRepository.findAllByIdInAndItemOwnerIdOrBookerId(ids, userId), fields));
+    if (bookingsFound.size() < ids.size()) {
+      final Set<Long> foundIds = bookingsFound.stream()
+          .map(BookingResponseDto::getId)
+          .collect(Collectors.toSet());
+      final List<Long> missingIds = ids.stream()
+          .filter(id -> !foundIds.contains(id))
+          .toList();
+      archivedBookingRepository.findAllByIdInAndItemOwnerIdOrBookerId(missingIds, userId)
+          .forEach(booking -> bookingsFound.add(BookingMapper.mapToResponseDto(booking, fields)));
+    }
+    return MultiGet.inRequestedOrder(ids, bookingsFound, BookingResponseDto::getId,
+        "Booking not found.");
   }
 
   @Override
-  public List<BookingResponseDto> getAllBookingForUser(final Long bookerId, final String state) {
-    log.debug("Fetching all bookings for borrower ID {} and state {}.",
+  @Timed(MetricsConfig.BOOKING_QUERY_TIMER)
+  public void forEachBookingForUser(
+      final Long bookerId,
+      @MeterTag(key = "state", resolver = BookingStateTagResolver.class) final String state,
+      final FieldSet fields, final boolean includeArchived,
+      final Consumer<BookingResponseDto> action) {
+    log.debug("Streaming all bookings for borrower ID {} and state {}.",
         bookerId, state);
     validateUserAuthorized(bookerId);
-    return getBookingsForUserOrOwner(bookerId, state, true);
+    streamingReads.forEach(streamBookings(bookerId, state, true, fields, includeArchived),
+        action);
   }
 
   @Override
-  public List<BookingResponseDto> getAllBookingForOwner(final Long ownerId, final String state) {
-    log.debug("Fetching all bookings for items owner ID {} and state {}.",
+  @Timed(MetricsConfig.BOOKING_QUERY_TIMER)
+  public void forEachBookingForOwner(
+      final Long ownerId,
+      @MeterTag(key = "state", resolver = BookingStateTagResolver.class) final String state,
+      final FieldSet fields, final boolean includeArchived,
+      final Consumer<BookingResponseDto> action) {
+    log.debug("Streaming all bookings for items owner ID {} and state {}.",
         ownerId, state);
     validateUserAuthorized(ownerId);
-    return getBookingsForUserOrOwner(ownerId, state, false);
+    streamingReads.forEach(streamBookings(ownerId, state, false, fields, includeArchived),
+        action);
   }
 
-  private List<BookingResponseDto> getBookingsForUserOrOwner(
-      final Long id, final String state, final boolean isUser) {
+  /**
+   * Maps the bookings of a booker or an owner lazily, newest first, while they are read from the
+   * database. Archived bookings are merged in by their start, both queries being sorted by it.
+   */
+  private Stream<BookingResponseDto> streamBookings(
+      final Long id, final String state, final boolean isUser, final FieldSet fields,
+      final boolean includeArchived) {
     LocalDateTime now = LocalDateTime.now();
+    final BookingState bookingState = BookingState.fromString(state);
 
-    final List<Booking> bookings =
-        switch (BookingState.fromString(state)) {
+    final Stream<Booking> bookings =
+        switch (bookingState) {
           case WAITING -> isUser ?
               getAllByBookerAndStatus(id, BookingStatus.WAITING)
               : getAllByOwnerAndStatus(id, BookingStatus.WAITING);
@@ -128,49 +258,83 @@ public class BookingServiceImpl implements BookingService {
               getFutureByBooker(id, now)
               : getFutureByOwner(id, now);
           default -> isUser ?
-              bookingRepository.findAllByBookerIdOrderByStartDesc(id)
-              : bookingRepository.findAllByItemOwnerIdOrderByStartDesc(id);
+              bookingRepository.streamAllByBookerIdOrderByStartDesc(id)
+              : bookingRepository.streamAllByItemOwnerIdOrderByStartDesc(id);
         };
 
-    return BookingMapper.mapToResponseDto(bookings);
+    final Stream<BookingResponseDto> found =
+        bookings.map(booking -> BookingMapper.mapToResponseDto(booking, fields));
+    if (!includeArchived) {
+      return found;
+    }
+    log.debug("Including archived bookings for ID {} and state {}.", id, state);
+    return StreamingReads.mergeSorted(found,
+        getArchived(id, bookingState, isUser)
+            .map(booking -> BookingMapper.mapToResponseDto(booking, fields)),
+        Comparator.comparing(BookingResponseDto::getStart).reversed());
+  }
+
+  /**
+   * Reads archived bookings, which are all closed and ended long ago: approved ones belong to
+   * {@code PAST}, rejected ones to {@code REJECTED}, and both to {@code ALL}.
+   */
+  private Stream<ArchivedBooking> getArchived(final Long id, final BookingState state,
+                                              final boolean isUser) {
+    return switch (state) {
+      case PAST -> getArchivedByStatus(id, BookingStatus.APPROVED, isUser);
+      case REJECTED -> getArchivedByStatus(id, BookingStatus.REJECTED, isUser);
+      case ALL -> isUser
+          ? archivedBookingRepository.streamAllByBookerIdOrderByStartDesc(id)
+          : archivedBookingRepository.streamAllByItemOwnerIdOrderByStartDesc(id);
+      default -> Stream.empty();
+    };
   }
 
-  private List<Booking> getFutureByOwner(final Long ownerId, final LocalDateTime now) {
-    return bookingRepository.findAllByItemOwnerIdAndStartAfterOrderByStartDesc(ownerId, now);
+  private Stream<ArchivedBooking> getArchivedByStatus(final Long id, final BookingStatus status,
+                                                      final boolean isUser) {
+    return isUser
+        ? archivedBookingRepository.streamAllByBookerIdAndStatusOrderByStartDesc(id, status)
+        : archivedBookingRepository.streamAllByItemOwnerIdAndStatusOrderByStartDesc(id, status);
   }
 
-  private List<Booking> getPastByOwner(final Long ownerId, final LocalDateTime now) {
-    return bookingRepository.findAllByItemOwnerIdAndStatusAndEndBeforeOrderByStartDesc(
+  private Stream<Booking> getFutureByOwner(final Long ownerId, final LocalDateTime now) {
+    return bookingRepository.streamAllByItemOwnerIdAndStartAfterOrderByStartDesc(ownerId, now);
+  }
+
+  private Stream<Booking> getPastByOwner(final Long ownerId, final LocalDateTime now) {
+    return bookingRepository.streamAllByItemOwnerIdAndStatusAndEndBeforeOrderByStartDesc(
         ownerId, BookingStatus.APPROVED, now);
   }
 
-  private List<Booking> getCurrentByOwner(final Long ownerId, final LocalDateTime now) {
-    return bookingRepository.findAllByItemOwnerIdAndStatusAndStartBeforeAndEndAfterOrderByStartDesc(
-        ownerId, BookingStatus.APPROVED, now, now);
+  private Stream<Booking> getCurrentByOwner(final Long ownerId, final LocalDateTime now) {
+    return bookingRepository
+        .streamAllByItemOwnerIdAndStatusAndStartBeforeAndEndAfterOrderByStartDesc(
+            ownerId, BookingStatus.APPROVED, now, now);
   }
 
-  private List<Booking> getAllByOwnerAndStatus(final Long ownerId, final BookingStatus status) {
-    return bookingRepository.findAllByItemOwnerIdAndStatusOrderByStartDesc(ownerId, status);
+  private Stream<Booking> getAllByOwnerAndStatus(final Long ownerId, final BookingStatus status) {
+    return bookingRepository.streamAllByItemOwnerIdAndStatusOrderByStartDesc(ownerId, status);
   }
 
-  private List<Booking> getFutureByBooker(final Long bookerId, final LocalDateTime now) {
-    return bookingRepository.findAllByBookerIdAndStartAfterOrderByStartDesc(
+  private Stream<Booking> getFutureByBooker(final Long bookerId, final LocalDateTime now) {
+    return bookingRepository.streamAllByBookerIdAndStartAfterOrderByStartDesc(
         bookerId, now);
   }
 
-  private List<Booking> getPastByBooker(final Long bookerId, final LocalDateTime now) {
-    return bookingRepository.findByBookerIdAndStatusAndEndBeforeOrderByStartDesc(
+  private Stream<Booking> getPastByBooker(final Long bookerId, final LocalDateTime now) {
+    return bookingRepository.streamAllByBookerIdAndStatusAndEndBeforeOrderByStartDesc(
         bookerId, BookingStatus.APPROVED, now);
   }
 
-  private List<Booking> getCurrentByBooker(final Long bookerId, final LocalDateTime now) {
-    return bookingRepository.findAllByBookerIdAndStatusAndStartBeforeAndEndAfterOrderByStartDesc(
+  private Stream<Booking> getCurrentByBooker(final Long bookerId, final LocalDateTime now) {
+    return bookingRepository.streamAllByBookerIdAndStatusAndStartBeforeAndEndAfterOrderByStartDesc(
         bookerId, BookingStatus.APPROVED,
         now, now);
   }
 
-  private List<Booking> getAllByBookerAndStatus(final Long bookerId, final BookingStatus status) {
-    return bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(bookerId, status);
+  private Stream<Booking> getAllByBookerAndStatus(final Long bookerId,
+                                                  final BookingStatus status) {
+    return bookingRepository.streamAllByBookerIdAndStatusOrderByStartDesc(bookerId, status);
   }
 
   private Booking getBookingByIdAndOwnerOrThrow(final Long bookingId, final Long ownerId) {
@@ -183,9 +347,28 @@ public class BookingServiceImpl implements BookingService {
         });
   }
 
+  /**
+   * Invalidates the written bookings and their items, whose last and next bookings may change.
+   */
+  private void publishInvalidations(final List<Booking> bookings) {
+    invalidationBus.publish(InvalidationTopic.BOOKING,
+        bookings.stream().map(Booking::getId).toList());
+    invalidationBus.publish(InvalidationTopic.ITEM,
+        bookings.stream().map(booking -> booking.getItem().getId()).distinct().toList());
+  }
+
+  private BookingBulkStatusDto.Failure toFailure(final Long bookingId, final String error) {
+    return BookingBulkStatusDto.Failure.builder()
+        .bookingId(bookingId)
+        .error(error)
+        .build();
+  }
+
   private void validateItemAvailable(final Item item, final BookingDto booking) {
-    log.info("Validating availability for item ID {} for the period {} - {}.",
-        item.getId(), booking.getStart(), booking.getEnd());
+    if (log.isDebugEnabled()) {
+      log.debug("Validating availability for item ID {} for the period {} - {}.",
+          item.getId(), booking.getStart(), booking.getEnd());
+    }
     if (!item.isAvailable()) {
       log.warn("Item with ID {} is unavailable, available status = {}.", item.getId(),
           false);
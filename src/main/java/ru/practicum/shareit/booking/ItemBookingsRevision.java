@@ -0,0 +1,13 @@
+package ru.practicum.shareit.booking;
+
+import java.time.LocalDateTime;
+
+/**
+ * What the last and the next booking of an item depend on. Bookings only change their status,
+ * which the short booking does not show, so their number and the highest ID change with every
+ * added or archived one. Without any change, the last and the next booking move on when the
+ * earliest future start or the earliest future end is reached.
+ */
+public record ItemBookingsRevision(Long bookings, Long lastBookingId, LocalDateTime nextStart,
+                                   LocalDateTime nextEnd) {
+}
@@ -0,0 +1,35 @@
+package ru.practicum.shareit.booking.dto;
+
+import java.util.List;
+import lombok.Builder;
+import lombok.Data;
+import ru.practicum.shareit.booking.Booking;
+
+/**
+ * Data Transfer Object representing the outcome of a bulk booking status update: the bookings that
+ * were updated and, per booking ID, the reason why the others were not.
+ *
+ * @see Booking
+ * @see BookingStatusUpdateDto
+ */
+@Data
+@Builder
+public class BookingBulkStatusDto {
+
+  private List<BookingResponseDto> updated;
+
+  private List<Failure> failed;
+
+  /**
+   * A booking ID that could not be updated together with the reason.
+   */
+  @Data
+  @Builder
+  public static class Failure {
+
+    private Long bookingId;
+
+    private String error;
+
+  }
+}
@@ -4,7 +4,9 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 import lombok.experimental.UtilityClass;
+import ru.practicum.shareit.booking.ArchivedBooking;
 import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.fields.FieldSet;
 import ru.practicum.shareit.item.dto.ItemMapper;
 import ru.practicum.shareit.user.dto.UserMapper;
 
@@ -15,7 +17,10 @@ import ru.practicum.shareit.user.dto.UserMapper;
  *   <li>{@link #mapToBooking(BookingDto)}: Maps a {@link BookingDto} to a {@link Booking} entity.</li>
  *   <li>{@link #mapToResponseDto(Booking)}: Maps a {@link Booking} entity to a {@link BookingResponseDto}.</li>
  *   <li>{@link #mapToResponseDto(List)}: Converts a {@link List} of {@link Booking} entities to a list of {@link BookingResponseDto}.</li>
+ *   <li>{@link #mapToResponseDto(Booking, FieldSet)}, {@link #mapToResponseDto(List, FieldSet)}: Map only the requested item and booker, so that unrequested ones are not loaded.</li>
+ *   <li>{@link #mapToResponseDto(ArchivedBooking, FieldSet)}: Maps an {@link ArchivedBooking} entity to a {@link BookingResponseDto}.</li>
  *   <li>{@link #mapToShortDto(Booking)}: Maps a {@link Booking} entity to a {@link BookingShortDto} for concise responses.</li>
+ *   <li>{@link #mapToShortDto(ArchivedBooking)}: Maps an {@link ArchivedBooking} entity to a {@link BookingShortDto}.</li>
  * </ul>
  */
 @UtilityClass
@@ -31,26 +36,48 @@ public class BookingMapper {
   }
 
   public BookingResponseDto mapToResponseDto(final Booking booking) {
+    return mapToResponseDto(booking, FieldSet.ALL);
+  }
+
+  public BookingResponseDto mapToResponseDto(final Booking booking, final FieldSet fields) {
     Objects.requireNonNull(booking);
     return BookingResponseDto.builder()
         .id(booking.getId())
         .start(booking.getStart())
         .end(booking.getEnd())
         .status(booking.getStatus())
-        .booker(UserMapper.mapToUserDto(booking.getBooker()))
-        .item(ItemMapper.mapToItemDto(booking.getItem()))
+        .booker(fields.includes("booker") ? UserMapper.mapToUserDto(booking.getBooker()) : null)
+        .item(fields.includes("item") ? ItemMapper.mapToItemDto(booking.getItem()) : null)
         .build();
   }
 
   public List<BookingResponseDto> mapToResponseDto(final List<Booking> bookings) {
+    return mapToResponseDto(bookings, FieldSet.ALL);
+  }
+
+  public List<BookingResponseDto> mapToResponseDto(final List<Booking> bookings,
+                                                   final FieldSet fields) {
     if (bookings == null) {
       return Collections.emptyList();
     }
     return bookings.stream()
-        .map(BookingMapper::mapToResponseDto)
+        .map(booking -> mapToResponseDto(booking, fields))
         .toList();
   }
 
+  public BookingResponseDto mapToResponseDto(final ArchivedBooking booking,
+                                             final FieldSet fields) {
+    Objects.requireNonNull(booking);
+    return BookingResponseDto.builder()
+        .id(booking.getId())
+        .start(booking.getStart())
+        .end(booking.getEnd())
+        .status(booking.getStatus())
+        .booker(fields.includes("booker") ? UserMapper.mapToUserDto(booking.getBooker()) : null)
+        .item(fields.includes("item") ? ItemMapper.mapToItemDto(booking.getItem()) : null)
+        .build();
+  }
+
   public BookingShortDto mapToShortDto(final Booking booking) {
     if (booking == null) {
       return null;
@@ -62,4 +89,16 @@ public class BookingMapper {
         .bookerId(booking.getBooker().getId())
         .build();
   }
+
+  public BookingShortDto mapToShortDto(final ArchivedBooking booking) {
+    if (booking == null) {
+      return null;
+    }
+    return BookingShortDto.builder()
+        .id(booking.getId())
+        .start(booking.getStart())
+        .end(booking.getEnd())
+        .bookerId(booking.getBooker().getId())
+        .build();
+  }
 }
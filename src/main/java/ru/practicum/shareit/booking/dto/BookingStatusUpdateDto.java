@@ -0,0 +1,30 @@
+package ru.practicum.shareit.booking.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+import lombok.Builder;
+import lombok.Data;
+import ru.practicum.shareit.booking.Booking;
+
+/**
+ * Data Transfer Object representing a request of an item owner to approve or reject several
+ * bookings at once.
+ *
+ * @see Booking
+ * @see BookingBulkStatusDto
+ */
+@Data
+@Builder
+public class BookingStatusUpdateDto {
+
+  @NotEmpty(message = "Booking IDs can not be empty.")
+  @Size(max = 500, message = "No more than 500 bookings can be updated at once.")
+  private List<@NotNull @Positive Long> bookingIds;
+
+  @NotNull(message = "Approved should be defined.")
+  private Boolean approved;
+
+}
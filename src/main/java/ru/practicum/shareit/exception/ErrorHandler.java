@@ -3,10 +3,15 @@ package ru.practicum.shareit.exception;
 
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.ConstraintViolationException;
+import java.time.Duration;
 import java.util.List;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.support.DefaultMessageSourceResolvable;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
@@ -58,6 +63,14 @@ public class ErrorHandler {
     return new ErrorResponse(e.getMessage());
   }
 
+  @ExceptionHandler
+  @ResponseStatus(HttpStatus.CONFLICT)
+  public ErrorResponse handleOptimisticLockingFailureException(
+      final OptimisticLockingFailureException e) {
+    log.warn("OptimisticLockingFailureException was thrown: {}", e.getMessage());
+    return new ErrorResponse("The resource was modified concurrently. Please retry.");
+  }
+
   @ExceptionHandler
   @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
   public ErrorResponse handleDatabaseException(final DatabaseException e) {
@@ -65,6 +78,32 @@ public class ErrorHandler {
     return new ErrorResponse("Internal server error.");
   }
 
+  @ExceptionHandler
+  @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+  public ErrorResponse handleCannotCreateTransactionException(
+      final CannotCreateTransactionException e) {
+    log.warn("CannotCreateTransactionException was thrown: {}", e.getMessage());
+    return new ErrorResponse("Service is temporarily unavailable. Please retry.");
+  }
+
+  @ExceptionHandler
+  public ResponseEntity<ErrorResponse> handleRateLimitExceededException(
+      final RateLimitExceededException e) {
+    log.warn("RateLimitExceededException was thrown: {}", e.getMessage());
+    return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+        .header(HttpHeaders.RETRY_AFTER, retryAfterSeconds(e.getRetryAfter()))
+        .body(new ErrorResponse(e.getMessage()));
+  }
+
+  @ExceptionHandler
+  public ResponseEntity<ErrorResponse> handleServiceOverloadedException(
+      final ServiceOverloadedException e) {
+    log.warn("ServiceOverloadedException was thrown: {}", e.getMessage());
+    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+        .header(HttpHeaders.RETRY_AFTER, "1")
+        .body(new ErrorResponse(e.getMessage()));
+  }
+
   @ExceptionHandler
   @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
   public ErrorResponse handleAllExceptions(final Exception e) {
@@ -84,5 +123,7 @@ public class ErrorHandler {
     return new ErrorResponse(message);
   }
 
-
+  private static String retryAfterSeconds(final Duration retryAfter) {
+    return String.valueOf(Math.max(1L, (retryAfter.toMillis() + 999L) / 1000L));
+  }
 }
@@ -0,0 +1,8 @@
+package ru.practicum.shareit.exception;
+
+public class ServiceOverloadedException extends RuntimeException {
+
+  public ServiceOverloadedException(final String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,81 @@
+package ru.practicum.shareit.fields;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import ru.practicum.shareit.exception.ValidationException;
+
+/**
+ * Response properties requested with the {@code fields} query parameter (sparse fieldsets), e.g.
+ * {@code fields=id,name,available}. Services skip the queries behind properties that are not
+ * requested, and {@link FieldSetResponseAdvice} leaves them out of the response. Only properties
+ * of the top-level objects are selected; a requested nested object is written in full.
+ */
+public final class FieldSet {
+
+  public static final String PARAMETER = "fields";
+  public static final String FILTER_ID = "fieldSet";
+  public static final FieldSet ALL = new FieldSet(null);
+
+  private static final Map<Class<?>, Set<String>> PROPERTIES = new ConcurrentHashMap<>();
+
+  private final Set<String> names;
+
+  private FieldSet(final Set<String> names) {
+    this.names = names;
+  }
+
+  /**
+   * Parses the parameter value, rejecting names that are not properties of the response type.
+   * A missing parameter selects all properties.
+   */
+  public static FieldSet of(final String fields, final Class<?> responseType) {
+    if (fields == null) {
+      return ALL;
+    }
+    final Set<String> names = parse(fields);
+    final Set<String> properties = PROPERTIES.computeIfAbsent(responseType, FieldSet::propertiesOf);
+    final Set<String> unknown = names.stream()
+        .filter(name -> !properties.contains(name))
+        .collect(Collectors.toCollection(TreeSet::new));
+    if (!unknown.isEmpty()) {
+      throw new ValidationException("Unknown fields: " + String.join(", ", unknown) + ".");
+    }
+    return new FieldSet(names);
+  }
+
+  public boolean includes(final String name) {
+    return names == null || names.contains(name);
+  }
+
+  public boolean includesAny(final String... names) {
+    return Arrays.stream(names).anyMatch(this::includes);
+  }
+
+  /**
+   * The requested names in alphabetical order, or {@code *} for all properties.
+   */
+  @Override
+  public String toString() {
+    return names == null ? "*" : String.join(",", new TreeSet<>(names));
+  }
+
+  static Set<String> parse(final String fields) {
+    return Arrays.stream(fields.split(","))
+        .map(String::trim)
+        .filter(name -> !name.isEmpty())
+        .collect(Collectors.toUnmodifiableSet());
+  }
+
+  private static Set<String> propertiesOf(final Class<?> type) {
+    return Arrays.stream(type.getDeclaredFields())
+        .filter(field -> !Modifier.isStatic(field.getModifiers()))
+        .map(Field::getName)
+        .collect(Collectors.toUnmodifiableSet());
+  }
+}
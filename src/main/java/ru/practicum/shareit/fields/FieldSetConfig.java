@@ -0,0 +1,22 @@
+package ru.practicum.shareit.fields;
+
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers a default filter that writes all properties, so types annotated with
+ * {@code @JsonFilter(FieldSet.FILTER_ID)} are serialized in full outside of
+ * {@link FieldSetResponseAdvice}, e.g. by the idempotency store.
+ */
+@Configuration
+public class FieldSetConfig {
+
+  @Bean
+  public Jackson2ObjectMapperBuilderCustomizer fieldSetFilterCustomizer() {
+    return builder -> builder.filters(new SimpleFilterProvider()
+        .addFilter(FieldSet.FILTER_ID, SimpleBeanPropertyFilter.serializeAll()));
+  }
+}
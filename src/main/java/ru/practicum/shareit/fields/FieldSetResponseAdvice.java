@@ -0,0 +1,101 @@
+package ru.practicum.shareit.fields;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.ser.PropertyWriter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.annotation.MergedAnnotation;
+import org.springframework.core.annotation.MergedAnnotations;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.AbstractMappingJacksonResponseBodyAdvice;
+
+/**
+ * Applies the {@code fields} query parameter to response types annotated with
+ * {@code @JsonFilter(FieldSet.FILTER_ID)}: properties of the top-level objects, i.e. the response
+ * object or the elements of a response list, are written only if requested. Without the
+ * parameter, the default filter of {@link FieldSetConfig} writes all properties.
+ * <p>
+ * Only handlers that declare the parameter are filtered; they validate it with
+ * {@link FieldSet#of(String, Class)}, so unknown names are rejected instead of producing empty
+ * objects. Other handlers, e.g. the ones creating and updating resources, ignore it.
+ */
+@RestControllerAdvice("ru.practicum.shareit")
+public class FieldSetResponseAdvice extends AbstractMappingJacksonResponseBodyAdvice {
+
+  private final Map<Method, Boolean> filteredHandlers = new ConcurrentHashMap<>();
+
+  @Override
+  protected void beforeBodyWriteInternal(final MappingJacksonValue bodyContainer,
+                                         final MediaType contentType,
+                                         final MethodParameter returnType,
+                                         final ServerHttpRequest request,
+                                         final ServerHttpResponse response) {
+    if (!(request instanceof ServletServerHttpRequest servletRequest)
+        || returnType.getMethod() == null
+        || !filteredHandlers.computeIfAbsent(returnType.getMethod(),
+            FieldSetResponseAdvice::declaresParameter)) {
+      return;
+    }
+    final String fields = servletRequest.getServletRequest().getParameter(FieldSet.PARAMETER);
+    if (fields != null) {
+      bodyContainer.setFilters(filters(fields));
+    }
+  }
+
+  /**
+   * Filters that write only the requested properties of the top-level objects, for responses
+   * serialized outside of this advice.
+   */
+  public static FilterProvider filters(final String fields) {
+    return new SimpleFilterProvider()
+        .addFilter(FieldSet.FILTER_ID, new TopLevelFilter(FieldSet.parse(fields)));
+  }
+
+  private static boolean declaresParameter(final Method handler) {
+    return Arrays.stream(handler.getParameters())
+        .map(parameter -> MergedAnnotations.from(parameter).get(RequestParam.class))
+        .filter(MergedAnnotation::isPresent)
+        .anyMatch(requestParam -> FieldSet.PARAMETER.equals(requestParam.getString("name")));
+  }
+
+  private static final class TopLevelFilter extends SimpleBeanPropertyFilter {
+
+    private final Set<String> names;
+
+    private TopLevelFilter(final Set<String> names) {
+      this.names = names;
+    }
+
+    @Override
+    public void serializeAsField(final Object pojo, final JsonGenerator generator,
+                                 final SerializerProvider provider, final PropertyWriter writer)
+        throws Exception {
+      if (names.contains(writer.getName()) || !isTopLevel(generator.getOutputContext())) {
+        writer.serializeAsField(pojo, generator, provider);
+      } else if (!generator.canOmitFields()) {
+        writer.serializeAsOmittedField(pojo, generator, provider);
+      }
+    }
+
+    private static boolean isTopLevel(final JsonStreamContext context) {
+      final JsonStreamContext parent = context.getParent();
+      return parent == null || parent.inRoot()
+          || (parent.inArray() && parent.getParent().inRoot());
+    }
+  }
+}
@@ -0,0 +1,193 @@
+package ru.practicum.shareit.formats;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.filter.OncePerRequestFilter;
+import ru.practicum.shareit.jdbc.SqlBudgetFilter;
+
+/**
+ * Makes {@code server.compression.min-response-size} effective for responses written without a
+ * {@code Content-Length}, which the message converters and the streamed lists never set. Tomcat
+ * compresses every response of unknown length, so a body is held back until it exceeds the
+ * threshold: a shorter one is sent with its length and uncompressed, a longer one continues as
+ * written and is compressed.
+ * <p>
+ * The filter runs right outside {@link SqlBudgetFilter}, so in diagnostic mode it receives the
+ * body that filter has buffered, together with its headers. Conditional GETs are answered by the
+ * handlers, inside both filters, and a 304 reaches this one without a body.
+ */
+@Component
+@ConditionalOnProperty(name = "server.compression.enabled", havingValue = "true")
+@Order(SqlBudgetFilter.ORDER - 1)
+public class CompressionThresholdFilter extends OncePerRequestFilter {
+
+  private final int threshold;
+
+  public CompressionThresholdFilter(
+      @Value("${server.compression.min-response-size:2KB}") final DataSize threshold) {
+    this.threshold = (int) threshold.toBytes();
+  }
+
+  @Override
+  protected void doFilterInternal(final HttpServletRequest request,
+                                  final HttpServletResponse response,
+                                  final FilterChain filterChain)
+      throws ServletException, IOException {
+    final ThresholdResponse thresholdResponse = new ThresholdResponse(response, threshold);
+    filterChain.doFilter(request, thresholdResponse);
+    thresholdResponse.finish();
+  }
+
+  private static final class ThresholdResponse extends HttpServletResponseWrapper {
+
+    private final int threshold;
+    private final ByteArrayOutputStream held = new ByteArrayOutputStream();
+    private ThresholdOutputStream outputStream;
+    private PrintWriter writer;
+    private boolean passedThrough;
+
+    private ThresholdResponse(final HttpServletResponse response, final int threshold) {
+      super(response);
+      this.threshold = threshold;
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() {
+      if (writer != null) {
+        throw new IllegalStateException("getWriter() has already been called");
+      }
+      if (outputStream == null) {
+        outputStream = new ThresholdOutputStream();
+      }
+      return outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+      if (writer == null) {
+        if (outputStream != null) {
+          throw new IllegalStateException("getOutputStream() has already been called");
+        }
+        outputStream = new ThresholdOutputStream();
+        writer = new PrintWriter(new OutputStreamWriter(outputStream, getCharacterEncoding()));
+      }
+      return writer;
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+      if (writer != null) {
+        writer.flush();
+      }
+      if (passedThrough) {
+        super.flushBuffer();
+      }
+    }
+
+    @Override
+    public void resetBuffer() {
+      super.resetBuffer();
+      held.reset();
+    }
+
+    @Override
+    public void reset() {
+      super.reset();
+      held.reset();
+    }
+
+    private void finish() throws IOException {
+      if (outputStream == null) {
+        return;
+      }
+      if (writer != null) {
+        writer.flush();
+      }
+      if (!passedThrough && !isCommitted()) {
+        setContentLength(held.size());
+        held.writeTo(getResponse().getOutputStream());
+      }
+    }
+
+    private void passThrough() throws IOException {
+      passedThrough = true;
+      held.writeTo(getResponse().getOutputStream());
+      held.reset();
+    }
+
+    private final class ThresholdOutputStream extends ServletOutputStream {
+
+      @Override
+      public void write(final int b) throws IOException {
+        if (passedThrough) {
+          getResponse().getOutputStream().write(b);
+          return;
+        }
+        held.write(b);
+        if (held.size() > threshold) {
+          passThrough();
+        }
+      }
+
+      @Override
+      public void write(final byte[] bytes, final int offset, final int length)
+          throws IOException {
+        if (passedThrough) {
+          getResponse().getOutputStream().write(bytes, offset, length);
+          return;
+        }
+        held.write(bytes, offset, length);
+        if (held.size() > threshold) {
+          passThrough();
+        }
+      }
+
+      @Override
+      public void flush() throws IOException {
+        if (passedThrough) {
+          getResponse().getOutputStream().flush();
+        }
+      }
+
+      @Override
+      public boolean isReady() {
+        try {
+          return !passedThrough || getResponse().getOutputStream().isReady();
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      }
+
+      /**
+       * A non-blocking writer is handed to the wrapped stream, so whatever has been held back is
+       * passed on first and the rest of the body is not held.
+       */
+      @Override
+      public void setWriteListener(final WriteListener writeListener) {
+        try {
+          if (!passedThrough) {
+            passThrough();
+          }
+          getResponse().getOutputStream().setWriteListener(writeListener);
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,55 @@
+package ru.practicum.shareit.idempotency;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Represents the stored outcome of a request executed with an {@code Idempotency-Key} header.
+ * <p>
+ * This class is mapped to the "idempotency_keys" table in the database.
+ */
+@Entity
+@Table(name = "idempotency_keys")
+@NoArgsConstructor
+@AllArgsConstructor
+@Setter
+@Getter
+@EqualsAndHashCode
+@Builder
+public class IdempotencyRecord {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @Column(updatable = false, nullable = false)
+  private Long id;
+
+  @Column(name = "user_id", nullable = false, updatable = false)
+  private Long userId;
+
+  @Column(name = "operation", length = 50, nullable = false, updatable = false)
+  private String operation;
+
+  @Column(name = "idempotency_key", nullable = false, updatable = false)
+  private String key;
+
+  @Column(name = "request_hash", length = 64, nullable = false, updatable = false)
+  private String requestHash;
+
+  @Column(name = "response_body", nullable = false, updatable = false)
+  private String responseBody;
+
+  @Column(name = "created", nullable = false, updatable = false)
+  private LocalDateTime created;
+
+}
@@ -0,0 +1,28 @@
+package ru.practicum.shareit.idempotency;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+/**
+ * A repository interface for managing {@link IdempotencyRecord} persistence and retrieval.
+ * <ul>
+ *   <li>{@link #findByUserIdAndOperationAndKey(Long, String, String)}: Retrieves the stored outcome of a request by its key.</li>
+ *   <li>{@link #deleteAllCreatedBefore(LocalDateTime)}: Removes outcomes whose retention period has expired.</li>
+ * </ul>
+ *
+ * @see IdempotencyRecord
+ * @see JpaRepository
+ */
+public interface IdempotencyRepository extends JpaRepository<IdempotencyRecord, Long> {
+
+  Optional<IdempotencyRecord> findByUserIdAndOperationAndKey(Long userId, String operation,
+                                                             String key);
+
+  @Modifying
+  @Query("delete from IdempotencyRecord as ir where ir.created < :threshold")
+  int deleteAllCreatedBefore(@Param("threshold") LocalDateTime threshold);
+}
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.idempotency;
+
+import java.util.function.Supplier;
+
+/**
+ * A service interface for executing non-idempotent operations at most once per client-supplied
+ * {@code Idempotency-Key}.
+ * <ul>
+ *   <li>{@link #execute(Long, String, String, Object, Class, Supplier)}: Runs the operation on the
+ *   first call with the key and returns the stored result on every retry within the retention
+ *   period.</li>
+ * </ul>
+ *
+ * @see IdempotencyServiceImpl
+ */
+public interface IdempotencyService {
+
+  <T> T execute(Long userId, String operation, String key, Object request, Class<T> responseType,
+                Supplier<T> action);
+}
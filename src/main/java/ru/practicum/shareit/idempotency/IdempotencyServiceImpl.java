@@ -0,0 +1,201 @@
+package ru.practicum.shareit.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.DigestUtils;
+import ru.practicum.shareit.exception.DuplicatedDataException;
+import ru.practicum.shareit.exception.ValidationException;
+
+/**
+ * Service implementation class for idempotent execution of create operations.
+ * <p>
+ * The outcome of the first successful execution is persisted in the same transaction as the
+ * operation itself, so the unique constraint on {@code (user_id, operation, idempotency_key)}
+ * rejects a concurrent duplicate and rolls back its insert; other constraint violations are the
+ * operation's own and are rethrown. Keys are limited to {@value #MAX_KEY_LENGTH} characters, the
+ * size of the column. Recent outcomes are additionally kept in a bounded in-memory store once
+ * their transaction has committed, so most retries are answered without a database round trip.
+ * Outcomes expire after the configured TTL and are purged from both stores periodically.
+ *
+ * @see IdempotencyRecord
+ * @see IdempotencyRepository
+ */
+@Service
+@Slf4j
+public class IdempotencyServiceImpl implements IdempotencyService {
+
+  private static final int MAX_KEY_LENGTH = 255;
+  private static final String KEY_CONSTRAINT = "uq_idempotency_key";
+
+  private final IdempotencyRepository idempotencyRepository;
+  private final TransactionTemplate transactionTemplate;
+  private final ObjectMapper objectMapper;
+  private final Duration ttl;
+  private final int maxCachedResponses;
+  private final Map<String, StoredResponse> responses = new ConcurrentHashMap<>();
+
+  public IdempotencyServiceImpl(
+      final IdempotencyRepository idempotencyRepository,
+      final TransactionTemplate transactionTemplate,
+      final ObjectMapper objectMapper,
+      @Value("${shareit.idempotency.ttl:PT24H}") final Duration ttl,
+      @Value("${shareit.idempotency.max-cached-responses:10000}") final int maxCachedResponses) {
+    this.idempotencyRepository = idempotencyRepository;
+    this.transactionTemplate = transactionTemplate;
+    this.objectMapper = objectMapper;
+    this.ttl = ttl;
+    this.maxCachedResponses = maxCachedResponses;
+  }
+
+  @Override
+  public <T> T execute(final Long userId, final String operation, final String key,
+                       final Object request, final Class<T> responseType,
+                       final Supplier<T> action) {
+    if (key == null || key.isBlank()) {
+      return action.get();
+    }
+    if (key.length() > MAX_KEY_LENGTH) {
+      log.warn("Idempotency key of {} characters rejected for user ID {}.", key.length(), userId);
+      throw new ValidationException(
+          "Idempotency key can not be longer than " + MAX_KEY_LENGTH + " characters.");
+    }
+    final String cacheKey = userId + ":" + operation + ":" + key;
+    final String requestHash = hash(request);
+    final LocalDateTime now = LocalDateTime.now();
+
+    final StoredResponse cached = responses.get(cacheKey);
+    if (cached != null && cached.expiresAt().isAfter(now)) {
+      if (log.isDebugEnabled()) {
+        log.debug("Replaying cached response of {} for user ID {} and key {}.", operation,
+            userId, key);
+      }
+      return replay(cached, requestHash, responseType);
+    }
+
+    final Optional<IdempotencyRecord> stored =
+        idempotencyRepository.findByUserIdAndOperationAndKey(userId, operation, key);
+    if (stored.isPresent() && stored.get().getCreated().plus(ttl).isAfter(now)) {
+      if (log.isDebugEnabled()) {
+        log.debug("Replaying stored response of {} for user ID {} and key {}.", operation,
+            userId, key);
+      }
+      return replay(remember(cacheKey, stored.get()), requestHash, responseType);
+    }
+
+    try {
+      return transactionTemplate.execute(status -> {
+        stored.ifPresent(idempotencyRepository::delete);
+        final T result = action.get();
+        final IdempotencyRecord saved = idempotencyRepository.saveAndFlush(
+            IdempotencyRecord.builder()
+                .userId(userId)
+                .operation(operation)
+                .key(key)
+                .requestHash(requestHash)
+                .responseBody(serialize(result))
+                .created(now)
+                .build());
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+          @Override
+          public void afterCommit() {
+            remember(cacheKey, saved);
+          }
+        });
+        return result;
+      });
+    } catch (DataIntegrityViolationException e) {
+      if (!isDuplicateKey(e)) {
+        throw e;
+      }
+      log.warn("Concurrent {} with key {} for user ID {} detected, replaying the winner.",
+          operation, key, userId);
+      final IdempotencyRecord winner =
+          idempotencyRepository.findByUserIdAndOperationAndKey(userId, operation, key)
+              .orElseThrow(() -> e);
+      return replay(remember(cacheKey, winner), requestHash, responseType);
+    }
+  }
+
+  @Scheduled(fixedDelayString = "${shareit.idempotency.purge-interval:PT10M}")
+  public void purgeExpired() {
+    final LocalDateTime now = LocalDateTime.now();
+    responses.values().removeIf(response -> !response.expiresAt().isAfter(now));
+    final int deleted = transactionTemplate.execute(
+        status -> idempotencyRepository.deleteAllCreatedBefore(now.minus(ttl)));
+    log.debug("Purged {} expired idempotency records.", deleted);
+  }
+
+  private StoredResponse remember(final String cacheKey, final IdempotencyRecord idempotencyRecord) {
+    final StoredResponse response = new StoredResponse(idempotencyRecord.getRequestHash(),
+        idempotencyRecord.getResponseBody(), idempotencyRecord.getCreated().plus(ttl));
+    if (responses.size() >= maxCachedResponses) {
+      final LocalDateTime now = LocalDateTime.now();
+      responses.values().removeIf(stored -> !stored.expiresAt().isAfter(now));
+    }
+    if (responses.size() < maxCachedResponses) {
+      responses.put(cacheKey, response);
+    }
+    return response;
+  }
+
+  private <T> T replay(final StoredResponse response, final String requestHash,
+                       final Class<T> responseType) {
+    if (!response.requestHash().equals(requestHash)) {
+      log.warn("Idempotency key reused with a different request payload.");
+      throw new DuplicatedDataException(
+          "Idempotency key has already been used for a different request.");
+    }
+    try {
+      return objectMapper.readValue(response.body(), responseType);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Stored response cannot be restored.", e);
+    }
+  }
+
+  /**
+   * Tells a concurrent duplicate of the key apart from a constraint violated by the operation.
+   */
+  private static boolean isDuplicateKey(final DataIntegrityViolationException e) {
+    for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+      if (cause instanceof ConstraintViolationException violation
+          && violation.getConstraintName() != null
+          && violation.getConstraintName().toLowerCase(Locale.ROOT).contains(KEY_CONSTRAINT)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private String hash(final Object request) {
+    return DigestUtils.md5DigestAsHex(serialize(request).getBytes(StandardCharsets.UTF_8));
+  }
+
+  private String serialize(final Object value) {
+    try {
+      return objectMapper.writeValueAsString(value);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Value cannot be serialized.", e);
+    }
+  }
+
+  private record StoredResponse(String requestHash, String body, LocalDateTime expiresAt) {
+
+  }
+}
@@ -0,0 +1,38 @@
+package ru.practicum.shareit.invalidation;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Tells the caches of every application node that entities have changed.
+ * <p>
+ * Services publish the IDs of the entities they write. Inside a transaction, invalidations are
+ * delivered only after it commits, and not at all if it rolls back, so a cache never reloads a
+ * value before the write is visible. Listeners subscribe to a topic and receive every published
+ * ID at least once, possibly more than once, so evicting an entry must be idempotent.
+ * <p>
+ * Implementations:
+ * <ul>
+ *   <li>{@link LocalInvalidationBus}: delivers within the node, for a single node
+ *   ({@code shareit.invalidation.bus=local}, the default).</li>
+ *   <li>{@link JdbcInvalidationBus}: also writes the invalidations into a table that the other
+ *   nodes poll, woken up by {@code LISTEN/NOTIFY} on PostgreSQL
+ *   ({@code shareit.invalidation.bus=jdbc}).</li>
+ * </ul>
+ */
+public interface InvalidationBus {
+
+  default void publish(final InvalidationTopic topic, final Long id) {
+    publish(topic, List.of(id));
+  }
+
+  void publish(InvalidationTopic topic, Collection<Long> ids);
+
+  /**
+   * Registers {@code listener} for the IDs published on {@code topic} by any node. Listeners are
+   * called on the publishing thread for invalidations of this node, and on a background thread for
+   * those of other nodes; they must be fast and thread-safe.
+   */
+  void subscribe(InvalidationTopic topic, Consumer<Long> listener);
+}
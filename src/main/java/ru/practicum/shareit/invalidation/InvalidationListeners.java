@@ -0,0 +1,88 @@
+package ru.practicum.shareit.invalidation;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * The listeners of a bus and their delivery. A failing listener is logged and does not keep the
+ * others from their invalidations. Invalidations are counted by {@code shareit.invalidation}
+ * with the {@code topic} and the {@code event} tag: {@code published} on this node, and
+ * {@code delivered} with the {@code origin} {@code local} or {@code remote}.
+ */
+@Slf4j
+class InvalidationListeners {
+
+  private final Map<InvalidationTopic, List<Consumer<Long>>> listeners =
+      new EnumMap<>(InvalidationTopic.class);
+  private final MeterRegistry registry;
+
+  InvalidationListeners(final MeterRegistry registry) {
+    this.registry = registry;
+    for (InvalidationTopic topic : InvalidationTopic.values()) {
+      listeners.put(topic, new CopyOnWriteArrayList<>());
+    }
+  }
+
+  void subscribe(final InvalidationTopic topic, final Consumer<Long> listener) {
+    listeners.get(topic).add(listener);
+  }
+
+  void countPublished(final InvalidationTopic topic, final int count) {
+    counter(topic, "published", null).increment(count);
+  }
+
+  /**
+   * Delivers invalidations published on this node, after the current transaction has committed.
+   */
+  void deliverLocalAfterCommit(final InvalidationTopic topic, final Collection<Long> ids) {
+    final List<Long> copy = List.copyOf(ids);
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      deliver(topic, copy, "local");
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        deliver(topic, copy, "local");
+      }
+    });
+  }
+
+  void deliverRemote(final InvalidationTopic topic, final Long id) {
+    deliver(topic, List.of(id), "remote");
+  }
+
+  private void deliver(final InvalidationTopic topic, final List<Long> ids, final String origin) {
+    for (Consumer<Long> listener : listeners.get(topic)) {
+      for (Long id : ids) {
+        try {
+          listener.accept(id);
+        } catch (RuntimeException e) {
+          log.error("Invalidation listener failed for {} ID {}.", topic, id, e);
+        }
+      }
+    }
+    counter(topic, "delivered", origin).increment(ids.size());
+  }
+
+  private Counter counter(final InvalidationTopic topic, final String event, final String origin) {
+    final Counter.Builder builder = Counter.builder("shareit.invalidation")
+        .description("Cache invalidations published on this node and delivered to it")
+        .tag("topic", topic.name().toLowerCase(Locale.ROOT))
+        .tag("event", event);
+    if (origin != null) {
+      builder.tag("origin", origin);
+    }
+    return builder.register(registry);
+  }
+}
@@ -0,0 +1,10 @@
+package ru.practicum.shareit.invalidation;
+
+/**
+ * The kind of entity an invalidation is about; the ID of an invalidation is the ID of the entity.
+ */
+public enum InvalidationTopic {
+  ITEM,
+  BOOKING,
+  USER
+}
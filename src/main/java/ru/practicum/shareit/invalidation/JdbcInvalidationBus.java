@@ -0,0 +1,252 @@
+package ru.practicum.shareit.invalidation;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Shares invalidations between nodes through the {@code cache_invalidations} table.
+ * <p>
+ * Publishing inserts one row per ID within the writing transaction, so the rows become visible
+ * exactly when the write commits, and vanish with it on a rollback. Every node polls the rows of
+ * the other nodes every {@code shareit.invalidation.poll-interval}, which bounds the propagation
+ * delay. On PostgreSQL a publishing transaction also sends a {@code NOTIFY}, delivered on commit,
+ * and the poller waits on a dedicated {@code LISTEN} connection, so it polls as soon as another
+ * node has written. Rows are selected by the time their transaction started: a poll reads back
+ * {@code shareit.invalidation.overlap} into the past and skips rows it has delivered already, so
+ * rows of transactions that commit late are still seen as long as they are not older than that.
+ * Rows older than {@code shareit.invalidation.retention} are purged by any node.
+ * <p>
+ * Invalidations of this node are delivered locally after commit, without a round trip. The delay
+ * between the start of a publishing transaction and the delivery on another node is recorded by
+ * the {@code shareit.invalidation.delay} timer, failed polls by
+ * {@code shareit.invalidation.poll.failures}.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.invalidation.bus", havingValue = "jdbc")
+@Slf4j
+public class JdbcInvalidationBus implements InvalidationBus, SmartLifecycle {
+
+  static final String CHANNEL = "shareit_invalidations";
+
+  private static final String INSERT =
+      "INSERT INTO cache_invalidations (topic, entity_id, node) VALUES (?, ?, ?)";
+  private static final String SELECT = "SELECT id, topic, entity_id, created "
+      + "FROM cache_invalidations WHERE created >= ? AND node <> ? ORDER BY id";
+  private static final String NOW = "SELECT LOCALTIMESTAMP";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final DataSourceProperties dataSourceProperties;
+  private final InvalidationListeners listeners;
+  private final String node;
+  private final Duration pollInterval;
+  private final Duration overlap;
+  private final Duration retention;
+  private final Timer delay;
+  private final Counter pollFailures;
+  private final Map<Long, LocalDateTime> delivered = new HashMap<>();
+
+  private volatile boolean postgres;
+  private volatile boolean running;
+  private Thread poller;
+  private LocalDateTime since;
+
+  public JdbcInvalidationBus(
+      final JdbcTemplate jdbcTemplate,
+      final DataSourceProperties dataSourceProperties,
+      final MeterRegistry registry,
+      @Value("${shareit.invalidation.node:}") final String node,
+      @Value("${shareit.invalidation.poll-interval:PT1S}") final Duration pollInterval,
+      @Value("${shareit.invalidation.overlap:PT10S}") final Duration overlap,
+      @Value("${shareit.invalidation.retention:PT1H}") final Duration retention) {
+    if (retention.compareTo(overlap) <= 0) {
+      throw new IllegalArgumentException("The retention must exceed the overlap.");
+    }
+    this.jdbcTemplate = jdbcTemplate;
+    this.dataSourceProperties = dataSourceProperties;
+    this.listeners = new InvalidationListeners(registry);
+    this.node = node.isBlank() ? UUID.randomUUID().toString() : node;
+    this.pollInterval = pollInterval;
+    this.overlap = overlap;
+    this.retention = retention;
+    this.delay = Timer.builder("shareit.invalidation.delay")
+        .description("Delay from the publishing transaction to the delivery on another node")
+        .register(registry);
+    this.pollFailures = Counter.builder("shareit.invalidation.poll.failures")
+        .description("Polls of the invalidation table that failed")
+        .register(registry);
+  }
+
+  @Override
+  public void publish(final InvalidationTopic topic, final Collection<Long> ids) {
+    if (ids.isEmpty()) {
+      return;
+    }
+    jdbcTemplate.batchUpdate(INSERT, ids, ids.size(), (statement, id) -> {
+      statement.setString(1, topic.name());
+      statement.setLong(2, id);
+      statement.setString(3, node);
+    });
+    if (postgres) {
+      jdbcTemplate.query("SELECT pg_notify(?, NULL)", resultSet -> null, CHANNEL);
+    }
+    listeners.countPublished(topic, ids.size());
+    listeners.deliverLocalAfterCommit(topic, ids);
+  }
+
+  @Override
+  public void subscribe(final InvalidationTopic topic, final Consumer<Long> listener) {
+    listeners.subscribe(topic, listener);
+  }
+
+  @Override
+  public void start() {
+    postgres = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+        connection.getMetaData().getDatabaseProductName().equals("PostgreSQL"));
+    since = now().minus(overlap);
+    running = true;
+    poller = Thread.ofPlatform().name("cache-invalidation-poller").daemon().start(this::run);
+    log.info("Polling cache invalidations of other nodes as node {} every {}{}.", node,
+        pollInterval, postgres ? ", woken up by LISTEN " + CHANNEL : "");
+  }
+
+  @Override
+  public void stop() {
+    running = false;
+    if (poller == null) {
+      return;
+    }
+    poller.interrupt();
+    try {
+      poller.join(pollInterval.toMillis() + 1000L);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  @Override
+  public boolean isRunning() {
+    return running;
+  }
+
+  @Scheduled(fixedDelayString = "${shareit.invalidation.purge-interval:PT10M}")
+  public void purge() {
+    final int purged = jdbcTemplate.update("DELETE FROM cache_invalidations WHERE created < ?",
+        now().minus(retention));
+    log.debug("Purged {} cache invalidations.", purged);
+  }
+
+  private void run() {
+    Connection listenConnection = null;
+    while (running) {
+      try {
+        if (postgres && listenConnection == null) {
+          listenConnection = listen();
+        }
+        if (listenConnection == null) {
+          Thread.sleep(pollInterval.toMillis());
+        } else {
+          listenConnection.unwrap(PGConnection.class)
+              .getNotifications((int) pollInterval.toMillis());
+        }
+        poll();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        break;
+      } catch (SQLException | RuntimeException e) {
+        if (!running) {
+          break;
+        }
+        pollFailures.increment();
+        log.warn("Polling cache invalidations failed: {}", e.getMessage());
+        listenConnection = close(listenConnection);
+        sleepAfterFailure();
+      }
+    }
+    close(listenConnection);
+  }
+
+  /**
+   * Delivers the rows of other nodes that have not been delivered yet.
+   */
+  private void poll() {
+    final LocalDateTime now = now();
+    final List<Long> rows = new ArrayList<>();
+    jdbcTemplate.query(SELECT, resultSet -> {
+      final long id = resultSet.getLong("id");
+      final LocalDateTime created = resultSet.getObject("created", LocalDateTime.class);
+      if (delivered.putIfAbsent(id, created) == null) {
+        rows.add(id);
+        listeners.deliverRemote(InvalidationTopic.valueOf(resultSet.getString("topic")),
+            resultSet.getLong("entity_id"));
+        delay.record(now.isAfter(created) ? Duration.between(created, now) : Duration.ZERO);
+      }
+    }, since, node);
+    since = now.minus(overlap);
+    delivered.values().removeIf(created -> created.isBefore(since));
+    if (!rows.isEmpty()) {
+      log.debug("Delivered {} cache invalidations of other nodes.", rows.size());
+    }
+  }
+
+  /**
+   * Opens a connection outside the pool, so waiting for notifications does not hold a pooled one.
+   */
+  private Connection listen() throws SQLException {
+    final Connection connection = dataSourceProperties.initializeDataSourceBuilder()
+        .type(SimpleDriverDataSource.class)
+        .build()
+        .getConnection();
+    try (Statement statement = connection.createStatement()) {
+      statement.execute("LISTEN " + CHANNEL);
+    }
+    return connection;
+  }
+
+  private LocalDateTime now() {
+    return jdbcTemplate.queryForObject(NOW, LocalDateTime.class);
+  }
+
+  private static Connection close(final Connection connection) {
+    if (connection != null) {
+      try {
+        connection.close();
+      } catch (SQLException e) {
+        log.debug("Closing the LISTEN connection failed: {}", e.getMessage());
+      }
+    }
+    return null;
+  }
+
+  private void sleepAfterFailure() {
+    try {
+      Thread.sleep(pollInterval.toMillis());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      running = false;
+    }
+  }
+}
@@ -0,0 +1,37 @@
+package ru.practicum.shareit.invalidation;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Collection;
+import java.util.function.Consumer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Delivers invalidations to the listeners of this node only, once the publishing transaction has
+ * committed. Sufficient while the application runs as a single node.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.invalidation.bus", havingValue = "local",
+    matchIfMissing = true)
+public class LocalInvalidationBus implements InvalidationBus {
+
+  private final InvalidationListeners listeners;
+
+  public LocalInvalidationBus(final MeterRegistry registry) {
+    this.listeners = new InvalidationListeners(registry);
+  }
+
+  @Override
+  public void publish(final InvalidationTopic topic, final Collection<Long> ids) {
+    if (ids.isEmpty()) {
+      return;
+    }
+    listeners.countPublished(topic, ids.size());
+    listeners.deliverLocalAfterCommit(topic, ids);
+  }
+
+  @Override
+  public void subscribe(final InvalidationTopic topic, final Consumer<Long> listener) {
+    listeners.subscribe(topic, listener);
+  }
+}
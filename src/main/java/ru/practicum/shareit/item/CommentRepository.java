@@ -1,7 +1,13 @@
 package ru.practicum.shareit.item;
 
+import java.util.Collection;
 import java.util.List;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 
@@ -15,7 +21,10 @@ import ru.practicum.shareit.item.model.Item;
  * are included:
  * <ul>
  *   <li>{@link #findAllByItemId(Long)}: Retrieves a list of {@link Comment} entities associated with a specific {@link Item} ID.</li>
- *   <li>{@link #findAllByItemIdIn(List)}: Retrieves a list of {@link Comment} entities associated with multiple {@link Item} IDs.</li>
+ *   <li>{@link #findAllByItemIdIn(List)}: Retrieves a list of {@link Comment} entities associated with multiple {@link Item} IDs, fetched together with their authors.</li>
+ *   <li>{@link #findIdsByAuthorId(Long, Limit)}: Retrieves the IDs of a batch of {@link Comment} entities written by a deleted user.</li>
+ *   <li>{@link #findIdsByItemOwnerId(Long, Limit)}: Retrieves the IDs of a batch of {@link Comment} entities on the items of a deleted user.</li>
+ *   <li>{@link #deleteAllByIdIn(Collection)}: Deletes a batch of {@link Comment} entities by their IDs.</li>
  * </ul>
  *
  * @see Comment
@@ -26,5 +35,24 @@ public interface CommentRepository extends JpaRepository<Comment, Long> {
 
   List<Comment> findAllByItemId(Long itemId);
 
+  @EntityGraph(attributePaths = "author")
   List<Comment> findAllByItemIdIn(List<Long> allOwnerItems);
+
+  @Query("""
+      select c.id
+      from Comment as c
+      where c.author.id = :authorId
+      """)
+  List<Long> findIdsByAuthorId(@Param("authorId") Long authorId, Limit limit);
+
+  @Query("""
+      select c.id
+      from Comment as c
+      where c.item.owner.id = :ownerId
+      """)
+  List<Long> findIdsByItemOwnerId(@Param("ownerId") Long ownerId, Limit limit);
+
+  @Modifying
+  @Query("delete from Comment as c where c.id in :commentIds")
+  int deleteAllByIdIn(@Param("commentIds") Collection<Long> commentIds);
 }
@@ -1,13 +1,17 @@
 package ru.practicum.shareit.item;
 
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
+import java.io.IOException;
 import java.net.URI;
 import java.util.List;
+import java.util.Optional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -17,9 +21,16 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import ru.practicum.shareit.fields.FieldSet;
+import ru.practicum.shareit.idempotency.IdempotencyService;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.PopularItemsDto;
+import ru.practicum.shareit.streaming.ArrayResponseStreamer;
+import ru.practicum.shareit.utils.MultiGet;
 import ru.practicum.shareit.validation.Create;
 import ru.practicum.shareit.validation.Update;
 
@@ -35,13 +46,20 @@ import ru.practicum.shareit.validation.Update;
 public class ItemController {
 
   private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+  private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
   private final ItemService itemService;
+  private final IdempotencyService idempotencyService;
+  private final ArrayResponseStreamer arrayResponseStreamer;
 
   @PostMapping
-  public ResponseEntity<ItemDto> addNewItem(@RequestHeader(USER_ID_HEADER) Long userId,
-                                            @Validated(Create.class) @RequestBody ItemDto item) {
-    log.info("Received request POST /items for user with ID {} to add item {}", userId, item);
-    final ItemDto itemSaved = itemService.saveItem(userId, item);
+  public ResponseEntity<ItemDto> addNewItem(
+      @RequestHeader(USER_ID_HEADER) Long userId,
+      @RequestHeader(name = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+      @Validated(Create.class) @RequestBody ItemDto item) {
+    log.info("Received request POST /items for user with ID {}.", userId);
+    log.debug("Item to add: {}.", item);
+    final ItemDto itemSaved = idempotencyService.execute(userId, "POST /items", idempotencyKey,
+        item, ItemDto.class, () -> itemService.saveItem(userId, item));
     final URI location = ServletUriComponentsBuilder
         .fromCurrentRequest()
         .path("/{id}")
@@ -55,47 +73,87 @@ public class ItemController {
   public ResponseEntity<ItemDto> updateItem(@RequestHeader(USER_ID_HEADER) Long userId,
                                             @Validated(Update.class) @RequestBody ItemDto item,
                                             @PathVariable("itemId") @NotNull @Positive Long itemId) {
-    log.info("Received request PATCH /items/{} for user,ID {} to update with data {}", itemId,
-        userId, item);
+    log.info("Received request PATCH /items/{} for user,ID {}.", itemId, userId);
+    log.debug("Item update data: {}.", item);
     final ItemDto itemUpdated = itemService.updateItem(userId, item, itemId);
-    log.info("Item updated successfully: {}", itemUpdated);
+    log.info("Item updated successfully with ID {}.", itemUpdated.getId());
+    log.debug("Item updated: {}.", itemUpdated);
     return ResponseEntity.ok(itemUpdated);
   }
 
   @GetMapping
-  public ResponseEntity<List<ItemDto>> getAllItemFromUser(
-      @RequestHeader(USER_ID_HEADER) Long userId) {
+  public void getAllItemFromUser(
+      @RequestHeader(USER_ID_HEADER) Long userId,
+      @RequestParam(name = FieldSet.PARAMETER, required = false) String fields,
+      ServletWebRequest request) throws IOException, HttpMediaTypeNotAcceptableException {
     log.info("Received request GET /items from user with ID {}.", userId);
-    final List<ItemDto> items = itemService.getUserItems(userId);
-    log.info("Returning {} items from user {} ", items.size(), userId);
+    final FieldSet fieldSet = FieldSet.of(fields, ItemDto.class);
+    final int count = arrayResponseStreamer.<ItemDto>write(request, action ->
+        itemService.forEachUserItem(userId, fieldSet, action));
+    log.info("Returning {} items from user {} ", count, userId);
+  }
+
+  @GetMapping(params = MultiGet.PARAMETER)
+  public ResponseEntity<List<ItemDto>> getItemsByIds(
+      @RequestHeader(USER_ID_HEADER) Long userId,
+      @RequestParam(name = MultiGet.PARAMETER) List<Long> ids,
+      @RequestParam(name = FieldSet.PARAMETER, required = false) String fields) {
+    log.info("Received request GET /items?ids= for {} items from user with ID {}.", ids.size(),
+        userId);
+    final List<ItemDto> items =
+        itemService.getItemsByIds(ids, userId, FieldSet.of(fields, ItemDto.class));
+    log.info("Returning {} items.", items.size());
     return ResponseEntity.ok(items);
   }
 
   @GetMapping("/{itemId}")
   public ResponseEntity<ItemDto> getItemById(@RequestHeader(USER_ID_HEADER) Long userId,
-                                             @PathVariable("itemId") @NotNull @Positive Long itemId) {
+                                             @PathVariable("itemId") @NotNull @Positive Long itemId,
+                                             @RequestParam(name = FieldSet.PARAMETER, required = false) String fields,
+                                             WebRequest request) {
     log.info("Received request from user {} GET /items/{}.", userId, itemId);
-    final ItemDto item = itemService.getItemById(itemId, userId);
-    log.info("Returning item {} ", item);
+    final FieldSet fieldSet = FieldSet.of(fields, ItemDto.class);
+    final Optional<String> etag = itemService.getItemETag(itemId, userId, fieldSet);
+    if (etag.isPresent() && request.checkNotModified(etag.get())) {
+      log.info("Item ID {} not modified.", itemId);
+      return null;
+    }
+    final ItemDto item = itemService.getItemById(itemId, userId, fieldSet);
+    log.info("Returning item ID {}.", item.getId());
+    log.debug("Item data: {}.", item);
     return ResponseEntity.ok(item);
   }
 
   @GetMapping("/search")
   public ResponseEntity<List<ItemDto>> searchItemByPartialText(
       @RequestHeader(USER_ID_HEADER) Long userId,
-      @RequestParam(name = "text") @NotNull String text) {
+      @RequestParam(name = "text") @NotNull String text,
+      @RequestParam(name = FieldSet.PARAMETER, required = false) String fields) {
     log.info("Received request GET /items/search?text={} for user with ID {}.", text, userId);
+    // Search results carry no bookings or comments to skip, the field set is only validated
+    // here and applied to the response by FieldSetResponseAdvice
+    FieldSet.of(fields, ItemDto.class);
     final List<ItemDto> itemsFound = itemService.searchItemsByPartialText(text);
     log.info("Found {} items ", itemsFound.size());
     return ResponseEntity.ok(itemsFound);
   }
 
+  @GetMapping("/popular")
+  public ResponseEntity<PopularItemsDto> getPopularItems(
+      @RequestParam(name = "limit", defaultValue = "10") @Positive @Max(100) int limit) {
+    log.info("Received request GET /items/popular?limit={}.", limit);
+    final PopularItemsDto popularItems = itemService.getPopularItems(limit);
+    log.info("Returning {} most viewed and {} most booked items.",
+        popularItems.getMostViewed().size(), popularItems.getMostBooked().size());
+    return ResponseEntity.ok(popularItems);
+  }
+
   @PostMapping("/{itemId}/comment")
   public ResponseEntity<CommentDto> addCommentToItem(@RequestHeader(USER_ID_HEADER) Long userId,
                                                      @PathVariable("itemId") @NotNull @Positive Long itemId,
                                                      @Validated(Create.class) @RequestBody CommentDto comment) {
-    log.info("Received request POST /items/{}/comment for user ID {} to add comment {}",
-        itemId, userId, comment);
+    log.info("Received request POST /items/{}/comment for user ID {}.", itemId, userId);
+    log.debug("Comment to add: {}.", comment);
     final CommentDto commentAdded = itemService.addComment(userId, itemId, comment);
     final URI location = ServletUriComponentsBuilder
         .fromCurrentRequest()
@@ -0,0 +1,131 @@
+package ru.practicum.shareit.item;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+/**
+ * Coalesces concurrent reads of the same item into one in-flight load (single flight).
+ * <p>
+ * Loads with and without comments are coalesced separately. The first caller for an item ID
+ * becomes the leader and runs the load in a read-only
+ * transaction; callers arriving while it runs join it and receive the same snapshot, or the same
+ * exception. Nothing is kept after the load completes, so a snapshot is never older than the
+ * concurrent read that produced it. Snapshots are shared between callers and must be copied
+ * before they are changed.
+ * <p>
+ * A caller waits for a running load at most {@code shareit.items.coalescing.max-wait} and then
+ * loads the item itself, so one slow query does not stall everyone behind it. Calls are counted
+ * by {@code shareit.items.coalescing} with the {@code result} tag: {@code leader},
+ * {@code joined} or {@code timed_out}; the coalescing ratio is joined / (leader + joined).
+ * Coalescing is switched off with {@code shareit.items.coalescing.enabled=false}.
+ */
+@Component
+@Slf4j
+public class ItemReadCoalescer {
+
+  private final boolean enabled;
+  private final long maxWaitNanos;
+  private final TransactionTemplate readOnlyTransaction;
+  private final Map<Key, CompletableFuture<ItemSnapshot>> inFlight = new ConcurrentHashMap<>();
+  private final Counter leader;
+  private final Counter joined;
+  private final Counter timedOut;
+
+  public ItemReadCoalescer(
+      final PlatformTransactionManager transactionManager,
+      final MeterRegistry registry,
+      @Value("${shareit.items.coalescing.enabled:true}") final boolean enabled,
+      @Value("${shareit.items.coalescing.max-wait:PT0.2S}") final Duration maxWait) {
+    this.enabled = enabled;
+    this.maxWaitNanos = maxWait.toNanos();
+    this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+    this.readOnlyTransaction.setReadOnly(true);
+    this.leader = counter(registry, "leader");
+    this.joined = counter(registry, "joined");
+    this.timedOut = counter(registry, "timed_out");
+  }
+
+  public ItemSnapshot load(final Long itemId, final boolean withComments,
+                           final Supplier<ItemSnapshot> loader) {
+    if (!enabled) {
+      return loadInTransaction(loader);
+    }
+    final Key key = new Key(itemId, withComments);
+    final CompletableFuture<ItemSnapshot> flight = new CompletableFuture<>();
+    final CompletableFuture<ItemSnapshot> running = inFlight.putIfAbsent(key, flight);
+    if (running != null) {
+      return join(itemId, running, loader);
+    }
+
+    leader.increment();
+    try {
+      final ItemSnapshot snapshot = loadInTransaction(loader);
+      flight.complete(snapshot);
+      return snapshot;
+    } catch (RuntimeException e) {
+      flight.completeExceptionally(e);
+      throw e;
+    } finally {
+      inFlight.remove(key, flight);
+    }
+  }
+
+  private ItemSnapshot join(final Long itemId, final CompletableFuture<ItemSnapshot> running,
+                            final Supplier<ItemSnapshot> loader) {
+    try {
+      final ItemSnapshot snapshot = running.get(maxWaitNanos, TimeUnit.NANOSECONDS);
+      joined.increment();
+      return snapshot;
+    } catch (TimeoutException e) {
+      timedOut.increment();
+      log.debug("Load of item ID {} is still running, loading it separately.", itemId);
+      return loadInTransaction(loader);
+    } catch (ExecutionException e) {
+      joined.increment();
+      if (e.getCause() instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      throw new IllegalStateException("Failed to load item ID " + itemId + ".", e.getCause());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while waiting for item ID " + itemId + ".", e);
+    }
+  }
+
+  private ItemSnapshot loadInTransaction(final Supplier<ItemSnapshot> loader) {
+    return readOnlyTransaction.execute(status -> loader.get());
+  }
+
+  private static Counter counter(final MeterRegistry registry, final String result) {
+    return Counter.builder("shareit.items.coalescing")
+        .description("Item reads by their role in request coalescing")
+        .tag("result", result)
+        .register(registry);
+  }
+
+  private record Key(Long itemId, boolean withComments) {
+
+  }
+
+  /**
+   * The part of an item read that is the same for every user: the item with its comments, and
+   * the owner ID to decide whether bookings are added.
+   */
+  public record ItemSnapshot(Long ownerId, ItemDto item) {
+
+  }
+}
@@ -1,11 +1,21 @@
 package ru.practicum.shareit.item;
 
+import jakarta.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.streaming.StreamingReads;
 
 /**
  * A repository interface for managing {@link Item} persistence and retrieval operations.
@@ -18,9 +28,17 @@ import ru.practicum.shareit.item.model.Item;
  * methods are included:
  * <ul>
  *   <li>{@link #findByIdAndOwnerId(Long, Long)}: Retrieves an {@link Item} by its ID and the owner's ID.</li>
+ *   <li>{@link #findRevisionById(Long)}: Retrieves the {@link ItemRevision} of an item for its ETag.</li>
  *   <li>{@link #findAllByOwnerIdOrderById(Long)}: Retrieves a list of {@link Item} entities owned by a specific user, ordered by item ID.</li>
+ *   <li>{@link #streamAllByOwnerIdOrderById(Long)}: Streams the same items for {@link StreamingReads}.</li>
  *   <li>{@link #findByText(String)}: Searches for available {@link Item} entities where the name or description contains the specified text.</li>
  *   <li>{@link #existsByOwnerId(Long)}: Checks whether any {@link Item} entities exist for a given owner ID.</li>
+ *   <li>{@link #findAllByRequestIdIn(Collection)}: Retrieves the {@link Item} entities added in answer to any of the given item requests.</li>
+ *   <li>{@link #findAllByAvailableTrue(Pageable)}: Retrieves a slice of the {@link Item} entities available for renting.</li>
+ *   <li>{@link #markUnavailableByOwnerId(Long)}: Withdraws all items of a deleted owner from renting.</li>
+ *   <li>{@link #findIdsByOwnerId(Long, Limit)}: Retrieves the IDs of a batch of items of a deleted owner.</li>
+ *   <li>{@link #deleteAllByIdIn(Collection)}: Deletes a batch of {@link Item} entities by their IDs.</li>
+ *   <li>{@link #clearRequestByRequestIdIn(Collection)}: Detaches the items added in answer to item requests that are about to be deleted.</li>
  * </ul>
  *
  * @see Item
@@ -30,8 +48,22 @@ public interface ItemRepository extends JpaRepository<Item, Long> {
 
   Optional<Item> findByIdAndOwnerId(Long itemId, Long ownerId);
 
+  @Query("""
+      select new ru.practicum.shareit.item.ItemRevision(it.owner.id, it.version, count(c),
+          max(c.id), sum(a.version))
+      from Item as it
+      left join Comment as c on c.item.id = it.id
+      left join c.author as a
+      where it.id = :itemId
+      group by it.id, it.owner.id, it.version
+      """)
+  Optional<ItemRevision> findRevisionById(@Param("itemId") Long itemId);
+
   List<Item> findAllByOwnerIdOrderById(Long ownerId);
 
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = StreamingReads.FETCH_SIZE))
+  Stream<Item> streamAllByOwnerIdOrderById(Long ownerId);
+
   @Query("""
       select it
       from Item as it
@@ -42,4 +74,36 @@ public interface ItemRepository extends JpaRepository<Item, Long> {
   List<Item> findByText(@Param("text") String text);
 
   boolean existsByOwnerId(Long userId);
+
+  List<Item> findAllByRequestIdIn(Collection<Long> requestIds);
+
+  Slice<Item> findAllByAvailableTrue(Pageable pageable);
+
+  @Modifying
+  @Query("""
+      update versioned Item as it
+      set it.available = false
+      where it.owner.id = :ownerId
+      and it.available = true
+      """)
+  int markUnavailableByOwnerId(@Param("ownerId") Long ownerId);
+
+  @Query("""
+      select it.id
+      from Item as it
+      where it.owner.id = :ownerId
+      """)
+  List<Long> findIdsByOwnerId(@Param("ownerId") Long ownerId, Limit limit);
+
+  @Modifying
+  @Query("delete from Item as it where it.id in :itemIds")
+  int deleteAllByIdIn(@Param("itemIds") Collection<Long> itemIds);
+
+  @Modifying
+  @Query("""
+      update versioned Item as it
+      set it.request = null
+      where it.request.id in :requestIds
+      """)
+  int clearRequestByRequestIdIn(@Param("requestIds") Collection<Long> requestIds);
 }
@@ -0,0 +1,10 @@
+package ru.practicum.shareit.item;
+
+/**
+ * What a response of an item depends on apart from its bookings: the version of the item, and
+ * the comments with the versions of their authors. Comments are never edited, so their number
+ * and the highest ID change with every added or deleted one.
+ */
+public record ItemRevision(Long ownerId, Long version, Long comments, Long lastCommentId,
+                           Long commentAuthorsVersion) {
+}
@@ -1,8 +1,12 @@
 package ru.practicum.shareit.item;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import ru.practicum.shareit.fields.FieldSet;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.PopularItemsDto;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 
@@ -16,11 +20,15 @@ import ru.practicum.shareit.item.model.Item;
  * <ul>
  *   <li>{@link #saveItem(Long, ItemDto)}: Adds a new {@link Item} to the system for a specific user.</li>
  *   <li>{@link #updateItem(Long, ItemDto, Long)}: Updates an existing {@link Item} identified by its ID, ensuring that only the owner can modify it.</li>
- *   <li>{@link #getItemById(Long, Long)}: Retrieves detailed information about a specific {@link Item} by its ID, ensuring the owner or viewer can access it.</li>
- *   <li>{@link #getUserItems(Long)}: Retrieves a list of all {@link ItemDto} entities owned by a specific user.</li>
+ *   <li>{@link #getItemById(Long, Long, FieldSet)}: Retrieves detailed information about a specific {@link Item} by its ID, ensuring the owner or viewer can access it.</li>
+ *   <li>{@link #getItemETag(Long, Long, FieldSet)}: Retrieves the ETag of the same response from an {@link ItemRevision} and, for the owner, the revision of the item's bookings, empty if the item does not exist.</li>
+ *   <li>{@link #forEachUserItem(Long, FieldSet, Consumer)}: Hands all {@link ItemDto} entities owned by a specific user over one by one while they are read, without collecting them.</li>
+ *   <li>{@link #getItemsByIds(List, Long, FieldSet)}: Retrieves several {@link Item} entities by their IDs in one query, with the same access rules as {@link #getItemById(Long, Long, FieldSet)}.</li>
  *   <li>{@link #searchItemsByPartialText(String)}: Searches for {@link ItemDto} entities by a partial text match in the name or description, returning only available items.</li>
  *   <li>{@link #addComment(Long, Long, CommentDto)}: Allows a user to add a {@link Comment} to a specific item.</li>
+ *   <li>{@link #getPopularItems(int)}: Retrieves the most viewed and the most booked items over the popularity window.</li>
  * </ul>
+ * Bookings and comments are loaded only if the {@link FieldSet} includes them.
  *
  * @see ItemDto
  * @see ItemServiceImpl
@@ -31,13 +39,19 @@ public interface ItemService {
 
   ItemDto updateItem(Long userId, ItemDto itemDto, Long itemId);
 
-  ItemDto getItemById(Long itemId, Long userId);
+  ItemDto getItemById(Long itemId, Long userId, FieldSet fields);
+
+  Optional<String> getItemETag(Long itemId, Long userId, FieldSet fields);
 
   Item getItemOrThrow(Long itemId);
 
-  List<ItemDto> getUserItems(Long userId);
+  void forEachUserItem(Long userId, FieldSet fields, Consumer<ItemDto> action);
+
+  List<ItemDto> getItemsByIds(List<Long> itemIds, Long userId, FieldSet fields);
 
   List<ItemDto> searchItemsByPartialText(String text);
 
   CommentDto addComment(Long userId, Long itemId, CommentDto comment);
+
+  PopularItemsDto getPopularItems(int limit);
 }
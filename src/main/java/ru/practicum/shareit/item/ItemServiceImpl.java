@@ -1,16 +1,25 @@
 package ru.practicum.shareit.item;
 
+import io.micrometer.core.annotation.Timed;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.ArchivedBookingRepository;
 import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.BookingRepository;
 import ru.practicum.shareit.booking.BookingStatus;
@@ -18,15 +27,29 @@ import ru.practicum.shareit.booking.dto.BookingMapper;
 import ru.practicum.shareit.booking.dto.BookingShortDto;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.fields.FieldSet;
+import ru.practicum.shareit.invalidation.InvalidationBus;
+import ru.practicum.shareit.invalidation.InvalidationTopic;
+import ru.practicum.shareit.item.ItemReadCoalescer.ItemSnapshot;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CommentMapper;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemMapper;
+import ru.practicum.shareit.item.dto.PopularItemsDto;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.popular.PopularItemsTracker;
+import ru.practicum.shareit.jdbc.QueryFanOut;
+import ru.practicum.shareit.metrics.MetricsConfig;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.ItemRequestService;
+import ru.practicum.shareit.request.matching.ItemRequestMatcher;
+import ru.practicum.shareit.streaming.StreamingReads;
 import ru.practicum.shareit.user.UserService;
-import ru.practicum.shareit.user.dto.UserMapper;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.utils.ETags;
+import ru.practicum.shareit.utils.MultiGet;
+import ru.practicum.shareit.utils.RetryOnConflict;
 
 /**
  * Service implementation class for managing item-related operations.
@@ -36,29 +59,53 @@ import ru.practicum.shareit.user.model.User;
  * @see ItemRepository
  */
 @Service
+@Timed(MetricsConfig.SERVICE_TIMER)
 @RequiredArgsConstructor
 @Slf4j
 @Transactional(readOnly = true)
 public class ItemServiceImpl implements ItemService {
 
+  private static final String COMMENTS = "comments";
+  private static final String LAST_BOOKING = "lastBooking";
+  private static final String NEXT_BOOKING = "nextBooking";
+  private static final Set<BookingStatus> CLOSED_STATUSES =
+      Set.of(BookingStatus.APPROVED, BookingStatus.REJECTED);
+  private static final Set<BookingStatus> APPROVED_STATUS = Set.of(BookingStatus.APPROVED);
+
   private final ItemRepository itemRepository;
   private final UserService userService;
   private final BookingRepository bookingRepository;
+  private final ArchivedBookingRepository archivedBookingRepository;
   private final CommentRepository commentRepository;
+  private final PopularItemsTracker popularItemsTracker;
+  private final ItemRequestService itemRequestService;
+  private final ItemRequestMatcher itemRequestMatcher;
+  private final QueryFanOut queryFanOut;
+  private final ItemReadCoalescer itemReadCoalescer;
+  private final StreamingReads streamingReads;
+  private final InvalidationBus invalidationBus;
 
   @Override
   @Transactional
   public ItemDto saveItem(final Long userId, final ItemDto itemDto) {
     log.debug("Persisting a new item with data: {} for user with ID {}.", itemDto, userId);
-    final User owner = UserMapper.mapToUser(userService.getUserById(userId));
+    final User owner = userService.getByIdOrThrow(userId);
+
+    final ItemRequest request = itemDto.getRequestId() == null
+        ? null
+        : itemRequestService.getRequestOrThrow(itemDto.getRequestId());
 
-    final Item itemToSave = ItemMapper.mapToItem(itemDto, owner);
+    final Item itemToSave = ItemMapper.mapToItem(itemDto, owner, request);
 
-    return ItemMapper.mapToItemDto(itemRepository.save(itemToSave));
+    final Item saved = itemRepository.save(itemToSave);
+    itemRequestMatcher.onItemSaved(saved);
+    invalidationBus.publish(InvalidationTopic.ITEM, saved.getId());
+    return ItemMapper.mapToItemDto(saved);
   }
 
   @Override
   @Transactional
+  @RetryOnConflict
   public ItemDto updateItem(final Long userId, final ItemDto itemDto, final Long itemId) {
     log.debug("Updating item with ID = {}.", itemId);
     validateOwner(userId);
@@ -68,25 +115,49 @@ public class ItemServiceImpl implements ItemService {
     Optional.ofNullable(itemDto.getDescription()).ifPresent(itemToUpdate::setDescription);
     Optional.ofNullable(itemDto.getAvailable()).ifPresent(itemToUpdate::setAvailable);
 
-    return ItemMapper.mapToItemDto(itemRepository.save(itemToUpdate));
+    final Item updated = itemRepository.save(itemToUpdate);
+    itemRequestMatcher.onItemUpdated(updated);
+    invalidationBus.publish(InvalidationTopic.ITEM, itemId);
+    return ItemMapper.mapToItemDto(updated);
   }
 
   @Override
-  public ItemDto getItemById(final Long itemId, final Long userId) {
+  @Transactional(propagation = Propagation.NOT_SUPPORTED)
+  public ItemDto getItemById(final Long itemId, final Long userId, final FieldSet fields) {
     log.debug("Retrieving item with ID = {}.", itemId);
 
-    final Item item = getItemOrThrow(itemId);
-    LocalDateTime now = LocalDateTime.now();
-
-    final List<Booking> bookingsForItem = bookingRepository.findByItemIdAndItemOwnerId(itemId,
-        userId);
-    final BookingShortDto lastBooking = getLastBooking(bookingsForItem, now);
-    final BookingShortDto nextBooking = getNextBooking(bookingsForItem, now);
+    final boolean withComments = fields.includes(COMMENTS);
+    final ItemSnapshot snapshot = itemReadCoalescer.load(itemId, withComments,
+        () -> loadItemSnapshot(itemId, withComments));
+    final ItemDto item = snapshot.item().toBuilder().build();
+    if (userId.equals(snapshot.ownerId()) && fields.includesAny(LAST_BOOKING, NEXT_BOOKING)) {
+      final LocalDateTime now = LocalDateTime.now();
+      final List<Booking> bookingsForItem = bookingRepository.findByItemIdAndItemOwnerId(itemId,
+          userId);
+      final BookingShortDto lastBooking = getLastBooking(bookingsForItem, now);
+      item.setLastBooking(lastBooking != null || !fields.includes(LAST_BOOKING)
+              ? lastBooking
+              : findArchivedLastBookings(List.of(itemId), CLOSED_STATUSES).get(itemId))
+          .setNextBooking(getNextBooking(bookingsForItem, now));
+    }
 
-    final List<CommentDto> comments =
-        CommentMapper.mapToCommentDto(commentRepository.findAllByItemId(itemId));
+    popularItemsTracker.recordView(itemId);
+    return item;
+  }
 
-    return ItemMapper.mapToItemDto(item, lastBooking, nextBooking, comments);
+  /**
+   * Owners see the last and the next booking, which change over time, so their tag also depends
+   * on the moment the bookings move on. Views answered with 304 are not recorded as views.
+   */
+  @Override
+  public Optional<String> getItemETag(final Long itemId, final Long userId,
+                                      final FieldSet fields) {
+    return itemRepository.findRevisionById(itemId)
+        .map(revision -> userId.equals(revision.ownerId())
+            && fields.includesAny(LAST_BOOKING, NEXT_BOOKING)
+            ? ETags.of(fields, revision,
+            bookingRepository.findRevisionByItemId(itemId, LocalDateTime.now()))
+            : ETags.of(fields, revision));
   }
 
   @Override
@@ -99,37 +170,77 @@ public class ItemServiceImpl implements ItemService {
   }
 
   @Override
-  public List<ItemDto> getUserItems(final Long userId) {
-    log.debug("Retrieving items owned by user with ID = {}.", userId);
+  public void forEachUserItem(final Long userId, final FieldSet fields,
+                              final Consumer<ItemDto> action) {
+    log.debug("Streaming items owned by user with ID = {}.", userId);
     validateOwner(userId);
-    LocalDateTime now = LocalDateTime.now();
+    streamUserItems(userId, fields, action);
+  }
 
-    final List<Item> ownerItems = itemRepository.findAllByOwnerIdOrderById(userId);
-    if (ownerItems.isEmpty()) {
-      return Collections.emptyList();
-    }
+  /**
+   * Reads the items of an owner in chunks of {@value StreamingReads#BATCH_SIZE}, loading the
+   * comments and bookings of a chunk together, so neither the items nor their bookings are held
+   * in memory at once.
+   */
+  private void streamUserItems(final Long userId, final FieldSet fields,
+                               final Consumer<ItemDto> action) {
+    final LocalDateTime now = LocalDateTime.now();
+    streamingReads.forEachBatch(itemRepository.streamAllByOwnerIdOrderById(userId), chunk -> {
+      final Supplier<Map<Long, List<CommentDto>>> commentsForItems = fields.includes(COMMENTS)
+          ? queryFanOut.fork(() -> findCommentsForItems(chunk))
+          : Map::of;
+      final Map<Long, List<Booking>> bookingsForItems =
+          fields.includesAny(LAST_BOOKING, NEXT_BOOKING)
+              ? findBookingsForItems(chunk, userId)
+              : Map.of();
+
+      final Map<Long, BookingShortDto> lastBookings = fields.includes(LAST_BOOKING)
+          ? findLastBookings(chunk, bookingsForItems, now, APPROVED_STATUS)
+          : Map.of();
+
+      final Map<Long, List<CommentDto>> comments = commentsForItems.get();
+      chunk.forEach(item ->
+          action.accept(ItemMapper.mapToItemDto(
+              item,
+              lastBookings.get(item.getId()),
+              getNextBooking(bookingsForItems.get(item.getId()), now),
+              comments.getOrDefault(item.getId(), Collections.emptyList()))));
+    });
+  }
 
+  @Override
+  public List<ItemDto> getItemsByIds(final List<Long> itemIds, final Long userId,
+                                     final FieldSet fields) {
+    final List<Long> ids = MultiGet.distinctIds(itemIds);
+    log.debug("Retrieving {} items by IDs for user with ID = {}.", ids.size(), userId);
+    final LocalDateTime now = LocalDateTime.now();
+
+    final List<Item> items = MultiGet.inRequestedOrder(ids, itemRepository.findAllById(ids),
+        Item::getId, "Item not found.");
+
+    final Supplier<Map<Long, List<CommentDto>>> commentsForItems = fields.includes(COMMENTS)
+        ? queryFanOut.fork(() -> findCommentsForItems(items))
+        : Map::of;
     final Map<Long, List<Booking>> bookingsForItems =
-        bookingRepository.findAllByItemOwnerIdOrderByStartDesc(userId)
-            .stream()
-            .filter(b -> !b.getStatus().equals(BookingStatus.REJECTED))
-            .collect(Collectors.groupingBy(booking -> booking.getItem().getId()));
-
-    final Map<Long, List<Comment>> commentsForItems =
-        commentRepository.findAllByItemIdIn(ownerItems
-                .stream()
-                .map(Item::getId)
-                .toList())
-            .stream()
-            .collect(Collectors.groupingBy(comment -> comment.getItem().getId()));
-
-    return ownerItems.stream()
+        fields.includesAny(LAST_BOOKING, NEXT_BOOKING)
+            ? findBookingsForOwnedItems(items, userId)
+            : Map.of();
+
+    final Map<Long, BookingShortDto> lastBookings = fields.includes(LAST_BOOKING)
+        ? findLastBookings(items.stream()
+            .filter(item -> userId.equals(item.getOwner().getId()))
+            .toList(), bookingsForItems, now, CLOSED_STATUSES)
+        : Map.of();
+
+    final Map<Long, List<CommentDto>> comments = commentsForItems.get();
+    ids.forEach(popularItemsTracker::recordView);
+    return items.stream()
         .map(item ->
             ItemMapper.mapToItemDto(
                 item,
-                getLastBooking(bookingsForItems.get(item.getId()), now),
+                lastBookings.get(item.getId()),
                 getNextBooking(bookingsForItems.get(item.getId()), now),
-                CommentMapper.mapToCommentDto(commentsForItems.get(item.getId()))))
+                comments.getOrDefault(item.getId(), Collections.emptyList())))
         .toList();
   }
 
@@ -146,8 +257,10 @@ public class ItemServiceImpl implements ItemService {
   @Override
   @Transactional
   public CommentDto addComment(final Long userId, final Long itemId, final CommentDto comment) {
-    log.debug("Persisting a new comment with text: {} for item ID {} by user ID {}.",
-        comment, itemId, userId);
+    if (log.isDebugEnabled()) {
+      log.debug("Persisting a new comment with text: {} for item ID {} by user ID {}.",
+          comment, itemId, userId);
+    }
 
     final Item item = getItemOrThrow(itemId);
     final User user = userService.getByIdOrThrow(userId);
@@ -156,14 +269,27 @@ public class ItemServiceImpl implements ItemService {
 
     final Comment commentToSave = CommentMapper.mapToComment(comment, item, user,
         LocalDateTime.now());
-    return CommentMapper.mapToCommentDto(commentRepository.save(commentToSave));
+    final Comment saved = commentRepository.save(commentToSave);
+    invalidationBus.publish(InvalidationTopic.ITEM, itemId);
+    return CommentMapper.mapToCommentDto(saved);
+  }
+
+  @Override
+  public PopularItemsDto getPopularItems(final int limit) {
+    log.debug("Retrieving top {} popular items from the popularity tracker.", limit);
+    return PopularItemsDto.builder()
+        .mostViewed(popularItemsTracker.getMostViewed(limit))
+        .mostBooked(popularItemsTracker.getMostBooked(limit))
+        .build();
   }
 
   private void validateBookingsByBookerAndItem(final Long itemId, final Long userId,
                                                final LocalDateTime now) {
     log.debug("Fetching PAST bookings for itemId {}, bookerId {}.", itemId, userId);
     if (!bookingRepository.existsByItemIdAndBookerIdAndStatusAndEndBefore(
-        itemId, userId, BookingStatus.APPROVED, now)) {
+        itemId, userId, BookingStatus.APPROVED, now)
+        && !archivedBookingRepository.existsByItemIdAndBookerIdAndStatus(
+        itemId, userId, BookingStatus.APPROVED)) {
       log.warn("Failing matching itemId {} and bookerId {} for completed bookings.", itemId,
           userId);
       throw new ValidationException("User is not allowed to leave a comment.");
@@ -171,7 +297,7 @@ public class ItemServiceImpl implements ItemService {
     log.debug("Success: bookerId {} has completed bookings for itemId {}.", userId, itemId);
   }
 
-  private BookingShortDto getLastBooking(final List<Booking> bookings, final LocalDateTime point) {
+  static BookingShortDto getLastBooking(final List<Booking> bookings, final LocalDateTime point) {
     if (bookings == null) {
       return null;
     }
@@ -182,7 +308,7 @@ public class ItemServiceImpl implements ItemService {
         .orElse(null);
   }
 
-  private BookingShortDto getNextBooking(final List<Booking> bookings, final LocalDateTime point) {
+  static BookingShortDto getNextBooking(final List<Booking> bookings, final LocalDateTime point) {
     if (bookings == null || bookings.isEmpty()) {
       return null;
     }
@@ -194,6 +320,90 @@ public class ItemServiceImpl implements ItemService {
   }
 
 
+  /**
+   * Loads the user-independent part of an item read; bookings are added for the owner only.
+   */
+  private ItemSnapshot loadItemSnapshot(final Long itemId, final boolean withComments) {
+    final Supplier<List<CommentDto>> comments = withComments
+        ? queryFanOut.fork(() ->
+        CommentMapper.mapToCommentDto(commentRepository.findAllByItemId(itemId)))
+        : List::of;
+    final Item item = getItemOrThrow(itemId);
+    return new ItemSnapshot(item.getOwner().getId(),
+        ItemMapper.mapToItemDto(item).setComments(List.copyOf(comments.get())));
+  }
+
+  /**
+   * Finds the last bookings of the items, taking those the archiver has moved out of the live
+   * table from the archive, in {@code archivedStatuses} as the live bookings were filtered.
+   */
+  private Map<Long, BookingShortDto> findLastBookings(final List<Item> items,
+                                                      final Map<Long, List<Booking>> bookings,
+                                                      final LocalDateTime now,
+                                                      final Set<BookingStatus> archivedStatuses) {
+    final Map<Long, BookingShortDto> lastBookings = new HashMap<>();
+    final List<Long> withoutLastBooking = new ArrayList<>();
+    for (Item item : items) {
+      final BookingShortDto lastBooking = getLastBooking(bookings.get(item.getId()), now);
+      if (lastBooking == null) {
+        withoutLastBooking.add(item.getId());
+      } else {
+        lastBookings.put(item.getId(), lastBooking);
+      }
+    }
+    lastBookings.putAll(findArchivedLastBookings(withoutLastBooking, archivedStatuses));
+    return lastBookings;
+  }
+
+  private Map<Long, BookingShortDto> findArchivedLastBookings(
+      final Collection<Long> itemIds, final Set<BookingStatus> statuses) {
+    if (itemIds.isEmpty()) {
+      return Map.of();
+    }
+    return archivedBookingRepository.findLastByItemIdIn(itemIds, statuses)
+        .stream()
+        .collect(Collectors.toMap(booking -> booking.getItem().getId(),
+            BookingMapper::mapToShortDto, (first, second) -> first));
+  }
+
+  private Map<Long, List<CommentDto>> findCommentsForItems(final List<Item> items) {
+    return commentRepository.findAllByItemIdIn(items
+            .stream()
+            .map(Item::getId)
+            .toList())
+        .stream()
+        .collect(Collectors.groupingBy(comment -> comment.getItem().getId(),
+            Collectors.mapping(CommentMapper::mapToCommentDto, Collectors.toList())));
+  }
+
+  private Map<Long, List<Booking>> findBookingsForItems(final List<Item> items,
+                                                      final Long ownerId) {
+    return bookingRepository.findAllByItemIdInAndItemOwnerId(items
+            .stream()
+            .map(Item::getId)
+            .toList(), ownerId)
+        .stream()
+        .filter(b -> !b.getStatus().equals(BookingStatus.REJECTED))
+        .collect(Collectors.groupingBy(booking -> booking.getItem().getId()));
+  }
+
+  /**
+   * Loads bookings of those items that are owned by the user; other users do not see them.
+   */
+  private Map<Long, List<Booking>> findBookingsForOwnedItems(final List<Item> items,
+                                                             final Long userId) {
+    final List<Long> ownedItemIds = items.stream()
+        .filter(item -> userId.equals(item.getOwner().getId()))
+        .map(Item::getId)
+        .toList();
+    if (ownedItemIds.isEmpty()) {
+      return Map.of();
+    }
+    return bookingRepository.findAllByItemIdInAndItemOwnerId(ownedItemIds, userId)
+        .stream()
+        .collect(Collectors.groupingBy(booking -> booking.getItem().getId()));
+  }
+
   private Item getItemByIdAndOwnerOrThrow(final Long itemId, final Long userId) {
     return itemRepository.findByIdAndOwnerId(itemId, userId)
         .orElseThrow(() -> {
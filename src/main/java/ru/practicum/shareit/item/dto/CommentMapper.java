@@ -6,7 +6,6 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 import lombok.experimental.UtilityClass;
-import lombok.extern.slf4j.Slf4j;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
@@ -16,11 +15,9 @@ import ru.practicum.shareit.user.model.User;
  * provides static methods to convert between different representations of item data:
  */
 @UtilityClass
-@Slf4j
 public class CommentMapper {
 
   public CommentDto mapToCommentDto(final Comment comment) {
-    log.debug("Mapping Comment {} to CommentDto.", comment);
     Objects.requireNonNull(comment, "Comment cannot be null.");
     return CommentDto.builder()
         .id(comment.getId())
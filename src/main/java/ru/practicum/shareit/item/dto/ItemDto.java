@@ -1,14 +1,17 @@
 package ru.practicum.shareit.item.dto;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Null;
 import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
 import java.util.List;
 import lombok.Builder;
 import lombok.Data;
 import lombok.experimental.Accessors;
 import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.fields.FieldSet;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.validation.Create;
 import ru.practicum.shareit.validation.Update;
@@ -20,7 +23,8 @@ import ru.practicum.shareit.validation.Update;
  * @see ItemMapper
  */
 @Data
-@Builder
+@Builder(toBuilder = true)
+@JsonFilter(FieldSet.FILTER_ID)
 @Accessors(chain = true)
 public class ItemDto {
 
@@ -42,6 +46,9 @@ public class ItemDto {
   @NotNull(groups = Create.class, message = "Available should be defined.")
   private Boolean available;
 
+  @Positive(groups = Create.class, message = "Request ID can not be negative number.")
+  private Long requestId;
+
   private BookingShortDto lastBooking;
 
   private BookingShortDto nextBooking;
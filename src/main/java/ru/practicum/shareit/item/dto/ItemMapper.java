@@ -5,9 +5,9 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 import lombok.experimental.UtilityClass;
-import lombok.extern.slf4j.Slf4j;
 import ru.practicum.shareit.booking.dto.BookingShortDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 
 /**
@@ -22,6 +22,9 @@ import ru.practicum.shareit.user.model.User;
  *   to a list of {@link ItemDto} objects.</li>
  *   <li>{@link #mapToItem(ItemDto, User)}: Maps an {@link ItemDto} to an {@link Item} entity, using the provided
  *   {@link User} as the owner.</li>
+ *   <li>{@link #mapToItem(ItemDto, User, ItemRequest)}: Maps an {@link ItemDto} to an {@link Item} entity
+ *   added in answer to the provided {@link ItemRequest}.</li>
+ *   <li>{@link #mapToItemShortDto(Item)}: Maps an {@link Item} entity to an {@link ItemShortDto}.</li>
  * </ul>
  *
  * @see Item
@@ -31,17 +34,25 @@ import ru.practicum.shareit.user.model.User;
  * @see User
  */
 @UtilityClass
-@Slf4j
 public class ItemMapper {
 
   public ItemDto mapToItemDto(final Item item) {
-    log.debug("Mapping Item {} to ItemDto.", item);
     Objects.requireNonNull(item, "Item cannot be null.");
     return ItemDto.builder()
         .id(item.getId())
         .name(item.getName())
         .description(item.getDescription())
         .available(item.isAvailable())
+        .requestId(item.getRequest() == null ? null : item.getRequest().getId())
+        .build();
+  }
+
+  public ItemShortDto mapToItemShortDto(final Item item) {
+    Objects.requireNonNull(item, "Item cannot be null.");
+    return ItemShortDto.builder()
+        .id(item.getId())
+        .name(item.getName())
+        .ownerId(item.getOwner().getId())
         .build();
   }
 
@@ -66,6 +77,10 @@ public class ItemMapper {
   }
 
   public Item mapToItem(final ItemDto itemDto, final User owner) {
+    return mapToItem(itemDto, owner, null);
+  }
+
+  public Item mapToItem(final ItemDto itemDto, final User owner, final ItemRequest request) {
     Objects.requireNonNull(itemDto, "ItemDto cannot be null.");
     return Item.builder()
         .id(itemDto.getId())
@@ -73,6 +88,7 @@ public class ItemMapper {
         .description(itemDto.getDescription())
         .owner(owner)
         .available(itemDto.getAvailable())
+        .request(request)
         .build();
   }
 }
@@ -0,0 +1,23 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.Builder;
+import lombok.Data;
+import ru.practicum.shareit.item.model.Item;
+
+/**
+ * Data Transfer Object representing an Item added in answer to an item request.
+ *
+ * @see Item
+ * @see ItemMapper
+ */
+@Data
+@Builder
+public class ItemShortDto {
+
+  private Long id;
+
+  private String name;
+
+  private Long ownerId;
+
+}
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.Builder;
+import lombok.Data;
+import ru.practicum.shareit.item.popular.PopularItemsTracker;
+
+/**
+ * Data Transfer Object representing an item with its estimated number of events (views or
+ * bookings) over the popularity window.
+ *
+ * @see PopularItemsDto
+ * @see PopularItemsTracker
+ */
+@Data
+@Builder
+public class PopularItemDto {
+
+  private Long itemId;
+
+  private Long count;
+
+}
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.item.dto;
+
+import java.util.List;
+import lombok.Builder;
+import lombok.Data;
+import ru.practicum.shareit.item.popular.PopularItemsTracker;
+
+/**
+ * Data Transfer Object representing the most viewed and the most booked items.
+ *
+ * @see PopularItemDto
+ * @see PopularItemsTracker
+ */
+@Data
+@Builder
+public class PopularItemsDto {
+
+  private List<PopularItemDto> mostViewed;
+
+  private List<PopularItemDto> mostBooked;
+
+}
@@ -0,0 +1,81 @@
+package ru.practicum.shareit.item.popular;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A fixed-size Count-Min sketch for estimating event frequencies of {@code long} keys.
+ * <p>
+ * The sketch keeps {@code depth} rows of {@code width} counters. Each key is hashed once per row,
+ * and the estimate is the minimum counter over all rows, so it never underestimates the true
+ * count. With {@code width = ceil(e / epsilon)} and {@code depth = ceil(ln(1 / delta))} the
+ * overestimation is bounded by {@code epsilon * total} with probability {@code 1 - delta}.
+ * <p>
+ * Counters are stored in {@link AtomicLongArray}s, so {@link #add(long)} and
+ * {@link #estimate(long)} are safe to call concurrently without locking.
+ *
+ * @see SlidingTopK
+ */
+public class CountMinSketch {
+
+  private static final long[] ROW_SEEDS = {
+      0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L,
+      0xFF51AFD7ED558CCDL, 0xC4CEB9FE1A85EC53L, 0x94D049BB133111EBL, 0xBF58476D1CE4E5B9L
+  };
+
+  private final int width;
+  private final AtomicLongArray[] rows;
+
+  public CountMinSketch(final int width, final int depth) {
+    if (width <= 0) {
+      throw new IllegalArgumentException("Sketch width must be positive.");
+    }
+    if (depth <= 0 || depth > ROW_SEEDS.length) {
+      throw new IllegalArgumentException("Sketch depth must be between 1 and " + ROW_SEEDS.length);
+    }
+    this.width = width;
+    this.rows = new AtomicLongArray[depth];
+    for (int i = 0; i < depth; i++) {
+      rows[i] = new AtomicLongArray(width);
+    }
+  }
+
+  /**
+   * Increments the counters of the given key by one and returns the updated estimate.
+   */
+  public long add(final long key) {
+    long estimate = Long.MAX_VALUE;
+    for (int i = 0; i < rows.length; i++) {
+      estimate = Math.min(estimate, rows[i].incrementAndGet(index(key, i)));
+    }
+    return estimate;
+  }
+
+  public long estimate(final long key) {
+    long estimate = Long.MAX_VALUE;
+    for (int i = 0; i < rows.length; i++) {
+      estimate = Math.min(estimate, rows[i].get(index(key, i)));
+    }
+    return estimate;
+  }
+
+  public void clear() {
+    for (AtomicLongArray row : rows) {
+      for (int j = 0; j < width; j++) {
+        row.set(j, 0L);
+      }
+    }
+  }
+
+  private int index(final long key, final int row) {
+    return (int) Long.remainderUnsigned(mix(key ^ ROW_SEEDS[row]), width);
+  }
+
+  /**
+   * SplitMix64 finalizer, spreads sequential database IDs evenly across the row.
+   */
+  private static long mix(long z) {
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    return z ^ (z >>> 31);
+  }
+}
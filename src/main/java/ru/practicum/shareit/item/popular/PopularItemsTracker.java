@@ -0,0 +1,71 @@
+package ru.practicum.shareit.item.popular;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dto.PopularItemDto;
+
+/**
+ * In-memory tracker of item popularity, fed by item views and booking creations.
+ * <p>
+ * Views and bookings are counted in two independent {@link SlidingTopK} structures over the same
+ * sliding window, so the most popular items are answered from memory without touching the
+ * database.
+ * <ul>
+ *   <li>{@link #recordView(Long)}: Registers a view of an item.</li>
+ *   <li>{@link #recordBooking(Long)}: Registers a booking created for an item.</li>
+ *   <li>{@link #getMostViewed(int)}: Returns the most viewed items over the window.</li>
+ *   <li>{@link #getMostBooked(int)}: Returns the most booked items over the window.</li>
+ * </ul>
+ *
+ * @see SlidingTopK
+ * @see CountMinSketch
+ */
+@Component
+@Slf4j
+public class PopularItemsTracker {
+
+  private final SlidingTopK views;
+  private final SlidingTopK bookings;
+
+  public PopularItemsTracker(
+      @Value("${shareit.popular.window:PT24H}") final Duration window,
+      @Value("${shareit.popular.slots:24}") final int slots,
+      @Value("${shareit.popular.capacity:200}") final int capacity,
+      @Value("${shareit.popular.sketch-width:2048}") final int sketchWidth,
+      @Value("${shareit.popular.sketch-depth:4}") final int sketchDepth) {
+    log.debug("Initializing popular items tracker: window {}, {} slots, {} candidates per slot.",
+        window, slots, capacity);
+    final Clock clock = Clock.systemUTC();
+    this.views = new SlidingTopK(window, slots, capacity, sketchWidth, sketchDepth, clock);
+    this.bookings = new SlidingTopK(window, slots, capacity, sketchWidth, sketchDepth, clock);
+  }
+
+  public void recordView(final Long itemId) {
+    views.record(itemId);
+  }
+
+  public void recordBooking(final Long itemId) {
+    bookings.record(itemId);
+  }
+
+  public List<PopularItemDto> getMostViewed(final int limit) {
+    return mapToDto(views.top(limit));
+  }
+
+  public List<PopularItemDto> getMostBooked(final int limit) {
+    return mapToDto(bookings.top(limit));
+  }
+
+  private List<PopularItemDto> mapToDto(final List<SlidingTopK.Entry> entries) {
+    return entries.stream()
+        .map(e -> PopularItemDto.builder()
+            .itemId(e.key())
+            .count(e.count())
+            .build())
+        .toList();
+  }
+}
@@ -0,0 +1,173 @@
+package ru.practicum.shareit.item.popular;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A space-bounded heavy-hitters tracker over a sliding time window.
+ * <p>
+ * The window is split into a ring of equally sized slots. Every slot owns a {@link CountMinSketch}
+ * with the event counts of its time span and a min-heap of at most {@code capacity} candidate keys
+ * with the highest estimates seen in that span. When the clock moves into a slot that belongs to an
+ * expired span, the slot is cleared and reused, so the memory footprint does not depend on the
+ * number of distinct keys or events.
+ * <p>
+ * {@link #top(int)} merges the candidates of all live slots and ranks them by the sum of their
+ * per-slot estimates. Only the candidate keys are copied under the lock shared with
+ * {@link #record(long)}; the merge and the estimates run outside it on the lock-free sketches, so
+ * a read of the top keys does not hold up the views being recorded. A slot rotated out while the
+ * merge runs contributes a partially cleared count, which only affects the expiring span.
+ *
+ * @see CountMinSketch
+ */
+public class SlidingTopK {
+
+  private static final Comparator<Entry> BY_COUNT = Comparator.comparingLong(Entry::count);
+
+  private final Clock clock;
+  private final long slotMillis;
+  private final int capacity;
+  private final Slot[] slots;
+  private final ReentrantLock lock = new ReentrantLock();
+
+  public SlidingTopK(final Duration window, final int slotCount, final int capacity,
+                     final int sketchWidth, final int sketchDepth, final Clock clock) {
+    if (slotCount <= 0 || capacity <= 0) {
+      throw new IllegalArgumentException("Slot count and capacity must be positive.");
+    }
+    this.slotMillis = Math.max(1L, window.toMillis() / slotCount);
+    this.capacity = capacity;
+    this.clock = clock;
+    this.slots = new Slot[slotCount];
+    for (int i = 0; i < slotCount; i++) {
+      slots[i] = new Slot(new CountMinSketch(sketchWidth, sketchDepth));
+    }
+  }
+
+  /**
+   * Registers one event for the given key in the current slot.
+   */
+  public void record(final long key) {
+    final long epoch = currentEpoch();
+    lock.lock();
+    try {
+      final Slot slot = slotFor(epoch);
+      final long estimate = slot.sketch.add(key);
+      slot.offer(key, estimate, capacity);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Returns up to {@code k} keys with the highest estimated counts over the window, ordered by
+   * count descending.
+   */
+  public List<Entry> top(final int k) {
+    final long epoch = currentEpoch();
+    final List<CountMinSketch> sketches = new ArrayList<>(slots.length);
+    final List<long[]> slotCandidates = new ArrayList<>(slots.length);
+    lock.lock();
+    try {
+      for (Slot slot : slots) {
+        if (slot.epoch > epoch - slots.length && slot.epoch <= epoch) {
+          sketches.add(slot.sketch);
+          slotCandidates.add(slot.candidates());
+        }
+      }
+    } finally {
+      lock.unlock();
+    }
+    final Set<Long> candidates = new HashSet<>();
+    for (long[] keys : slotCandidates) {
+      for (long key : keys) {
+        candidates.add(key);
+      }
+    }
+    final PriorityQueue<Entry> best = new PriorityQueue<>(BY_COUNT);
+    for (Long key : candidates) {
+      long total = 0;
+      for (CountMinSketch sketch : sketches) {
+        total += sketch.estimate(key);
+      }
+      best.offer(new Entry(key, total));
+      if (best.size() > k) {
+        best.poll();
+      }
+    }
+    final List<Entry> result = new ArrayList<>(best);
+    result.sort(BY_COUNT.reversed().thenComparingLong(Entry::key));
+    return result;
+  }
+
+  private long currentEpoch() {
+    return clock.millis() / slotMillis;
+  }
+
+  private Slot slotFor(final long epoch) {
+    final Slot slot = slots[(int) Math.floorMod(epoch, (long) slots.length)];
+    if (slot.epoch != epoch) {
+      slot.reset(epoch);
+    }
+    return slot;
+  }
+
+  /**
+   * An estimated event count for a single key.
+   */
+  public record Entry(long key, long count) {
+
+  }
+
+  private static final class Slot {
+
+    private final CountMinSketch sketch;
+    private final PriorityQueue<Entry> heap = new PriorityQueue<>(BY_COUNT);
+    private final Map<Long, Entry> positions = new HashMap<>();
+    private long epoch = Long.MIN_VALUE;
+
+    private Slot(final CountMinSketch sketch) {
+      this.sketch = sketch;
+    }
+
+    private void offer(final long key, final long estimate, final int capacity) {
+      final Entry previous = positions.get(key);
+      if (previous != null) {
+        heap.remove(previous);
+      } else if (heap.size() >= capacity) {
+        if (heap.peek().count() >= estimate) {
+          return;
+        }
+        positions.remove(heap.poll().key());
+      }
+      final Entry entry = new Entry(key, estimate);
+      heap.offer(entry);
+      positions.put(key, entry);
+    }
+
+    private long[] candidates() {
+      final long[] keys = new long[positions.size()];
+      int i = 0;
+      for (Long key : positions.keySet()) {
+        keys[i++] = key;
+      }
+      return keys;
+    }
+
+    private void reset(final long newEpoch) {
+      sketch.clear();
+      heap.clear();
+      positions.clear();
+      epoch = newEpoch;
+    }
+  }
+}
@@ -0,0 +1,35 @@
+package ru.practicum.shareit.jdbc;
+
+import javax.sql.DataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Wraps the application {@link DataSource} into a datasource-proxy that reports every executed
+ * statement to {@link SqlStatementCounter}. The proxy implements {@link java.sql.Wrapper}, so pool
+ * metrics and health checks still reach the underlying Hikari pool. It can be switched off with
+ * {@code shareit.sql.proxy.enabled=false}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "shareit.sql.proxy.enabled", matchIfMissing = true)
+public class DataSourceProxyConfig {
+
+  @Bean
+  public static BeanPostProcessor dataSourceProxyPostProcessor() {
+    return new BeanPostProcessor() {
+      @Override
+      public Object postProcessAfterInitialization(final Object bean, final String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+          return ProxyDataSourceBuilder.create(beanName, dataSource)
+              .listener(new SqlStatementListener())
+              .build();
+        }
+        return bean;
+      }
+    };
+  }
+}
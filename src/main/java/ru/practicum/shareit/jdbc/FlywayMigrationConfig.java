@@ -0,0 +1,30 @@
+package ru.practicum.shareit.jdbc;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Skips the Flyway migrations in the AppCDS training run of the {@code aot} build profile
+ * ({@code shareit.cds.training=true}). With AOT the Flyway beans are fixed at build time, so
+ * {@code spring.flyway.enabled=false} has no effect there; the strategy reads the property at
+ * runtime instead.
+ */
+@Configuration
+@Slf4j
+public class FlywayMigrationConfig {
+
+  @Bean
+  public FlywayMigrationStrategy flywayMigrationStrategy(
+      @Value("${shareit.cds.training:false}") final boolean cdsTraining) {
+    return flyway -> {
+      if (cdsTraining) {
+        log.info("CDS training run, skipping the schema migrations.");
+        return;
+      }
+      flyway.migrate();
+    };
+  }
+}
@@ -0,0 +1,160 @@
+package ru.practicum.shareit.jdbc;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.jdbc.SqlStatementCounter.SqlStatements;
+
+/**
+ * Runs independent read-only queries of one request concurrently.
+ * <p>
+ * {@link #fork(Supplier)} hands a query to a bounded executor, where it runs in its own read-only
+ * transaction and therefore on its own pooled connection, while the caller goes on with the next
+ * query. The forked query must return data that is safe to use after its persistence context is
+ * closed, e.g. DTOs. The query runs in the calling thread instead when fan-out is disabled, when
+ * all executor threads are busy, or when the Hikari pool has no idle connection or already has
+ * threads waiting for one, so a saturated node degrades to serial execution rather than queueing
+ * for connections. Both cases are counted by {@code shareit.queries.fanout} with the
+ * {@code mode} tag.
+ * <p>
+ * Fan-out is enabled with {@code shareit.queries.fan-out.enabled=true}. Statements of a forked
+ * query are added to the {@link SqlStatementCounter} of the caller, and the caller's MDC is
+ * copied to the executor thread.
+ */
+@Component
+@Slf4j
+public class QueryFanOut implements DisposableBean {
+
+  private final boolean enabled;
+  private final ThreadPoolExecutor executor;
+  private final TransactionTemplate readOnlyTransaction;
+  private final HikariDataSource hikariDataSource;
+  private final Counter parallel;
+  private final Counter serial;
+
+  public QueryFanOut(
+      final PlatformTransactionManager transactionManager,
+      final DataSource dataSource,
+      final MeterRegistry registry,
+      @Value("${shareit.queries.fan-out.enabled:false}") final boolean enabled,
+      @Value("${shareit.queries.fan-out.threads:4}") final int threads) {
+    this.enabled = enabled;
+    this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+        new SynchronousQueue<>(), Thread.ofPlatform().name("query-fan-out-", 0).daemon().factory());
+    this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+    this.readOnlyTransaction.setReadOnly(true);
+    this.readOnlyTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    this.hikariDataSource = unwrapHikari(dataSource);
+    this.parallel = Counter.builder("shareit.queries.fanout")
+        .description("Independent queries run concurrently or serially")
+        .tag("mode", "parallel")
+        .register(registry);
+    this.serial = Counter.builder("shareit.queries.fanout")
+        .description("Independent queries run concurrently or serially")
+        .tag("mode", "serial")
+        .register(registry);
+  }
+
+  /**
+   * Starts the query and returns a supplier of its result, which must be called once by the same
+   * thread. Exceptions of the query are rethrown by the supplier.
+   */
+  public <T> Supplier<T> fork(final Supplier<T> query) {
+    if (!enabled || poolSaturated()) {
+      return runSerially(query);
+    }
+    final Map<String, String> mdc = MDC.getCopyOfContextMap();
+    final Future<Forked<T>> future;
+    try {
+      future = executor.submit(() -> runForked(query, mdc));
+    } catch (RejectedExecutionException e) {
+      return runSerially(query);
+    }
+    parallel.increment();
+    return () -> join(future);
+  }
+
+  @Override
+  public void destroy() {
+    executor.shutdownNow();
+  }
+
+  private <T> Supplier<T> runSerially(final Supplier<T> query) {
+    serial.increment();
+    final T result = query.get();
+    return () -> result;
+  }
+
+  private <T> Forked<T> runForked(final Supplier<T> query, final Map<String, String> mdc) {
+    if (mdc != null) {
+      MDC.setContextMap(mdc);
+    }
+    SqlStatementCounter.start();
+    try {
+      final T result = readOnlyTransaction.execute(status -> query.get());
+      return new Forked<>(result, SqlStatementCounter.current());
+    } finally {
+      SqlStatementCounter.stop();
+      MDC.clear();
+    }
+  }
+
+  private static <T> T join(final Future<Forked<T>> future) {
+    final Forked<T> forked;
+    try {
+      forked = future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while waiting for a forked query.", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      throw new IllegalStateException("Forked query failed.", e.getCause());
+    }
+    SqlStatementCounter.add(forked.statements());
+    return forked.result();
+  }
+
+  private boolean poolSaturated() {
+    final HikariPoolMXBean pool =
+        hikariDataSource == null ? null : hikariDataSource.getHikariPoolMXBean();
+    return pool != null
+        && (pool.getIdleConnections() == 0 || pool.getThreadsAwaitingConnection() > 0);
+  }
+
+  private static HikariDataSource unwrapHikari(final DataSource dataSource) {
+    try {
+      return dataSource.isWrapperFor(HikariDataSource.class)
+          ? dataSource.unwrap(HikariDataSource.class)
+          : null;
+    } catch (SQLException e) {
+      log.warn("Failed to unwrap the Hikari pool, fan-out ignores pool saturation: {}",
+          e.getMessage());
+      return null;
+    }
+  }
+
+  private record Forked<T>(T result, SqlStatements statements) {
+
+  }
+}
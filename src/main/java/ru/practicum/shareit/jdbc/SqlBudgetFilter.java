@@ -0,0 +1,94 @@
+package ru.practicum.shareit.jdbc;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Locale;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import ru.practicum.shareit.jdbc.SqlStatementCounter.SqlStatements;
+
+/**
+ * Counts the SQL statements and the JDBC time of every HTTP request.
+ * <p>
+ * Requests over the configured statement or time budget are logged with their endpoint. In
+ * diagnostic mode ({@code shareit.sql.diagnostics=true}) the numbers are also returned in the
+ * {@value #STATEMENTS_HEADER} and {@value #TIME_HEADER} response headers; the response body is
+ * buffered in this mode, so the headers can be added after the handler has written it. Every
+ * request is published as a {@link SqlStatementsReport}. The filter is ordered after the others,
+ * next to the handler.
+ */
+@Component
+@Order(SqlBudgetFilter.ORDER)
+@Slf4j
+public class SqlBudgetFilter extends OncePerRequestFilter {
+
+  public static final int ORDER = Ordered.LOWEST_PRECEDENCE - 10;
+  public static final String STATEMENTS_HEADER = "X-Sql-Statements";
+  public static final String TIME_HEADER = "X-Sql-Time-Ms";
+
+  private final ApplicationEventPublisher eventPublisher;
+  private final boolean diagnostics;
+  private final int statementBudget;
+  private final Duration timeBudget;
+
+  public SqlBudgetFilter(
+      final ApplicationEventPublisher eventPublisher,
+      @Value("${shareit.sql.diagnostics:false}") final boolean diagnostics,
+      @Value("${shareit.sql.budget.statements:10}") final int statementBudget,
+      @Value("${shareit.sql.budget.time:PT0.1S}") final Duration timeBudget) {
+    this.eventPublisher = eventPublisher;
+    this.diagnostics = diagnostics;
+    this.statementBudget = statementBudget;
+    this.timeBudget = timeBudget;
+  }
+
+  @Override
+  protected void doFilterInternal(final HttpServletRequest request,
+                                  final HttpServletResponse response,
+                                  final FilterChain filterChain)
+      throws ServletException, IOException {
+    final ContentCachingResponseWrapper buffered =
+        diagnostics ? new ContentCachingResponseWrapper(response) : null;
+    final SqlStatements statements;
+    SqlStatementCounter.start();
+    try {
+      filterChain.doFilter(request, buffered == null ? response : buffered);
+    } finally {
+      statements = SqlStatementCounter.stop();
+    }
+
+    final String endpoint = request.getMethod() + " " + pattern(request);
+    if (statements.count() > statementBudget || statements.nanos() > timeBudget.toNanos()) {
+      log.warn("{} executed {} SQL statements in {} ms, over the budget of {} statements and {} ms.",
+          endpoint, statements.count(), format(statements), statementBudget,
+          timeBudget.toMillis());
+    }
+    eventPublisher.publishEvent(new SqlStatementsReport(endpoint, statements));
+
+    if (buffered != null) {
+      buffered.setHeader(STATEMENTS_HEADER, String.valueOf(statements.count()));
+      buffered.setHeader(TIME_HEADER, format(statements));
+      buffered.copyBodyToResponse();
+    }
+  }
+
+  private static String pattern(final HttpServletRequest request) {
+    final Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+    return pattern == null ? request.getRequestURI() : pattern.toString();
+  }
+
+  private static String format(final SqlStatements statements) {
+    return String.format(Locale.ROOT, "%.3f", statements.millis());
+  }
+}
@@ -0,0 +1,67 @@
+package ru.practicum.shareit.jdbc;
+
+/**
+ * Counts the SQL statements executed by the current thread between {@link #start()} and
+ * {@link #stop()}, together with the time spent in JDBC. Statements executed outside of a started
+ * interval are ignored.
+ *
+ * @see SqlStatementListener
+ * @see SqlBudgetFilter
+ */
+public final class SqlStatementCounter {
+
+  private static final ThreadLocal<long[]> CURRENT = new ThreadLocal<>();
+
+  private SqlStatementCounter() {
+  }
+
+  public static void start() {
+    CURRENT.set(new long[2]);
+  }
+
+  public static SqlStatements stop() {
+    final long[] counters = CURRENT.get();
+    CURRENT.remove();
+    return counters == null ? new SqlStatements(0, 0L) : toStatements(counters);
+  }
+
+  public static SqlStatements current() {
+    final long[] counters = CURRENT.get();
+    return counters == null ? new SqlStatements(0, 0L) : toStatements(counters);
+  }
+
+  /**
+   * Adds statements executed by another thread on behalf of the current one, see
+   * {@link QueryFanOut}.
+   */
+  public static void add(final SqlStatements statements) {
+    final long[] counters = CURRENT.get();
+    if (counters != null) {
+      counters[0] += statements.count();
+      counters[1] += statements.nanos();
+    }
+  }
+
+  static void record(final long nanos) {
+    final long[] counters = CURRENT.get();
+    if (counters != null) {
+      counters[0]++;
+      counters[1] += nanos;
+    }
+  }
+
+  private static SqlStatements toStatements(final long[] counters) {
+    return new SqlStatements((int) counters[0], counters[1]);
+  }
+
+  /**
+   * The number of executed statements, a JDBC batch counts as one, and their total execution
+   * time.
+   */
+  public record SqlStatements(int count, long nanos) {
+
+    public double millis() {
+      return nanos / 1_000_000.0;
+    }
+  }
+}
@@ -0,0 +1,27 @@
+package ru.practicum.shareit.jdbc;
+
+import java.util.List;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+/**
+ * Feeds every statement executed through the proxied {@code DataSource} into
+ * {@link SqlStatementCounter}. The execution time is measured here in nanoseconds, because
+ * {@link ExecutionInfo#getElapsedTime()} only has millisecond precision.
+ */
+class SqlStatementListener implements QueryExecutionListener {
+
+  private static final String STARTED_AT = SqlStatementListener.class.getName() + ".startedAt";
+
+  @Override
+  public void beforeQuery(final ExecutionInfo execInfo, final List<QueryInfo> queryInfoList) {
+    execInfo.addCustomValue(STARTED_AT, System.nanoTime());
+  }
+
+  @Override
+  public void afterQuery(final ExecutionInfo execInfo, final List<QueryInfo> queryInfoList) {
+    final Long startedAt = execInfo.getCustomValue(STARTED_AT, Long.class);
+    SqlStatementCounter.record(startedAt == null ? 0L : System.nanoTime() - startedAt);
+  }
+}
@@ -0,0 +1,11 @@
+package ru.practicum.shareit.jdbc;
+
+import ru.practicum.shareit.jdbc.SqlStatementCounter.SqlStatements;
+
+/**
+ * Published by {@link SqlBudgetFilter} after every request. {@code endpoint} is the HTTP method
+ * and the matched path pattern, e.g. {@code GET /items/{itemId}}.
+ */
+public record SqlStatementsReport(String endpoint, SqlStatements statements) {
+
+}
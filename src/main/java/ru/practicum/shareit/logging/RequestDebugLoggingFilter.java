@@ -0,0 +1,71 @@
+package ru.practicum.shareit.logging;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Selects requests for debug logging: requests carrying the {@value #DEBUG_HEADER} header, when
+ * enabled by {@code shareit.logging.debug.header-enabled}, and a random sample of all requests
+ * given by {@code shareit.logging.debug.sample-rate}. For a selected request the application
+ * loggers emit DEBUG events even when their level is higher, and the {@value #MDC_KEY} MDC entry
+ * tells why the request was selected.
+ *
+ * @see RequestDebugTurboFilter
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestDebugLoggingFilter extends OncePerRequestFilter {
+
+  public static final String DEBUG_HEADER = "X-Debug-Log";
+  public static final String MDC_KEY = "debugLog";
+
+  private final boolean headerEnabled;
+  private final double sampleRate;
+
+  public RequestDebugLoggingFilter(
+      @Value("${shareit.logging.debug.header-enabled:false}") final boolean headerEnabled,
+      @Value("${shareit.logging.debug.sample-rate:0.0}") final double sampleRate) {
+    this.headerEnabled = headerEnabled;
+    this.sampleRate = sampleRate;
+  }
+
+  @Override
+  protected void doFilterInternal(final HttpServletRequest request,
+                                  final HttpServletResponse response,
+                                  final FilterChain filterChain)
+      throws ServletException, IOException {
+    final String reason = selectionReason(request);
+    if (reason == null) {
+      filterChain.doFilter(request, response);
+      return;
+    }
+    RequestDebugTurboFilter.enableForCurrentThread();
+    MDC.put(MDC_KEY, reason);
+    try {
+      filterChain.doFilter(request, response);
+    } finally {
+      MDC.remove(MDC_KEY);
+      RequestDebugTurboFilter.disableForCurrentThread();
+    }
+  }
+
+  private String selectionReason(final HttpServletRequest request) {
+    if (headerEnabled && Boolean.parseBoolean(request.getHeader(DEBUG_HEADER))) {
+      return "header";
+    }
+    if (sampleRate > 0.0 && ThreadLocalRandom.current().nextDouble() < sampleRate) {
+      return "sampled";
+    }
+    return null;
+  }
+}
@@ -0,0 +1,44 @@
+package ru.practicum.shareit.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+/**
+ * Lets DEBUG events of the application loggers through for threads that serve a request selected
+ * for debug logging, regardless of the configured logger levels.
+ * <p>
+ * Registered in {@code logback-spring.xml}. Events of other levels and threads get a neutral
+ * reply, so the configured levels apply; the check is a level comparison and a thread-local read.
+ *
+ * @see RequestDebugLoggingFilter
+ */
+public class RequestDebugTurboFilter extends TurboFilter {
+
+  private static final ThreadLocal<Boolean> ENABLED = new ThreadLocal<>();
+
+  private String loggerPrefix = "ru.practicum.shareit";
+
+  static void enableForCurrentThread() {
+    ENABLED.set(Boolean.TRUE);
+  }
+
+  static void disableForCurrentThread() {
+    ENABLED.remove();
+  }
+
+  public void setLoggerPrefix(final String loggerPrefix) {
+    this.loggerPrefix = loggerPrefix;
+  }
+
+  @Override
+  public FilterReply decide(final Marker marker, final Logger logger, final Level level,
+                            final String format, final Object[] params, final Throwable t) {
+    if (level == null || level.levelInt != Level.DEBUG_INT || ENABLED.get() == null) {
+      return FilterReply.NEUTRAL;
+    }
+    return logger.getName().startsWith(loggerPrefix) ? FilterReply.ACCEPT : FilterReply.NEUTRAL;
+  }
+}
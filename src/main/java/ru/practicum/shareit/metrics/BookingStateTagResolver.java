@@ -0,0 +1,27 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.common.annotation.ValueResolver;
+import java.util.Locale;
+import java.util.Set;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.BookingState;
+
+/**
+ * Resolves the {@code state} query parameter of booking listings to a {@link BookingState} tag
+ * value. Unknown values collapse into {@code INVALID}, so user input can not inflate the number of
+ * time series.
+ */
+@Component
+public class BookingStateTagResolver implements ValueResolver {
+
+  private static final Set<String> STATES = Set.copyOf(BookingState.getValidStates());
+
+  @Override
+  public String resolve(final Object parameter) {
+    if (parameter == null) {
+      return "INVALID";
+    }
+    final String state = parameter.toString().trim().toUpperCase(Locale.ROOT);
+    return STATES.contains(state) ? state : "INVALID";
+  }
+}
@@ -0,0 +1,51 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.retry.RetryCallback;
+import org.springframework.retry.RetryContext;
+import org.springframework.retry.RetryListener;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.utils.RetryOnConflict;
+
+/**
+ * Counts the optimistic locking conflicts handled by {@link RetryOnConflict}: every conflicting
+ * attempt is counted as {@code retried}, and calls that still conflicted after the last attempt as
+ * {@code exhausted}. Other exceptions are not retried and not counted here.
+ */
+@Component
+public class ConflictRetryMetrics implements RetryListener {
+
+  private final Counter retried;
+  private final Counter exhausted;
+
+  public ConflictRetryMetrics(final MeterRegistry registry) {
+    this.retried = Counter.builder("shareit.retry.conflicts")
+        .description("Optimistic locking conflicts of retried updates")
+        .tag("result", "retried")
+        .register(registry);
+    this.exhausted = Counter.builder("shareit.retry.conflicts")
+        .description("Optimistic locking conflicts of retried updates")
+        .tag("result", "exhausted")
+        .register(registry);
+  }
+
+  @Override
+  public <T, E extends Throwable> void onError(final RetryContext context,
+                                               final RetryCallback<T, E> callback,
+                                               final Throwable throwable) {
+    if (throwable instanceof OptimisticLockingFailureException) {
+      retried.increment();
+    }
+  }
+
+  @Override
+  public <T, E extends Throwable> void close(final RetryContext context,
+                                             final RetryCallback<T, E> callback,
+                                             final Throwable throwable) {
+    if (throwable instanceof OptimisticLockingFailureException) {
+      exhausted.increment();
+    }
+  }
+}
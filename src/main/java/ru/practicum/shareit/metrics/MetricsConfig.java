@@ -0,0 +1,79 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.aop.MeterTagAnnotationHandler;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.config.MeterFilter;
+import java.util.Set;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.dao.OptimisticLockingFailureException;
+import ru.practicum.shareit.exception.DuplicatedDataException;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.UserAuthorizationException;
+import ru.practicum.shareit.exception.ValidationException;
+
+/**
+ * Micrometer instrumentation of the service layer.
+ * <p>
+ * Service classes annotated with {@code @Timed} are measured by {@link TimedAspect}, which tags
+ * every timer with {@code class}, {@code method} and {@code exception}. A {@link MeterFilter} adds
+ * a low-cardinality {@code outcome} tag derived from the exception, and parameters annotated with
+ * {@code @MeterTag} are resolved to tags by their {@link io.micrometer.common.annotation.ValueResolver}
+ * bean. The aspect can be switched off with {@code shareit.metrics.services.enabled=false}.
+ * <p>
+ * Repository queries, Hibernate statistics and the Hikari pool are measured by Spring Boot
+ * auto-configuration; see the {@code management.*} properties.
+ */
+@Configuration
+public class MetricsConfig {
+
+  public static final String SERVICE_TIMER = "shareit.service";
+  public static final String BOOKING_QUERY_TIMER = "shareit.bookings.query";
+
+  private static final Set<String> CLIENT_ERRORS = Set.of(
+      NotFoundException.class.getSimpleName(),
+      ValidationException.class.getSimpleName(),
+      UserAuthorizationException.class.getSimpleName(),
+      DuplicatedDataException.class.getSimpleName(),
+      IllegalArgumentException.class.getSimpleName());
+  private static final Set<String> CONFLICTS = Set.of(
+      OptimisticLockingFailureException.class.getSimpleName(),
+      "ObjectOptimisticLockingFailureException");
+
+  @Bean
+  @ConditionalOnProperty(name = "shareit.metrics.services.enabled", matchIfMissing = true)
+  public TimedAspect timedAspect(final MeterRegistry registry,
+                                 final BookingStateTagResolver bookingStateTagResolver) {
+    final TimedAspect aspect = new TimedAspect(registry);
+    aspect.setMeterTagAnnotationHandler(
+        new MeterTagAnnotationHandler(resolver -> bookingStateTagResolver, expression -> null));
+    return aspect;
+  }
+
+  @Bean
+  public MeterFilter outcomeTagFilter() {
+    return new MeterFilter() {
+      @Override
+      public Meter.Id map(final Meter.Id id) {
+        if (!id.getName().equals(SERVICE_TIMER) && !id.getName().equals(BOOKING_QUERY_TIMER)) {
+          return id;
+        }
+        return id.withTag(Tag.of("outcome", outcome(id.getTag(TimedAspect.EXCEPTION_TAG))));
+      }
+    };
+  }
+
+  static String outcome(final String exception) {
+    if (exception == null || TimedAspect.DEFAULT_EXCEPTION_TAG_VALUE.equals(exception)) {
+      return "SUCCESS";
+    }
+    if (CLIENT_ERRORS.contains(exception)) {
+      return "CLIENT_ERROR";
+    }
+    return CONFLICTS.contains(exception) ? "CONFLICT" : "SERVER_ERROR";
+  }
+}
@@ -1,18 +1,55 @@
 package ru.practicum.shareit.request;
 
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
 import java.time.LocalDateTime;
-import lombok.Data;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 
 /**
- * TODO Sprint add-item-requests.
+ * Represents a request of a {@link User} for an {@link Item} that nobody offers yet. Other users
+ * answer the request by adding items that reference it.
+ * <p>
+ * This class is mapped to the "requests" table in the database.
  */
-@Data
+@Entity
+@Table(name = "requests")
+@NoArgsConstructor
+@AllArgsConstructor
+@Setter
+@Getter
+@EqualsAndHashCode
+@Builder
 public class ItemRequest {
 
-  private Long id; // уникальный идентификатор запроса
-  private String description; // текст запроса, содержащий описание требуемой вещи
-  private User requestor; // пользователь, создавший запрос
-  private LocalDateTime created; // дата и время создания запроса
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @Column(updatable = false, nullable = false)
+  private Long id;
+
+  @Column(name = "description", length = 1000, nullable = false)
+  private String description;
+
+  @ManyToOne(fetch = FetchType.LAZY, optional = false)
+  @JoinColumn(name = "requestor_id", updatable = false)
+  @ToString.Exclude
+  private User requestor;
+
+  @Column(name = "created", nullable = false, updatable = false)
+  private LocalDateTime created;
 
 }
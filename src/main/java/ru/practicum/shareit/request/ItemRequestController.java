@@ -1,13 +1,118 @@
 package ru.practicum.shareit.request;
 
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import java.net.URI;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import ru.practicum.shareit.item.dto.ItemShortDto;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestSuggestionDto;
+import ru.practicum.shareit.validation.Create;
 
 /**
- * TODO Sprint add-item-requests.
+ * REST controller for managing item requests. Provides endpoints for creating requests and for
+ * browsing the user's own requests and the requests of other users.
+ * <p>
+ * Lists are paginated by keyset: pass the ID of the last request of the previous page as
+ * {@code lastId} to get the next page. Suggestions pair open requests with matching available
+ * items of other users.
  */
 @RestController
 @RequestMapping(path = "/requests")
+@RequiredArgsConstructor
+@Slf4j
+@Validated
 public class ItemRequestController {
 
+  private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+  private final ItemRequestService itemRequestService;
+
+  @PostMapping
+  public ResponseEntity<ItemRequestDto> createRequest(
+      @RequestHeader(USER_ID_HEADER) Long userId,
+      @Validated(Create.class) @RequestBody ItemRequestDto request) {
+    log.info("Received request POST /requests for user with ID {}.", userId);
+    log.debug("Item request to create: {}.", request);
+    final ItemRequestDto requestCreated = itemRequestService.createRequest(userId, request);
+    final URI location = ServletUriComponentsBuilder
+        .fromCurrentRequest()
+        .path("/{id}")
+        .buildAndExpand(requestCreated.getId())
+        .toUri();
+    log.info("Item request created successfully with ID {}.", requestCreated.getId());
+    return ResponseEntity.created(location).body(requestCreated);
+  }
+
+  @GetMapping
+  public ResponseEntity<List<ItemRequestDto>> getUserRequests(
+      @RequestHeader(USER_ID_HEADER) Long userId,
+      @RequestParam(name = "lastId", required = false) @Positive Long lastId,
+      @RequestParam(name = "size", defaultValue = "20") @Positive @Max(100) int size) {
+    log.info("Received request GET /requests?lastId={}&size={} from user with ID {}.", lastId,
+        size, userId);
+    final List<ItemRequestDto> requests =
+        itemRequestService.getUserRequests(userId, lastId, size);
+    log.info("Returning {} requests of user {}.", requests.size(), userId);
+    return ResponseEntity.ok(requests);
+  }
+
+  @GetMapping("/all")
+  public ResponseEntity<List<ItemRequestDto>> getOtherUsersRequests(
+      @RequestHeader(USER_ID_HEADER) Long userId,
+      @RequestParam(name = "lastId", required = false) @Positive Long lastId,
+      @RequestParam(name = "size", defaultValue = "20") @Positive @Max(100) int size) {
+    log.info("Received request GET /requests/all?lastId={}&size={} from user with ID {}.",
+        lastId, size, userId);
+    final List<ItemRequestDto> requests =
+        itemRequestService.getOtherUsersRequests(userId, lastId, size);
+    log.info("Returning {} requests of other users for user {}.", requests.size(), userId);
+    return ResponseEntity.ok(requests);
+  }
+
+  @GetMapping("/suggestions")
+  public ResponseEntity<List<ItemRequestSuggestionDto>> getSuggestedRequests(
+      @RequestHeader(USER_ID_HEADER) Long userId) {
+    log.info("Received request GET /requests/suggestions from user with ID {}.", userId);
+    final List<ItemRequestSuggestionDto> suggestions =
+        itemRequestService.getSuggestedRequests(userId);
+    log.info("Returning {} requests matching items of user {}.", suggestions.size(), userId);
+    return ResponseEntity.ok(suggestions);
+  }
+
+  @GetMapping("/{requestId}/suggestions")
+  public ResponseEntity<List<ItemShortDto>> getSuggestedItems(
+      @RequestHeader(USER_ID_HEADER) Long userId,
+      @PathVariable("requestId") @NotNull @Positive Long requestId) {
+    log.info("Received request GET /requests/{}/suggestions from user with ID {}.", requestId,
+        userId);
+    final List<ItemShortDto> items = itemRequestService.getSuggestedItems(requestId, userId);
+    log.info("Returning {} items suggested for request {}.", items.size(), requestId);
+    return ResponseEntity.ok(items);
+  }
+
+  @GetMapping("/{requestId}")
+  public ResponseEntity<ItemRequestDto> getRequestById(
+      @RequestHeader(USER_ID_HEADER) Long userId,
+      @PathVariable("requestId") @NotNull @Positive Long requestId) {
+    log.info("Received request GET /requests/{} from user with ID {}.", requestId, userId);
+    final ItemRequestDto request = itemRequestService.getRequestById(requestId, userId);
+    log.info("Returning item request ID {}.", request.getId());
+    log.debug("Item request data: {}.", request);
+    return ResponseEntity.ok(request);
+  }
+
 }
@@ -0,0 +1,54 @@
+package ru.practicum.shareit.request;
+
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+/**
+ * A repository interface for managing {@link ItemRequest} persistence and retrieval operations.
+ * <p>
+ * Both feeds use keyset pagination: a page is the {@link Limit} newest requests whose ID is lower
+ * than the last ID of the previous page, so the cost of a page does not grow with its depth.
+ * <ul>
+ *   <li>{@link #findAllByRequestorIdAndIdLessThanOrderByIdDesc(Long, Long, Limit)}: Retrieves a page of requests created by the user.</li>
+ *   <li>{@link #findAllByRequestorIdNotAndIdLessThanOrderByIdDesc(Long, Long, Limit)}: Retrieves a page of requests created by other users.</li>
+ *   <li>{@link #findAllOpen(Pageable)}: Retrieves a slice of the requests nobody has added an item for yet.</li>
+ *   <li>{@link #findIdsByRequestorId(Long, Limit)}: Retrieves the IDs of a batch of requests created by a deleted user.</li>
+ *   <li>{@link #deleteAllByIdIn(Collection)}: Deletes a batch of requests by their IDs; items added for them stay, without a request.</li>
+ * </ul>
+ *
+ * @see ItemRequest
+ * @see JpaRepository
+ */
+public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
+
+  List<ItemRequest> findAllByRequestorIdAndIdLessThanOrderByIdDesc(
+      Long requestorId, Long lastId, Limit limit);
+
+  List<ItemRequest> findAllByRequestorIdNotAndIdLessThanOrderByIdDesc(
+      Long requestorId, Long lastId, Limit limit);
+
+  @Query("""
+      select r
+      from ItemRequest as r
+      where not exists (select it.id from Item as it where it.request = r)
+      """)
+  Slice<ItemRequest> findAllOpen(Pageable pageable);
+
+  @Query("""
+      select r.id
+      from ItemRequest as r
+      where r.requestor.id = :requestorId
+      """)
+  List<Long> findIdsByRequestorId(@Param("requestorId") Long requestorId, Limit limit);
+
+  @Modifying
+  @Query("delete from ItemRequest as r where r.id in :requestIds")
+  int deleteAllByIdIn(@Param("requestIds") Collection<Long> requestIds);
+}
@@ -0,0 +1,38 @@
+package ru.practicum.shareit.request;
+
+import java.util.List;
+import ru.practicum.shareit.item.dto.ItemShortDto;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestSuggestionDto;
+
+/**
+ * A service interface for managing item requests and the items added in answer to them.
+ * <ul>
+ *   <li>{@link #createRequest(Long, ItemRequestDto)}: Creates a new {@link ItemRequest} of the user.</li>
+ *   <li>{@link #getUserRequests(Long, Long, int)}: Retrieves a page of the user's own requests with their answering items, newest first.</li>
+ *   <li>{@link #getOtherUsersRequests(Long, Long, int)}: Retrieves a page of requests created by other users with their answering items, newest first.</li>
+ *   <li>{@link #getRequestById(Long, Long)}: Retrieves a single request with its answering items.</li>
+ *   <li>{@link #getSuggestedItems(Long, Long)}: Retrieves available items of other users that match the request.</li>
+ *   <li>{@link #getSuggestedRequests(Long)}: Retrieves open requests of other users that match the user's items.</li>
+ *   <li>{@link #getRequestOrThrow(Long)}: Retrieves the {@link ItemRequest} entity, throwing an exception if it does not exist.</li>
+ * </ul>
+ *
+ * @see ItemRequestDto
+ * @see ItemRequestServiceImpl
+ */
+public interface ItemRequestService {
+
+  ItemRequestDto createRequest(Long userId, ItemRequestDto requestDto);
+
+  List<ItemRequestDto> getUserRequests(Long userId, Long lastId, int size);
+
+  List<ItemRequestDto> getOtherUsersRequests(Long userId, Long lastId, int size);
+
+  ItemRequestDto getRequestById(Long requestId, Long userId);
+
+  List<ItemShortDto> getSuggestedItems(Long requestId, Long userId);
+
+  List<ItemRequestSuggestionDto> getSuggestedRequests(Long userId);
+
+  ItemRequest getRequestOrThrow(Long requestId);
+}
@@ -0,0 +1,168 @@
+package ru.practicum.shareit.request;
+
+import io.micrometer.core.annotation.Timed;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemMapper;
+import ru.practicum.shareit.item.dto.ItemShortDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.metrics.MetricsConfig;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestMapper;
+import ru.practicum.shareit.request.dto.ItemRequestSuggestionDto;
+import ru.practicum.shareit.request.matching.ItemRequestMatcher;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.model.User;
+
+/**
+ * Service implementation class for managing item requests.
+ * <p>
+ * Pages of requests are loaded by keyset, and the answering items of the whole page are loaded
+ * with one {@code IN} query. Suggestions come from the in-memory {@link ItemRequestMatcher}, and
+ * only the suggested rows are loaded from the database.
+ *
+ * @see ItemRequest
+ * @see ItemRequestDto
+ * @see ItemRequestRepository
+ */
+@Service
+@Timed(MetricsConfig.SERVICE_TIMER)
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+public class ItemRequestServiceImpl implements ItemRequestService {
+
+  private final ItemRequestRepository itemRequestRepository;
+  private final ItemRepository itemRepository;
+  private final UserService userService;
+  private final ItemRequestMatcher itemRequestMatcher;
+
+  @Override
+  @Transactional
+  public ItemRequestDto createRequest(final Long userId, final ItemRequestDto requestDto) {
+    log.debug("Persisting a new item request {} for user with ID {}.", requestDto, userId);
+    final User requestor = userService.getByIdOrThrow(userId);
+    final ItemRequest saved = itemRequestRepository.save(
+        ItemRequestMapper.mapToItemRequest(requestDto, requestor, LocalDateTime.now()));
+    itemRequestMatcher.onRequestCreated(saved);
+    return ItemRequestMapper.mapToItemRequestDto(saved, Collections.emptyList());
+  }
+
+  @Override
+  public List<ItemRequestDto> getUserRequests(final Long userId, final Long lastId,
+                                              final int size) {
+    log.debug("Fetching {} requests of user ID {} created before request ID {}.", size, userId,
+        lastId);
+    userService.validateUserExist(userId);
+    return withItems(itemRequestRepository.findAllByRequestorIdAndIdLessThanOrderByIdDesc(
+        userId, keyOf(lastId), Limit.of(size)));
+  }
+
+  @Override
+  public List<ItemRequestDto> getOtherUsersRequests(final Long userId, final Long lastId,
+                                                    final int size) {
+    log.debug("Fetching {} requests of users other than ID {} created before request ID {}.",
+        size, userId, lastId);
+    userService.validateUserExist(userId);
+    return withItems(itemRequestRepository.findAllByRequestorIdNotAndIdLessThanOrderByIdDesc(
+        userId, keyOf(lastId), Limit.of(size)));
+  }
+
+  @Override
+  public ItemRequestDto getRequestById(final Long requestId, final Long userId) {
+    log.debug("Fetching request ID {} for user ID {}.", requestId, userId);
+    userService.validateUserExist(userId);
+    return withItems(List.of(getRequestOrThrow(requestId))).getFirst();
+  }
+
+  @Override
+  public List<ItemShortDto> getSuggestedItems(final Long requestId, final Long userId) {
+    log.debug("Fetching items suggested for request ID {} to user ID {}.", requestId, userId);
+    userService.validateUserExist(userId);
+    final ItemRequest request = getRequestOrThrow(requestId);
+    final Long requestorId = request.getRequestor().getId();
+
+    final List<Long> suggestedIds = itemRequestMatcher.getSuggestedItemIds(requestId);
+    if (suggestedIds.isEmpty()) {
+      return Collections.emptyList();
+    }
+    final Map<Long, Item> items = itemRepository.findAllById(suggestedIds)
+        .stream()
+        .filter(Item::isAvailable)
+        .filter(item -> !item.getOwner().getId().equals(requestorId))
+        .collect(Collectors.toMap(Item::getId, Function.identity()));
+    return suggestedIds.stream()
+        .map(items::get)
+        .filter(Objects::nonNull)
+        .map(ItemMapper::mapToItemShortDto)
+        .toList();
+  }
+
+  @Override
+  public List<ItemRequestSuggestionDto> getSuggestedRequests(final Long userId) {
+    log.debug("Fetching open requests matching items of user ID {}.", userId);
+    userService.validateUserExist(userId);
+
+    final Map<Long, Item> ownerItems = itemRepository.findAllByOwnerIdOrderById(userId)
+        .stream()
+        .collect(Collectors.toMap(Item::getId, Function.identity()));
+    final Map<Long, List<Long>> suggestions =
+        itemRequestMatcher.getSuggestedRequestIds(ownerItems.keySet());
+    if (suggestions.isEmpty()) {
+      return Collections.emptyList();
+    }
+    return itemRequestRepository.findAllById(suggestions.keySet())
+        .stream()
+        .filter(request -> !request.getRequestor().getId().equals(userId))
+        .sorted(Comparator.comparing(ItemRequest::getId).reversed())
+        .map(request -> ItemRequestMapper.mapToSuggestionDto(request,
+            suggestions.get(request.getId()).stream()
+                .map(ownerItems::get)
+                .map(ItemMapper::mapToItemShortDto)
+                .toList()))
+        .toList();
+  }
+
+  @Override
+  public ItemRequest getRequestOrThrow(final Long requestId) {
+    return itemRequestRepository.findById(requestId)
+        .orElseThrow(() -> {
+          log.warn("Fail to get item request with ID {} from DB.", requestId);
+          return new NotFoundException("Item request not found.");
+        });
+  }
+
+  private List<ItemRequestDto> withItems(final List<ItemRequest> requests) {
+    if (requests.isEmpty()) {
+      return Collections.emptyList();
+    }
+    final Map<Long, List<ItemShortDto>> itemsByRequest =
+        itemRepository.findAllByRequestIdIn(requests.stream()
+                .map(ItemRequest::getId)
+                .toList())
+            .stream()
+            .collect(Collectors.groupingBy(item -> item.getRequest().getId(),
+                Collectors.mapping(ItemMapper::mapToItemShortDto, Collectors.toList())));
+    return requests.stream()
+        .map(request -> ItemRequestMapper.mapToItemRequestDto(request,
+            itemsByRequest.get(request.getId())))
+        .toList();
+  }
+
+  private Long keyOf(final Long lastId) {
+    return lastId == null ? Long.MAX_VALUE : lastId;
+  }
+}
@@ -1,8 +1,40 @@
 package ru.practicum.shareit.request.dto;
 
+import com.fasterxml.jackson.annotation.JsonFormat;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Null;
+import jakarta.validation.constraints.Size;
+import java.time.LocalDateTime;
+import java.util.List;
+import lombok.Builder;
+import lombok.Data;
+import lombok.experimental.Accessors;
+import ru.practicum.shareit.item.dto.ItemShortDto;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.validation.Create;
+
 /**
- * TODO Sprint add-item-requests.
+ * Data Transfer Object representing an Item Request together with the items added in answer to
+ * it.
+ *
+ * @see ItemRequest
+ * @see ItemRequestMapper
  */
+@Data
+@Builder
+@Accessors(chain = true)
 public class ItemRequestDto {
 
+  @Null(groups = Create.class, message = "Id should be null for the request to be created.")
+  private Long id;
+
+  @NotBlank(groups = Create.class, message = "Description can not be blank.")
+  @Size(max = 1000, groups = Create.class, message = "Description is too long.")
+  private String description;
+
+  @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss.SSS")
+  private LocalDateTime created;
+
+  private List<ItemShortDto> items;
+
 }
@@ -0,0 +1,54 @@
+package ru.practicum.shareit.request.dto;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import lombok.experimental.UtilityClass;
+import ru.practicum.shareit.item.dto.ItemShortDto;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+
+/**
+ * Utility class for mapping between {@link ItemRequest} entities and {@link ItemRequestDto}.
+ * <ul>
+ *   <li>{@link #mapToItemRequest(ItemRequestDto, User, LocalDateTime)}: Maps an {@link ItemRequestDto} to an {@link ItemRequest} entity.</li>
+ *   <li>{@link #mapToItemRequestDto(ItemRequest, List)}: Maps an {@link ItemRequest} entity to an {@link ItemRequestDto} with its answering items.</li>
+ *   <li>{@link #mapToSuggestionDto(ItemRequest, List)}: Maps an {@link ItemRequest} entity to an {@link ItemRequestSuggestionDto} with the matching items of an owner.</li>
+ * </ul>
+ */
+@UtilityClass
+public class ItemRequestMapper {
+
+  public ItemRequest mapToItemRequest(final ItemRequestDto requestDto, final User requestor,
+                                      final LocalDateTime created) {
+    Objects.requireNonNull(requestDto, "ItemRequestDto cannot be null.");
+    return ItemRequest.builder()
+        .description(requestDto.getDescription())
+        .requestor(requestor)
+        .created(created)
+        .build();
+  }
+
+  public ItemRequestDto mapToItemRequestDto(final ItemRequest request,
+                                            final List<ItemShortDto> items) {
+    Objects.requireNonNull(request, "ItemRequest cannot be null.");
+    return ItemRequestDto.builder()
+        .id(request.getId())
+        .description(request.getDescription())
+        .created(request.getCreated())
+        .items(items == null ? Collections.emptyList() : items)
+        .build();
+  }
+
+  public ItemRequestSuggestionDto mapToSuggestionDto(final ItemRequest request,
+                                                     final List<ItemShortDto> matchingItems) {
+    Objects.requireNonNull(request, "ItemRequest cannot be null.");
+    return ItemRequestSuggestionDto.builder()
+        .id(request.getId())
+        .description(request.getDescription())
+        .created(request.getCreated())
+        .matchingItems(matchingItems)
+        .build();
+  }
+}
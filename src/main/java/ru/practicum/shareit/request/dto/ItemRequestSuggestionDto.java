@@ -0,0 +1,31 @@
+package ru.practicum.shareit.request.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import java.time.LocalDateTime;
+import java.util.List;
+import lombok.Builder;
+import lombok.Data;
+import ru.practicum.shareit.item.dto.ItemShortDto;
+import ru.practicum.shareit.request.ItemRequest;
+
+/**
+ * Data Transfer Object representing an open Item Request suggested to an item owner, together with
+ * the owner's items that match it.
+ *
+ * @see ItemRequest
+ * @see ItemRequestMapper
+ */
+@Data
+@Builder
+public class ItemRequestSuggestionDto {
+
+  private Long id;
+
+  private String description;
+
+  @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss.SSS")
+  private LocalDateTime created;
+
+  private List<ItemShortDto> matchingItems;
+
+}
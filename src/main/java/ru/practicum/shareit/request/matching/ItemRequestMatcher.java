@@ -0,0 +1,272 @@
+package ru.practicum.shareit.request.matching;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.ItemRequestRepository;
+
+/**
+ * Matches available items against open item requests and keeps the resulting suggestions in
+ * memory.
+ * <p>
+ * Item names and descriptions and open request descriptions are kept in two {@link TokenIndex}
+ * instances. A newly saved item is searched in the request index, and a newly created request is
+ * searched in the item index, so every event costs one index lookup instead of a scan of the other
+ * table. A request is open until an item is added in answer to it. The indexes are rebuilt from the
+ * database on startup and then maintained incrementally; the changes of a save are applied after its
+ * transaction has committed, so a rollback leaves the indexes untouched.
+ * <ul>
+ *   <li>{@link #onItemSaved(Item)}: Indexes a new item and matches it against open requests.</li>
+ *   <li>{@link #onItemUpdated(Item)}: Re-indexes a changed item and recomputes its matches.</li>
+ *   <li>{@link #onRequestCreated(ItemRequest)}: Indexes a new request and matches it against available items.</li>
+ *   <li>{@link #onItemsRemoved(Collection)}, {@link #onRequestsRemoved(Collection)}: Drop withdrawn or deleted items and deleted requests.</li>
+ *   <li>{@link #getSuggestedItemIds(Long)}: Returns the IDs of items suggested for a request.</li>
+ *   <li>{@link #getSuggestedRequestIds(Collection)}: Returns the open requests suggested for any of the given items.</li>
+ * </ul>
+ *
+ * @see TokenIndex
+ */
+@Component
+@Slf4j
+public class ItemRequestMatcher {
+
+  private static final int REBUILD_PAGE_SIZE = 1000;
+
+  private final ItemRepository itemRepository;
+  private final ItemRequestRepository itemRequestRepository;
+  private final int maxSuggestions;
+
+  private final TokenIndex itemIndex = new TokenIndex();
+  private final TokenIndex requestIndex = new TokenIndex();
+  private final Map<Long, Set<Long>> itemsByRequest = new HashMap<>();
+  private final Map<Long, Set<Long>> requestsByItem = new HashMap<>();
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+  public ItemRequestMatcher(
+      final ItemRepository itemRepository,
+      final ItemRequestRepository itemRequestRepository,
+      @Value("${shareit.requests.max-suggestions:20}") final int maxSuggestions) {
+    this.itemRepository = itemRepository;
+    this.itemRequestRepository = itemRequestRepository;
+    this.maxSuggestions = maxSuggestions;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void rebuild() {
+    log.debug("Rebuilding item request matching indexes from the database.");
+    lock.writeLock().lock();
+    try {
+      forEachPage(itemRepository::findAllByAvailableTrue,
+          item -> itemIndex.put(item.getId(), textOf(item)));
+      forEachPage(itemRequestRepository::findAllOpen, request -> {
+        requestIndex.put(request.getId(), request.getDescription());
+        itemIndex.search(request.getDescription(), maxSuggestions)
+            .forEach(itemId -> addSuggestion(request.getId(), itemId));
+      });
+    } finally {
+      lock.writeLock().unlock();
+    }
+    log.info("Item request matching indexes rebuilt: {} items, {} open requests.",
+        itemIndex.size(), requestIndex.size());
+  }
+
+  public void onItemSaved(final Item item) {
+    final Long itemId = item.getId();
+    final String text = item.isAvailable() ? textOf(item) : null;
+    final Long requestId = item.getRequest() == null ? null : item.getRequest().getId();
+    afterCommit(() -> {
+      lock.writeLock().lock();
+      try {
+        if (requestId != null) {
+          closeRequest(requestId);
+        }
+        indexItem(itemId, text);
+      } finally {
+        lock.writeLock().unlock();
+      }
+    });
+  }
+
+  public void onItemUpdated(final Item item) {
+    final Long itemId = item.getId();
+    final String text = item.isAvailable() ? textOf(item) : null;
+    afterCommit(() -> {
+      lock.writeLock().lock();
+      try {
+        removeItem(itemId);
+        indexItem(itemId, text);
+      } finally {
+        lock.writeLock().unlock();
+      }
+    });
+  }
+
+  public void onRequestCreated(final ItemRequest request) {
+    final Long requestId = request.getId();
+    final String description = request.getDescription();
+    afterCommit(() -> {
+      lock.writeLock().lock();
+      try {
+        requestIndex.put(requestId, description);
+        final List<Long> matches = itemIndex.search(description, maxSuggestions);
+        matches.forEach(itemId -> addSuggestion(requestId, itemId));
+        log.debug("Request ID {} matched {} available items.", requestId, matches.size());
+      } finally {
+        lock.writeLock().unlock();
+      }
+    });
+  }
+
+  /**
+   * Drops items that were withdrawn from renting or deleted in bulk, e.g. those of a deleted
+   * user.
+   */
+  public void onItemsRemoved(final Collection<Long> itemIds) {
+    final List<Long> removed = List.copyOf(itemIds);
+    afterCommit(() -> {
+      lock.writeLock().lock();
+      try {
+        removed.forEach(this::removeItem);
+      } finally {
+        lock.writeLock().unlock();
+      }
+    });
+  }
+
+  /**
+   * Drops deleted requests together with their suggestions.
+   */
+  public void onRequestsRemoved(final Collection<Long> requestIds) {
+    final List<Long> removed = List.copyOf(requestIds);
+    afterCommit(() -> {
+      lock.writeLock().lock();
+      try {
+        removed.forEach(this::closeRequest);
+      } finally {
+        lock.writeLock().unlock();
+      }
+    });
+  }
+
+  public List<Long> getSuggestedItemIds(final Long requestId) {
+    lock.readLock().lock();
+    try {
+      final Set<Long> itemIds = itemsByRequest.get(requestId);
+      return itemIds == null ? Collections.emptyList() : List.copyOf(itemIds);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Returns the open requests suggested for any of the given items, mapped to the matching item
+   * IDs.
+   */
+  public Map<Long, List<Long>> getSuggestedRequestIds(final Collection<Long> itemIds) {
+    final Map<Long, List<Long>> result = new LinkedHashMap<>();
+    lock.readLock().lock();
+    try {
+      for (Long itemId : itemIds) {
+        for (Long requestId : requestsByItem.getOrDefault(itemId, Collections.emptySet())) {
+          result.computeIfAbsent(requestId, id -> new ArrayList<>()).add(itemId);
+        }
+      }
+    } finally {
+      lock.readLock().unlock();
+    }
+    return result;
+  }
+
+  /**
+   * Indexes an available item; {@code text} is {@code null} for an unavailable one.
+   */
+  private void indexItem(final Long itemId, final String text) {
+    if (text == null) {
+      return;
+    }
+    itemIndex.put(itemId, text);
+    final List<Long> matches = requestIndex.search(text, maxSuggestions);
+    matches.forEach(requestId -> addSuggestion(requestId, itemId));
+    log.debug("Item ID {} matched {} open requests.", itemId, matches.size());
+  }
+
+  /**
+   * Applies an index change once the current transaction has committed, so a rolled back save
+   * leaves no suggestions behind. Without a transaction the change is applied at once.
+   */
+  private void afterCommit(final Runnable change) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      change.run();
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        change.run();
+      }
+    });
+  }
+
+  private void removeItem(final Long itemId) {
+    final Set<Long> requestIds = requestsByItem.remove(itemId);
+    if (requestIds != null) {
+      requestIds.forEach(requestId -> itemsByRequest.get(requestId).remove(itemId));
+    }
+    itemIndex.remove(itemId);
+  }
+
+  private void closeRequest(final Long requestId) {
+    requestIndex.remove(requestId);
+    final Set<Long> itemIds = itemsByRequest.remove(requestId);
+    if (itemIds != null) {
+      itemIds.forEach(itemId -> requestsByItem.get(itemId).remove(requestId));
+    }
+  }
+
+  private void addSuggestion(final Long requestId, final Long itemId) {
+    final Set<Long> items = itemsByRequest.computeIfAbsent(requestId, id -> new LinkedHashSet<>());
+    final Set<Long> requests = requestsByItem.computeIfAbsent(itemId, id -> new LinkedHashSet<>());
+    if (items.size() < maxSuggestions && requests.size() < maxSuggestions) {
+      items.add(itemId);
+      requests.add(requestId);
+    }
+  }
+
+  private String textOf(final Item item) {
+    return item.getName() + " " + item.getDescription();
+  }
+
+  private <T> void forEachPage(final Function<Pageable, Slice<T>> query,
+                               final Consumer<T> action) {
+    Pageable page = PageRequest.of(0, REBUILD_PAGE_SIZE, Sort.by("id"));
+    Slice<T> slice;
+    do {
+      slice = query.apply(page);
+      slice.forEach(action);
+      page = slice.nextPageable();
+    } while (slice.hasNext());
+  }
+}
@@ -0,0 +1,108 @@
+package ru.practicum.shareit.request.matching;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An incremental inverted index from normalized text tokens to document IDs.
+ * <p>
+ * Documents are added, replaced and removed one at a time, and a search only visits the posting
+ * lists of the query tokens, so its cost depends on the query and not on the number of indexed
+ * documents. Hits are ranked by the sum of the inverse document frequencies of the shared tokens,
+ * which favours rare, specific words over common ones.
+ * <p>
+ * This class is not thread-safe; callers guard access.
+ *
+ * @see ItemRequestMatcher
+ */
+public class TokenIndex {
+
+  private static final int MIN_TOKEN_LENGTH = 3;
+  private static final Set<String> STOP_WORDS = Set.of(
+      "the", "and", "for", "with", "need", "needs", "want", "looking", "any", "some", "that",
+      "this", "who", "has", "have", "can", "please", "нужен", "нужна", "нужно", "нужны", "для",
+      "кто", "есть", "ищу", "или", "как", "что", "это");
+
+  private final Map<String, Set<Long>> postings = new HashMap<>();
+  private final Map<Long, Set<String>> documents = new HashMap<>();
+
+  /**
+   * Indexes the document, replacing its previous text if it is already indexed.
+   */
+  public void put(final long id, final String text) {
+    remove(id);
+    final Set<String> tokens = tokenize(text);
+    if (tokens.isEmpty()) {
+      return;
+    }
+    documents.put(id, tokens);
+    tokens.forEach(token -> postings.computeIfAbsent(token, t -> new HashSet<>()).add(id));
+  }
+
+  public void remove(final long id) {
+    final Set<String> tokens = documents.remove(id);
+    if (tokens == null) {
+      return;
+    }
+    for (String token : tokens) {
+      final Set<Long> ids = postings.get(token);
+      ids.remove(id);
+      if (ids.isEmpty()) {
+        postings.remove(token);
+      }
+    }
+  }
+
+  public boolean contains(final long id) {
+    return documents.containsKey(id);
+  }
+
+  public int size() {
+    return documents.size();
+  }
+
+  /**
+   * Returns up to {@code limit} IDs of documents sharing at least one token with the text, best
+   * matches first.
+   */
+  public List<Long> search(final String text, final int limit) {
+    final Set<String> tokens = tokenize(text);
+    if (tokens.isEmpty() || documents.isEmpty()) {
+      return Collections.emptyList();
+    }
+    final Map<Long, Double> scores = new HashMap<>();
+    for (String token : tokens) {
+      final Set<Long> ids = postings.get(token);
+      if (ids == null) {
+        continue;
+      }
+      final double idf = Math.log(1.0 + (double) documents.size() / ids.size());
+      ids.forEach(id -> scores.merge(id, idf, Double::sum));
+    }
+    return scores.entrySet().stream()
+        .sorted(Map.Entry.<Long, Double>comparingByValue(Comparator.reverseOrder())
+            .thenComparing(Map.Entry.comparingByKey(Comparator.reverseOrder())))
+        .limit(limit)
+        .map(Map.Entry::getKey)
+        .toList();
+  }
+
+  static Set<String> tokenize(final String text) {
+    if (text == null || text.isBlank()) {
+      return Collections.emptySet();
+    }
+    final Set<String> tokens = new HashSet<>();
+    for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+      if (token.length() >= MIN_TOKEN_LENGTH && !STOP_WORDS.contains(token)) {
+        tokens.add(token);
+      }
+    }
+    return tokens;
+  }
+}
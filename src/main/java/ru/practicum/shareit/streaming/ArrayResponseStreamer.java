@@ -0,0 +1,135 @@
+package ru.practicum.shareit.streaming;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+import org.springframework.web.accept.ContentNegotiationManager;
+import org.springframework.web.context.request.ServletWebRequest;
+import ru.practicum.shareit.fields.FieldSet;
+import ru.practicum.shareit.fields.FieldSetResponseAdvice;
+
+/**
+ * Writes an array response element by element, so that a list response never has to be held in
+ * memory in full. The format is negotiated from the {@code Accept} header among the Jackson
+ * message converters, i.e. JSON, CBOR or Smile, and the elements are serialized like a returned
+ * list would be, including the {@code fields} filter of {@link FieldSetResponseAdvice}.
+ * <p>
+ * Nothing is written before the first element, so an exception thrown before it, e.g. by a
+ * validation, still becomes a regular error response. An exception after it truncates the
+ * response.
+ */
+@Component
+public class ArrayResponseStreamer {
+
+  private final List<Format> formats = new ArrayList<>();
+  private final List<MediaType> supportedMediaTypes = new ArrayList<>();
+  private final ContentNegotiationManager contentNegotiationManager;
+
+  public ArrayResponseStreamer(final HttpMessageConverters messageConverters,
+                               final ContentNegotiationManager contentNegotiationManager) {
+    this.contentNegotiationManager = contentNegotiationManager;
+    messageConverters.getConverters().stream()
+        .filter(AbstractJackson2HttpMessageConverter.class::isInstance)
+        .map(AbstractJackson2HttpMessageConverter.class::cast)
+        .forEach(converter -> {
+          formats.add(new Format(converter.getSupportedMediaTypes(), converter.getObjectMapper()
+              .writer()
+              .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)));
+          supportedMediaTypes.addAll(converter.getSupportedMediaTypes());
+        });
+  }
+
+  /**
+   * Writes the elements {@code producer} hands over to its argument as the array body of the
+   * response of {@code request}.
+   *
+   * @return the number of elements written
+   * @throws HttpMediaTypeNotAcceptableException if no format matches the {@code Accept} header
+   */
+  public <T> int write(final ServletWebRequest request, final Consumer<Consumer<T>> producer)
+      throws IOException, HttpMediaTypeNotAcceptableException {
+    final List<MediaType> accepted =
+        new ArrayList<>(contentNegotiationManager.resolveMediaTypes(request));
+    MimeTypeUtils.sortBySpecificity(accepted);
+    for (MediaType acceptedType : accepted) {
+      for (Format format : formats) {
+        for (MediaType supportedType : format.mediaTypes()) {
+          if (supportedType.isConcrete() && acceptedType.isCompatibleWith(supportedType)) {
+            return write(request, supportedType, format.writer(), producer);
+          }
+        }
+      }
+    }
+    throw new HttpMediaTypeNotAcceptableException(supportedMediaTypes);
+  }
+
+  private <T> int write(final ServletWebRequest request, final MediaType contentType,
+                        final ObjectWriter writer, final Consumer<Consumer<T>> producer)
+      throws IOException {
+    final String fields = request.getParameter(FieldSet.PARAMETER);
+    final Output output = new Output(request, contentType,
+        fields == null ? writer : writer.with(FieldSetResponseAdvice.filters(fields)));
+    try {
+      producer.accept(output::write);
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+    output.finish();
+    return output.count;
+  }
+
+  private record Format(List<MediaType> mediaTypes, ObjectWriter writer) {
+  }
+
+  private static final class Output {
+
+    private final ServletWebRequest request;
+    private final MediaType contentType;
+    private final ObjectWriter writer;
+    private JsonGenerator generator;
+    private int count;
+
+    private Output(final ServletWebRequest request, final MediaType contentType,
+                   final ObjectWriter writer) {
+      this.request = request;
+      this.contentType = contentType;
+      this.writer = writer;
+    }
+
+    private void write(final Object element) {
+      try {
+        start();
+        writer.writeValue(generator, element);
+        count++;
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+
+    private void finish() throws IOException {
+      start();
+      generator.writeEndArray();
+      generator.close();
+    }
+
+    private void start() throws IOException {
+      if (generator == null) {
+        request.getResponse().setContentType(contentType.toString());
+        generator = writer.createGenerator(request.getResponse().getOutputStream())
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.writeStartArray();
+      }
+    }
+  }
+}
@@ -0,0 +1,110 @@
+package ru.practicum.shareit.streaming;
+
+import jakarta.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import org.springframework.stereotype.Component;
+
+/**
+ * Consumes rows of repository methods returning a {@link Stream} with flat memory use. Rows are
+ * handed over in batches of {@value #BATCH_SIZE}, and the persistence context is cleared after
+ * every batch, so entities read earlier can be garbage collected. The database cursor is fetched
+ * in rounds of the same size: streaming repository methods declare
+ * {@code @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = FETCH_SIZE))},
+ * without it the PostgreSQL driver reads the whole result before the first row.
+ * <p>
+ * The caller must run in a transaction, which keeps the connection of the cursor open, and must
+ * not hold on to entities of a batch after it has been handed over; mapping them to DTOs is safe.
+ */
+@Component
+public class StreamingReads {
+
+  public static final int BATCH_SIZE = 100;
+  public static final String FETCH_SIZE = "" + BATCH_SIZE;
+
+  private final EntityManager entityManager;
+
+  public StreamingReads(final EntityManager entityManager) {
+    this.entityManager = entityManager;
+  }
+
+  /**
+   * Hands {@code rows} over to {@code action} one by one and closes the stream.
+   */
+  public <T> void forEach(final Stream<T> rows, final Consumer<? super T> action) {
+    forEachBatch(rows, batch -> batch.forEach(action));
+  }
+
+  /**
+   * Hands {@code rows} over to {@code action} in batches of {@value #BATCH_SIZE} and closes the
+   * stream.
+   */
+  public <T> void forEachBatch(final Stream<T> rows, final Consumer<List<T>> action) {
+    try (rows) {
+      final Iterator<T> iterator = rows.iterator();
+      final List<T> batch = new ArrayList<>(BATCH_SIZE);
+      while (iterator.hasNext()) {
+        batch.add(iterator.next());
+        if (batch.size() == BATCH_SIZE || !iterator.hasNext()) {
+          action.accept(List.copyOf(batch));
+          batch.clear();
+          entityManager.clear();
+        }
+      }
+    }
+  }
+
+  /**
+   * Merges two streams that are both sorted by {@code comparator} into one sorted stream, reading
+   * each of them only as far as needed. Closing the result closes both streams.
+   */
+  public static <T> Stream<T> mergeSorted(final Stream<T> first, final Stream<T> second,
+                                          final Comparator<? super T> comparator) {
+    final Iterator<T> merged = new Iterator<>() {
+      private final Iterator<T> left = first.iterator();
+      private final Iterator<T> right = second.iterator();
+      private T nextLeft;
+      private T nextRight;
+
+      @Override
+      public boolean hasNext() {
+        return nextLeft != null || nextRight != null || left.hasNext() || right.hasNext();
+      }
+
+      @Override
+      public T next() {
+        if (nextLeft == null && left.hasNext()) {
+          nextLeft = left.next();
+        }
+        if (nextRight == null && right.hasNext()) {
+          nextRight = right.next();
+        }
+        if (nextLeft == null && nextRight == null) {
+          throw new NoSuchElementException();
+        }
+        final T result;
+        if (nextRight == null
+            || (nextLeft != null && comparator.compare(nextLeft, nextRight) <= 0)) {
+          result = nextLeft;
+          nextLeft = null;
+        } else {
+          result = nextRight;
+          nextRight = null;
+        }
+        return result;
+      }
+    };
+    return StreamSupport.stream(
+            Spliterators.spliteratorUnknownSize(merged, Spliterator.ORDERED), false)
+        .onClose(first::close)
+        .onClose(second::close);
+  }
+}
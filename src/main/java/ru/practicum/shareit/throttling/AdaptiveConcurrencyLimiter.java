@@ -0,0 +1,137 @@
+package ru.practicum.shareit.throttling;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.jdbc.SqlStatementCounter.SqlStatements;
+
+/**
+ * Caps the number of requests processed at once, with a limit that follows the database latency
+ * (additive increase, multiplicative decrease).
+ * <p>
+ * Every completed request that executed SQL statements is a sample of its mean JDBC time per
+ * statement. Samples are averaged twice, over about the last ten requests and over about the last
+ * thousand, starting as plain means, so the mix of cheap and expensive endpoints is part of both. A recent latency over
+ * {@code shareit.throttling.concurrency.tolerance} times the long-term one shrinks the limit by a
+ * tenth; otherwise a request grows it by one per limit requests, as long as at least half of the
+ * limit was in use, so an idle instance does not drift to the maximum. The limit stays between
+ * {@code min-limit} and {@code max-limit}. While it is reached, requests are rejected at once
+ * instead of queueing for a connection of the Hikari pool.
+ * <p>
+ * The limit and the averages are doubles kept in {@link AtomicLong}s and updated with
+ * compare-and-set; a lost update only drops a sample.
+ * <p>
+ * The samples come from {@link ru.practicum.shareit.jdbc.SqlStatementCounter}, which only counts
+ * through the datasource proxy, so the limiter is not created with
+ * {@code shareit.sql.proxy.enabled=false}: it would never adapt and only cap at
+ * {@code initial-limit}.
+ */
+@Component
+@ConditionalOnProperty(name = {"shareit.throttling.enabled", "shareit.sql.proxy.enabled"},
+    matchIfMissing = true)
+public class AdaptiveConcurrencyLimiter {
+
+  private static final double DECREASE = 0.9;
+  private static final double RECENT_WEIGHT = 0.1;
+  private static final double LONG_TERM_WEIGHT = 0.001;
+
+  private final double minLimit;
+  private final double maxLimit;
+  private final double tolerance;
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final AtomicLong limit;
+  private final AtomicLong recentNanos = new AtomicLong(Double.doubleToLongBits(0.0));
+  private final AtomicLong longTermNanos = new AtomicLong(Double.doubleToLongBits(0.0));
+  private final AtomicLong samples = new AtomicLong();
+
+  public AdaptiveConcurrencyLimiter(
+      final MeterRegistry registry,
+      @Value("${shareit.throttling.concurrency.initial-limit:20}") final int initialLimit,
+      @Value("${shareit.throttling.concurrency.min-limit:4}") final int minLimit,
+      @Value("${shareit.throttling.concurrency.max-limit:100}") final int maxLimit,
+      @Value("${shareit.throttling.concurrency.tolerance:2.0}") final double tolerance) {
+    if (minLimit < 1 || initialLimit < minLimit || maxLimit < initialLimit || tolerance <= 1.0) {
+      throw new IllegalArgumentException("Concurrency limits must satisfy "
+          + "1 <= min-limit <= initial-limit <= max-limit, and the tolerance must exceed 1.");
+    }
+    this.minLimit = minLimit;
+    this.maxLimit = maxLimit;
+    this.tolerance = tolerance;
+    this.limit = new AtomicLong(Double.doubleToLongBits(initialLimit));
+    Gauge.builder("shareit.throttling.concurrency.limit", this, AdaptiveConcurrencyLimiter::getLimit)
+        .description("Requests processed at once before new ones are rejected")
+        .register(registry);
+    Gauge.builder("shareit.throttling.concurrency.in_flight", inFlight, AtomicInteger::get)
+        .description("Requests processed at the moment")
+        .register(registry);
+  }
+
+  /**
+   * Admits a request unless the limit is reached. An admitted request must be
+   * {@linkplain #release(SqlStatements) released}.
+   */
+  public boolean tryAcquire() {
+    while (true) {
+      final int current = inFlight.get();
+      if (current >= getLimit()) {
+        return false;
+      }
+      if (inFlight.compareAndSet(current, current + 1)) {
+        return true;
+      }
+    }
+  }
+
+  /**
+   * Releases an admitted request and adapts the limit to the {@code statements} it executed.
+   */
+  public void release(final SqlStatements statements) {
+    final int busy = inFlight.getAndDecrement();
+    if (statements.count() == 0) {
+      return;
+    }
+    final double sample = (double) statements.nanos() / statements.count();
+    final long count = samples.incrementAndGet();
+    final double recent = average(recentNanos, sample, Math.max(RECENT_WEIGHT, 1.0 / count));
+    final double longTerm =
+        average(longTermNanos, sample, Math.max(LONG_TERM_WEIGHT, 1.0 / count));
+
+    final long limitBits = limit.get();
+    final double current = Double.longBitsToDouble(limitBits);
+    final double next;
+    if (recent > tolerance * longTerm) {
+      next = Math.max(minLimit, current * DECREASE);
+    } else if (2 * busy >= current) {
+      next = Math.min(maxLimit, current + 1.0 / current);
+    } else {
+      return;
+    }
+    limit.compareAndSet(limitBits, Double.doubleToLongBits(next));
+  }
+
+  public int getLimit() {
+    return (int) Double.longBitsToDouble(limit.get());
+  }
+
+  public int getInFlight() {
+    return inFlight.get();
+  }
+
+  /**
+   * Moves the exponential moving average in {@code average} towards {@code sample} and returns
+   * it. Until the weight has fallen to its minimum it is the mean of all samples, so the averages
+   * do not stick to the first, cold ones.
+   */
+  private static double average(final AtomicLong average, final double sample,
+                                final double weight) {
+    final long bits = average.get();
+    final double current = Double.longBitsToDouble(bits);
+    final double next = current + (sample - current) * weight;
+    average.compareAndSet(bits, Double.doubleToLongBits(next));
+    return next;
+  }
+}
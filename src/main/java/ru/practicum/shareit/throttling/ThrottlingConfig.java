@@ -0,0 +1,55 @@
+package ru.practicum.shareit.throttling;
+
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Registers the {@link ThrottlingInterceptor} for the controllers of the application. Every
+ * request costs one token of its user's bucket, except for the expensive reads: the substring
+ * search ({@code shareit.throttling.costs.search}) and the lists of an owner's items and bookings
+ * ({@code shareit.throttling.costs.owner-lists}). Throttling is switched off with
+ * {@code shareit.throttling.enabled=false}. Without the datasource proxy
+ * ({@code shareit.sql.proxy.enabled=false}) there is no {@link AdaptiveConcurrencyLimiter}; only
+ * the rate limit applies then, and a warning says so at startup.
+ */
+@Configuration
+@ConditionalOnProperty(name = "shareit.throttling.enabled", matchIfMissing = true)
+@Slf4j
+public class ThrottlingConfig implements WebMvcConfigurer {
+
+  private final UserRateLimiter rateLimiter;
+  private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+  private final Map<String, Integer> costs;
+
+  public ThrottlingConfig(
+      final UserRateLimiter rateLimiter,
+      final ObjectProvider<AdaptiveConcurrencyLimiter> concurrencyLimiter,
+      @Value("${shareit.throttling.costs.search:5}") final int searchCost,
+      @Value("${shareit.throttling.costs.owner-lists:3}") final int ownerListCost) {
+    if (Math.max(searchCost, ownerListCost) > rateLimiter.getBurst()) {
+      throw new IllegalArgumentException("An endpoint can not cost more than the burst.");
+    }
+    this.rateLimiter = rateLimiter;
+    this.concurrencyLimiter = concurrencyLimiter.getIfAvailable();
+    if (this.concurrencyLimiter == null) {
+      log.warn("The adaptive concurrency limit is off: it samples the SQL statements counted by "
+          + "the datasource proxy, and shareit.sql.proxy.enabled is false.");
+    }
+    this.costs = Map.of(
+        "GET /items/search", searchCost,
+        "GET /items", ownerListCost,
+        "GET /bookings/owner", ownerListCost);
+  }
+
+  @Override
+  public void addInterceptors(final InterceptorRegistry registry) {
+    registry.addInterceptor(
+        new ThrottlingInterceptor(rateLimiter, concurrencyLimiter, costs));
+  }
+}
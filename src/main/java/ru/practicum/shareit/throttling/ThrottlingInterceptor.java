@@ -0,0 +1,94 @@
+package ru.practicum.shareit.throttling;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.time.Duration;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import ru.practicum.shareit.exception.RateLimitExceededException;
+import ru.practicum.shareit.exception.ServiceOverloadedException;
+import ru.practicum.shareit.jdbc.SqlStatementCounter;
+
+/**
+ * Admits a request to a controller after its user has paid the cost of the endpoint to the
+ * {@link UserRateLimiter}, and while the {@link AdaptiveConcurrencyLimiter}, if there is one, has
+ * room for it.
+ * Rejections are thrown before the handler runs and answered by the
+ * {@link ru.practicum.shareit.exception.ErrorHandler}. Requests without a numeric
+ * {@value #USER_ID_HEADER} header are only subject to the concurrency limit; error dispatches
+ * are not throttled again.
+ */
+@Slf4j
+class ThrottlingInterceptor implements HandlerInterceptor {
+
+  static final String USER_ID_HEADER = "X-Sharer-User-Id";
+
+  private static final String ADMITTED = ThrottlingInterceptor.class.getName() + ".admitted";
+
+  private final UserRateLimiter rateLimiter;
+  private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+  private final Map<String, Integer> costs;
+
+  ThrottlingInterceptor(final UserRateLimiter rateLimiter,
+                        final AdaptiveConcurrencyLimiter concurrencyLimiter,
+                        final Map<String, Integer> costs) {
+    this.rateLimiter = rateLimiter;
+    this.concurrencyLimiter = concurrencyLimiter;
+    this.costs = Map.copyOf(costs);
+  }
+
+  @Override
+  public boolean preHandle(final HttpServletRequest request, final HttpServletResponse response,
+                           final Object handler) {
+    if (!(handler instanceof HandlerMethod)
+        || request.getDispatcherType() != DispatcherType.REQUEST) {
+      return true;
+    }
+    final Long userId = userId(request);
+    if (userId != null) {
+      final String endpoint = request.getMethod() + " "
+          + request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+      final long waitNanos = rateLimiter.tryAcquire(userId, costs.getOrDefault(endpoint, 1));
+      if (waitNanos > 0L) {
+        log.warn("User ID {} exceeded the rate limit at {}.", userId, endpoint);
+        throw new RateLimitExceededException("Too many requests. Please retry later.",
+            Duration.ofNanos(waitNanos));
+      }
+    }
+    if (concurrencyLimiter == null) {
+      return true;
+    }
+    if (!concurrencyLimiter.tryAcquire()) {
+      log.warn("Rejected {} {} at the concurrency limit of {}.", request.getMethod(),
+          request.getRequestURI(), concurrencyLimiter.getLimit());
+      throw new ServiceOverloadedException("Service is overloaded. Please retry later.");
+    }
+    request.setAttribute(ADMITTED, Boolean.TRUE);
+    return true;
+  }
+
+  @Override
+  public void afterCompletion(final HttpServletRequest request, final HttpServletResponse response,
+                              final Object handler, final Exception ex) {
+    if (request.getAttribute(ADMITTED) != null) {
+      request.removeAttribute(ADMITTED);
+      concurrencyLimiter.release(SqlStatementCounter.current());
+    }
+  }
+
+  private static Long userId(final HttpServletRequest request) {
+    final String header = request.getHeader(USER_ID_HEADER);
+    if (header == null) {
+      return null;
+    }
+    try {
+      return Long.valueOf(header.trim());
+    } catch (NumberFormatException e) {
+      return null;
+    }
+  }
+}
@@ -0,0 +1,42 @@
+package ru.practicum.shareit.throttling;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A token bucket held in a single {@link AtomicLong}: the instant, in {@link System#nanoTime()},
+ * at which the bucket is full again (the theoretical arrival time of the generic cell rate
+ * algorithm). Taking tokens moves the instant ahead by their refill time, which is refused while
+ * it would be further ahead than the refill time of the whole bucket. Concurrent requests of one
+ * user update it with compare-and-set, without a lock.
+ */
+final class TokenBucket {
+
+  private final AtomicLong fullAt;
+
+  TokenBucket(final long now) {
+    this.fullAt = new AtomicLong(now);
+  }
+
+  /**
+   * Takes tokens worth {@code refillNanos} from a bucket holding {@code capacityNanos}.
+   *
+   * @return {@code 0} when they were taken, otherwise the nanoseconds until they are available
+   */
+  long tryTake(final long refillNanos, final long capacityNanos, final long now) {
+    while (true) {
+      final long current = fullAt.get();
+      final long next = (current - now > 0L ? current : now) + refillNanos;
+      final long ahead = next - now;
+      if (ahead > capacityNanos) {
+        return ahead - capacityNanos;
+      }
+      if (fullAt.compareAndSet(current, next)) {
+        return 0L;
+      }
+    }
+  }
+
+  boolean isFull(final long now) {
+    return fullAt.get() - now <= 0L;
+  }
+}
@@ -0,0 +1,97 @@
+package ru.practicum.shareit.throttling;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Limits the request rate of every user with a {@link TokenBucket} of
+ * {@code shareit.throttling.burst} tokens refilled at {@code shareit.throttling.rate} tokens per
+ * second. A request takes as many tokens as its endpoint costs, see {@link ThrottlingConfig}.
+ * <p>
+ * Buckets live in memory. A bucket that has refilled completely is the same as a new one, so full
+ * buckets are purged every {@code shareit.throttling.purge-interval}; a request racing with the
+ * purge may take its tokens from the removed bucket and is then not counted.
+ * <p>
+ * The user ID comes from a header any client can set, so at most
+ * {@code shareit.throttling.max-buckets} buckets are kept. While that many exist, users without
+ * a bucket share a single overflow bucket until the purge makes room: a flood of made-up IDs
+ * throttles itself and the newcomers, not the users already tracked.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.throttling.enabled", matchIfMissing = true)
+@Slf4j
+public class UserRateLimiter {
+
+  private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+  private final long nanosPerToken;
+  private final long capacityNanos;
+  private final int burst;
+  private final int maxBuckets;
+  private final Map<Long, TokenBucket> buckets = new ConcurrentHashMap<>();
+  private final TokenBucket overflow = new TokenBucket(System.nanoTime());
+
+  public UserRateLimiter(
+      final MeterRegistry registry,
+      @Value("${shareit.throttling.rate:20}") final double rate,
+      @Value("${shareit.throttling.burst:40}") final int burst,
+      @Value("${shareit.throttling.max-buckets:100000}") final int maxBuckets) {
+    if (rate <= 0.0 || burst < 1 || maxBuckets < 1) {
+      throw new IllegalArgumentException("Rate, burst and max-buckets must be positive.");
+    }
+    this.nanosPerToken = (long) (NANOS_PER_SECOND / rate);
+    this.capacityNanos = burst * nanosPerToken;
+    this.burst = burst;
+    this.maxBuckets = maxBuckets;
+    Gauge.builder("shareit.throttling.buckets", buckets, Map::size)
+        .description("Users with a partly used rate limit bucket")
+        .register(registry);
+  }
+
+  /**
+   * Takes {@code cost} tokens from the bucket of {@code userId}.
+   *
+   * @return {@code 0} when the request may proceed, otherwise the nanoseconds until it may be
+   *     retried
+   */
+  public long tryAcquire(final Long userId, final int cost) {
+    final long now = System.nanoTime();
+    return bucketOf(userId, now).tryTake(cost * nanosPerToken, capacityNanos, now);
+  }
+
+  public int getBurst() {
+    return burst;
+  }
+
+  /**
+   * Returns the bucket of the user, or the overflow bucket when the user has none and the cap is
+   * reached. Concurrent first requests may exceed the cap by a few buckets.
+   */
+  private TokenBucket bucketOf(final Long userId, final long now) {
+    final TokenBucket bucket = buckets.get(userId);
+    if (bucket != null) {
+      return bucket;
+    }
+    if (buckets.size() >= maxBuckets) {
+      log.debug("Rate limit bucket cap of {} reached, user ID {} shares the overflow bucket.",
+          maxBuckets, userId);
+      return overflow;
+    }
+    return buckets.computeIfAbsent(userId, id -> new TokenBucket(now));
+  }
+
+  @Scheduled(fixedDelayString = "${shareit.throttling.purge-interval:PT1M}")
+  public void purgeFullBuckets() {
+    final long now = System.nanoTime();
+    final int before = buckets.size();
+    buckets.values().removeIf(bucket -> bucket.isFull(now));
+    log.debug("Purged {} full rate limit buckets.", before - buckets.size());
+  }
+}
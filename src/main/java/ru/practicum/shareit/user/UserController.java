@@ -4,6 +4,7 @@ import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import java.net.URI;
 import java.util.List;
+import java.util.Optional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
@@ -15,15 +16,20 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import ru.practicum.shareit.user.dto.UserDeletionDto;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.utils.MultiGet;
 import ru.practicum.shareit.validation.Create;
 import ru.practicum.shareit.validation.Update;
 
 /**
  * REST controller for managing users. Provides endpoints for creating, updating, retrieving, and
- * deleting users.
+ * deleting users. A deleted user is gone at once, while their data is removed in the background;
+ * {@code GET /users/{userId}/deletion} reports the progress.
  */
 
 @RestController
@@ -46,7 +52,7 @@ public class UserController {
         .buildAndExpand(userSaved.getId())
         .toUri();
 
-    log.info("User created successfully with ID {} at {}.", userSaved.getId(), location.toString());
+    log.info("User created successfully with ID {} at {}.", userSaved.getId(), location);
     return ResponseEntity.created(location).body(userSaved);
   }
 
@@ -54,7 +60,8 @@ public class UserController {
   public ResponseEntity<UserDto> updateUser(
       @Validated(Update.class) @RequestBody UserDto user,
       @PathVariable("userId") @NotNull @Positive Long userId) {
-    log.info("Received request PATCH /users/{} to update with data: {}", userId, user);
+    log.info("Received request PATCH /users/{}.", userId);
+    log.debug("User update data: {}.", user);
     final UserDto userUpdated = userService.updateUser(user, userId);
     log.info("User updated successfully with ID {}", userUpdated.getId());
     return ResponseEntity.ok(userUpdated);
@@ -68,12 +75,28 @@ public class UserController {
     return ResponseEntity.ok(users);
   }
 
+  @GetMapping(params = MultiGet.PARAMETER)
+  public ResponseEntity<List<UserDto>> getUsersByIds(
+      @RequestParam(name = MultiGet.PARAMETER) List<Long> ids) {
+    log.info("Received request GET /users?ids= for {} users.", ids.size());
+    final List<UserDto> users = userService.getUsersByIds(ids);
+    log.info("Returning {} users", users.size());
+    return ResponseEntity.ok(users);
+  }
+
   @GetMapping("/{userId}")
   public ResponseEntity<UserDto> getUserById(
-      @PathVariable("userId") @NotNull @Positive Long userId) {
+      @PathVariable("userId") @NotNull @Positive Long userId,
+      WebRequest request) {
     log.info("Received request GET /users/{}", userId);
+    final Optional<String> etag = userService.getUserETag(userId);
+    if (etag.isPresent() && request.checkNotModified(etag.get())) {
+      log.info("User ID {} not modified.", userId);
+      return null;
+    }
     final UserDto user = userService.getUserById(userId);
-    log.info("Returning user: {}", user);
+    log.info("Returning user ID {}.", user.getId());
+    log.debug("User data: {}.", user);
     return ResponseEntity.ok(user);
   }
 
@@ -84,4 +107,13 @@ public class UserController {
     log.info("User deleted successfully with ID {}", id);
   }
 
+  @GetMapping("/{userId}/deletion")
+  public ResponseEntity<UserDeletionDto> getUserDeletion(
+      @PathVariable("userId") @NotNull @Positive Long userId) {
+    log.info("Received request GET /users/{}/deletion", userId);
+    final UserDeletionDto deletion = userService.getUserDeletion(userId);
+    log.info("Returning deletion of user ID {} in state {}.", userId, deletion.getState());
+    return ResponseEntity.ok(deletion);
+  }
+
 }
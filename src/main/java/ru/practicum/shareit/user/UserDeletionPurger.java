@@ -0,0 +1,252 @@
+package ru.practicum.shareit.user;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiFunction;
+import java.util.function.ToIntFunction;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.ArchivedBookingRepository;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.invalidation.InvalidationBus;
+import ru.practicum.shareit.invalidation.InvalidationTopic;
+import ru.practicum.shareit.item.CommentRepository;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.request.matching.ItemRequestMatcher;
+import ru.practicum.shareit.user.model.UserDeletion;
+
+/**
+ * Removes the data of deleted users in the background, instead of one cascading delete that
+ * would lock the bookings of a heavy user for the whole statement.
+ * <p>
+ * {@link #schedule(Long)} runs in the transaction that marks the user as deleted: it withdraws the
+ * user's items from renting and records the deletion in "user_deletions". Once that transaction
+ * has committed, the bookings, archived bookings and comments of the user and of the user's items,
+ * the items and the item requests are deleted in batches of
+ * {@code shareit.users.deletion.batch-size}, each in its own transaction that also adds the
+ * removed rows to the progress of the deletion. Withdrawn and deleted items and deleted requests
+ * are dropped from the {@link ItemRequestMatcher} once their transaction has committed. The user
+ * row goes last. A deletion that fails is resumed by the next run, every
+ * {@code shareit.users.deletion.interval}.
+ *
+ * @see UserDeletion
+ */
+@Component
+@Slf4j
+public class UserDeletionPurger implements DisposableBean {
+
+  private final UserRepository userRepository;
+  private final UserDeletionRepository userDeletionRepository;
+  private final BookingRepository bookingRepository;
+  private final ArchivedBookingRepository archivedBookingRepository;
+  private final CommentRepository commentRepository;
+  private final ItemRepository itemRepository;
+  private final ItemRequestRepository itemRequestRepository;
+  private final ItemRequestMatcher itemRequestMatcher;
+  private final InvalidationBus invalidationBus;
+  private final TransactionTemplate transactionTemplate;
+  private final int batchSize;
+  private final List<Step> steps;
+  private final ThreadPoolExecutor executor;
+  private final AtomicBoolean requested = new AtomicBoolean();
+  private final ReentrantLock running = new ReentrantLock();
+
+  public UserDeletionPurger(
+      final UserRepository userRepository,
+      final UserDeletionRepository userDeletionRepository,
+      final BookingRepository bookingRepository,
+      final ArchivedBookingRepository archivedBookingRepository,
+      final CommentRepository commentRepository,
+      final ItemRepository itemRepository,
+      final ItemRequestRepository itemRequestRepository,
+      final ItemRequestMatcher itemRequestMatcher,
+      final InvalidationBus invalidationBus,
+      final TransactionTemplate transactionTemplate,
+      final MeterRegistry registry,
+      @Value("${shareit.users.deletion.batch-size:500}") final int batchSize) {
+    this.userRepository = userRepository;
+    this.userDeletionRepository = userDeletionRepository;
+    this.bookingRepository = bookingRepository;
+    this.archivedBookingRepository = archivedBookingRepository;
+    this.commentRepository = commentRepository;
+    this.itemRepository = itemRepository;
+    this.itemRequestRepository = itemRequestRepository;
+    this.itemRequestMatcher = itemRequestMatcher;
+    this.invalidationBus = invalidationBus;
+    this.transactionTemplate = transactionTemplate;
+    this.batchSize = batchSize;
+    this.steps = List.of(
+        new Step("bookings", Progress.BOOKINGS, registry,
+            bookingRepository::findIdsByBookerId, this::deleteBookings),
+        new Step("bookings_archive", Progress.BOOKINGS, registry,
+            archivedBookingRepository::findIdsByBookerId, archivedBookingRepository::deleteAllByIdIn),
+        new Step("comments", Progress.COMMENTS, registry,
+            commentRepository::findIdsByAuthorId, this::deleteComments),
+        new Step("bookings", Progress.BOOKINGS, registry,
+            bookingRepository::findIdsByItemOwnerId, this::deleteBookings),
+        new Step("bookings_archive", Progress.BOOKINGS, registry,
+            archivedBookingRepository::findIdsByItemOwnerId,
+            archivedBookingRepository::deleteAllByIdIn),
+        new Step("comments", Progress.COMMENTS, registry,
+            commentRepository::findIdsByItemOwnerId, this::deleteComments),
+        new Step("items", Progress.ITEMS, registry,
+            itemRepository::findIdsByOwnerId, this::deleteItems),
+        new Step("requests", Progress.REQUESTS, registry,
+            itemRequestRepository::findIdsByRequestorId, this::deleteRequests));
+    this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+        new LinkedBlockingQueue<>(1), Thread.ofPlatform().name("user-deletion").daemon().factory(),
+        new ThreadPoolExecutor.DiscardPolicy());
+  }
+
+  /**
+   * Records the deletion of a user and withdraws the user's items from renting, in the current
+   * transaction. The user's data is removed once the transaction has committed.
+   */
+  public void schedule(final Long userId) {
+    userDeletionRepository.save(UserDeletion.builder()
+        .userId(userId)
+        .requested(LocalDateTime.now())
+        .build());
+    final List<Long> itemIds = itemRepository.findIdsByOwnerId(userId, Limit.unlimited());
+    itemRepository.markUnavailableByOwnerId(userId);
+    invalidationBus.publish(InvalidationTopic.ITEM, itemIds);
+    itemRequestMatcher.onItemsRemoved(itemIds);
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      trigger();
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        trigger();
+      }
+    });
+  }
+
+  /**
+   * Removes the data of all users whose deletion has not finished yet. A call while another one
+   * is running leaves the work to the running call.
+   */
+  @Scheduled(fixedDelayString = "${shareit.users.deletion.interval:PT1M}")
+  public void purgePending() {
+    requested.set(true);
+    while (requested.get() && running.tryLock()) {
+      try {
+        while (requested.getAndSet(false)) {
+          for (Long userId : userDeletionRepository.findPendingUserIds()) {
+            purgeUser(userId);
+          }
+        }
+      } finally {
+        running.unlock();
+      }
+    }
+  }
+
+  @Override
+  public void destroy() {
+    executor.shutdownNow();
+  }
+
+  private void trigger() {
+    executor.execute(this::purgePending);
+  }
+
+  private void purgeUser(final Long userId) {
+    try {
+      for (Step step : steps) {
+        purgeStep(userId, step);
+      }
+      transactionTemplate.executeWithoutResult(status -> {
+        userRepository.deleteById(userId);
+        userDeletionRepository.markFinished(userId, LocalDateTime.now());
+      });
+      invalidationBus.publish(InvalidationTopic.USER, userId);
+      log.info("Removed deleted user ID {}.", userId);
+    } catch (RuntimeException e) {
+      log.error("Failed to remove deleted user ID {}, retrying on the next run.", userId, e);
+    }
+  }
+
+  private void purgeStep(final Long userId, final Step step) {
+    int found;
+    do {
+      found = transactionTemplate.execute(status -> {
+        final List<Long> ids = step.findIds().apply(userId, Limit.of(batchSize));
+        if (ids.isEmpty()) {
+          return 0;
+        }
+        final int removed = step.delete().applyAsInt(ids);
+        final Progress progress = step.progress();
+        userDeletionRepository.addRemoved(userId,
+            progress == Progress.BOOKINGS ? removed : 0,
+            progress == Progress.COMMENTS ? removed : 0,
+            progress == Progress.ITEMS ? removed : 0,
+            progress == Progress.REQUESTS ? removed : 0);
+        step.removed().increment(removed);
+        return ids.size();
+      });
+    } while (found == batchSize);
+  }
+
+  private int deleteBookings(final List<Long> bookingIds) {
+    invalidationBus.publish(InvalidationTopic.BOOKING, bookingIds);
+    return bookingRepository.deleteAllByIdIn(bookingIds);
+  }
+
+  private int deleteComments(final List<Long> commentIds) {
+    return commentRepository.deleteAllByIdIn(commentIds);
+  }
+
+  private int deleteItems(final List<Long> itemIds) {
+    invalidationBus.publish(InvalidationTopic.ITEM, itemIds);
+    itemRequestMatcher.onItemsRemoved(itemIds);
+    return itemRepository.deleteAllByIdIn(itemIds);
+  }
+
+  private int deleteRequests(final List<Long> requestIds) {
+    final List<Long> answers = itemRepository.findAllByRequestIdIn(requestIds).stream()
+        .map(Item::getId)
+        .toList();
+    if (!answers.isEmpty()) {
+      itemRepository.clearRequestByRequestIdIn(requestIds);
+      invalidationBus.publish(InvalidationTopic.ITEM, answers);
+    }
+    itemRequestMatcher.onRequestsRemoved(requestIds);
+    return itemRequestRepository.deleteAllByIdIn(requestIds);
+  }
+
+  private enum Progress {
+    BOOKINGS, COMMENTS, ITEMS, REQUESTS
+  }
+
+  private record Step(Progress progress, Counter removed,
+                      BiFunction<Long, Limit, List<Long>> findIds,
+                      ToIntFunction<List<Long>> delete) {
+
+    Step(final String table, final Progress progress, final MeterRegistry registry,
+         final BiFunction<Long, Limit, List<Long>> findIds,
+         final ToIntFunction<List<Long>> delete) {
+      this(progress, Counter.builder("shareit.users.deletion.removed")
+          .description("Rows of deleted users removed in the background")
+          .tag("table", table)
+          .register(registry), findIds, delete);
+    }
+  }
+}
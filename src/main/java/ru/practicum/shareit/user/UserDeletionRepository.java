@@ -0,0 +1,48 @@
+package ru.practicum.shareit.user;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.user.model.UserDeletion;
+
+/**
+ * Repository interface for the progress of user deletions.
+ * <ul>
+ *   <li>{@link #findPendingUserIds()}: Retrieves the IDs of the users whose data is still being removed, oldest deletion first.</li>
+ *   <li>{@link #addRemoved(Long, long, long, long, long)}: Adds the rows removed by a batch to the progress of a deletion.</li>
+ *   <li>{@link #markFinished(Long, LocalDateTime)}: Records that the last row of a user has been removed.</li>
+ * </ul>
+ *
+ * @see UserDeletion
+ * @see UserDeletionPurger
+ */
+public interface UserDeletionRepository extends JpaRepository<UserDeletion, Long> {
+
+  @Query("""
+      select d.userId
+      from UserDeletion as d
+      where d.finished is null
+      order by d.requested
+      """)
+  List<Long> findPendingUserIds();
+
+  @Modifying
+  @Query("""
+      update UserDeletion as d
+      set d.bookings = d.bookings + :bookings,
+      d.comments = d.comments + :comments,
+      d.items = d.items + :items,
+      d.requests = d.requests + :requests
+      where d.userId = :userId
+      """)
+  int addRemoved(@Param("userId") Long userId, @Param("bookings") long bookings,
+                 @Param("comments") long comments, @Param("items") long items,
+                 @Param("requests") long requests);
+
+  @Modifying
+  @Query("update UserDeletion as d set d.finished = :finished where d.userId = :userId")
+  int markFinished(@Param("userId") Long userId, @Param("finished") LocalDateTime finished);
+}
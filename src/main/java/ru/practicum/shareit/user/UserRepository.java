@@ -1,10 +1,19 @@
 package ru.practicum.shareit.user;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.user.model.User;
 
 /**
- * Repository interface for managing {@link User} entities.
+ * Repository interface for managing {@link User} entities. A deleted user keeps its row until
+ * {@link UserDeletionPurger} has removed the user's data; the {@code DeletedIsNull} methods, and
+ * {@link #findVersionById(Long)}, skip such users.
  *
  * @see JpaRepository
  * @see User
@@ -13,4 +22,28 @@ import ru.practicum.shareit.user.model.User;
 
 public interface UserRepository extends JpaRepository<User, Long> {
 
+  @Query("""
+      select u.version
+      from User as u
+      where u.id = :userId
+      and u.deleted is null
+      """)
+  Optional<Long> findVersionById(@Param("userId") Long userId);
+
+  Optional<User> findByIdAndDeletedIsNull(Long userId);
+
+  boolean existsByIdAndDeletedIsNull(Long userId);
+
+  List<User> findAllByDeletedIsNull();
+
+  List<User> findAllByIdInAndDeletedIsNull(Collection<Long> userIds);
+
+  @Modifying
+  @Query("""
+      update versioned User as u
+      set u.deleted = :deleted
+      where u.id = :userId
+      and u.deleted is null
+      """)
+  int markDeleted(@Param("userId") Long userId, @Param("deleted") LocalDateTime deleted);
 }
@@ -1,6 +1,8 @@
 package ru.practicum.shareit.user;
 
 import java.util.List;
+import java.util.Optional;
+import ru.practicum.shareit.user.dto.UserDeletionDto;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 
@@ -16,8 +18,11 @@ import ru.practicum.shareit.user.model.User;
  *  <li>{@link #createNewUser(UserDto)}: Creates a new user with the provided data.</li>
  *  <li>{@link #updateUser(UserDto, Long)}: Updates an existing user identified by their ID with the provided data.</li>
  *  <li>{@link #getUserById(Long)}: Retrieves a specific user by their ID.</li>
+ *  <li>{@link #getUserETag(Long)}: Retrieves the ETag of a user from its version alone, empty if the user does not exist.</li>
  *  <li>{@link #getAllUsers()}: Retrieves a list of all users.</li>
- *  <li>{@link #deleteUserById(Long)}: Deletes a user by their ID.</li>
+ *  <li>{@link #getUsersByIds(List)}: Retrieves the users with the given IDs in one query.</li>
+ *  <li>{@link #deleteUserById(Long)}: Marks a user as deleted by their ID; their data is removed in the background.</li>
+ *  <li>{@link #getUserDeletion(Long)}: Retrieves the progress of removing the data of a deleted user.</li>
  *  <li>{@link #validateUserExist(Long)}: Validates if a user with the given ID exists in the storage, throwing an exception if not.</li>
  * </ul>
  * </p>
@@ -33,11 +38,17 @@ public interface UserService {
 
   UserDto getUserById(Long id);
 
+  Optional<String> getUserETag(Long id);
+
   User getByIdOrThrow(final Long id);
 
   List<UserDto> getAllUsers();
 
+  List<UserDto> getUsersByIds(List<Long> ids);
+
   void deleteUserById(Long id);
 
+  UserDeletionDto getUserDeletion(Long id);
+
   void validateUserExist(Long id);
 }
@@ -1,5 +1,7 @@
 package ru.practicum.shareit.user;
 
+import io.micrometer.core.annotation.Timed;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import lombok.RequiredArgsConstructor;
@@ -11,9 +13,15 @@ import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.DatabaseException;
 import ru.practicum.shareit.exception.DuplicatedDataException;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.invalidation.InvalidationBus;
+import ru.practicum.shareit.invalidation.InvalidationTopic;
+import ru.practicum.shareit.metrics.MetricsConfig;
+import ru.practicum.shareit.user.dto.UserDeletionDto;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserMapper;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.utils.ETags;
+import ru.practicum.shareit.utils.MultiGet;
 
 /**
  * Service implementation class for managing user-related operations.
@@ -23,19 +31,25 @@ import ru.practicum.shareit.user.model.User;
  * @see UserRepository
  */
 @Service
+@Timed(MetricsConfig.SERVICE_TIMER)
 @RequiredArgsConstructor
 @Slf4j
 @Transactional(readOnly = true)
 public class UserServiceImpl implements UserService {
 
   private final UserRepository userRepository;
+  private final UserDeletionRepository userDeletionRepository;
+  private final UserDeletionPurger userDeletionPurger;
+  private final InvalidationBus invalidationBus;
 
   @Override
   @Transactional
   public UserDto createNewUser(final UserDto userDto) {
     log.debug("Persisting user with email: {}.", userDto.getEmail());
     final User userToSave = UserMapper.mapToUser(userDto);
-    return UserMapper.mapToUserDto(saveOrUpdate(userToSave));
+    final User saved = saveOrUpdate(userToSave);
+    invalidationBus.publish(InvalidationTopic.USER, saved.getId());
+    return UserMapper.mapToUserDto(saved);
   }
 
   @Override
@@ -47,7 +61,9 @@ public class UserServiceImpl implements UserService {
     Optional.ofNullable(userDto.getEmail()).ifPresent(userToUpdate::setEmail);
     Optional.ofNullable(userDto.getName()).ifPresent(userToUpdate::setName);
 
-    return UserMapper.mapToUserDto(saveOrUpdate(userToUpdate));
+    final User updated = saveOrUpdate(userToUpdate);
+    invalidationBus.publish(InvalidationTopic.USER, userId);
+    return UserMapper.mapToUserDto(updated);
   }
 
   @Override
@@ -56,10 +72,15 @@ public class UserServiceImpl implements UserService {
     return UserMapper.mapToUserDto(getByIdOrThrow(id));
   }
 
+  @Override
+  public Optional<String> getUserETag(final Long id) {
+    return userRepository.findVersionById(id).map(ETags::of);
+  }
+
   @Override
   public User getByIdOrThrow(final Long id) {
     log.debug("Getting a user instance for ID = {} from the DB.", id);
-    return userRepository.findById(id)
+    return userRepository.findByIdAndDeletedIsNull(id)
         .orElseThrow(() -> {
           log.warn("User with ID = {} not found in DB.", id);
           return new NotFoundException("User not found.");
@@ -69,7 +90,18 @@ public class UserServiceImpl implements UserService {
   @Override
   public List<UserDto> getAllUsers() {
     log.debug("Fetching all users from the database.");
-    return userRepository.findAll().stream()
+    return userRepository.findAllByDeletedIsNull().stream()
+        .map(UserMapper::mapToUserDto)
+        .toList();
+  }
+
+  @Override
+  public List<UserDto> getUsersByIds(final List<Long> ids) {
+    final List<Long> userIds = MultiGet.distinctIds(ids);
+    log.debug("Fetching {} users by IDs.", userIds.size());
+    return MultiGet.inRequestedOrder(userIds,
+            userRepository.findAllByIdInAndDeletedIsNull(userIds), User::getId, "User not found.")
+        .stream()
         .map(UserMapper::mapToUserDto)
         .toList();
   }
@@ -78,15 +110,30 @@ public class UserServiceImpl implements UserService {
   @Transactional
   public void deleteUserById(final Long id) {
     log.debug("Deleting user with ID = {}", id);
-    validateUserExist(id);
-    userRepository.deleteById(id);
-    log.debug("User with ID = {} has been successfully deleted.", id);
+    if (id == null || userRepository.markDeleted(id, LocalDateTime.now()) == 0) {
+      log.warn("User with ID = {} not found in DB.", id);
+      throw new NotFoundException("User not found.");
+    }
+    userDeletionPurger.schedule(id);
+    invalidationBus.publish(InvalidationTopic.USER, id);
+    log.debug("User with ID = {} has been marked as deleted, removing their data.", id);
+  }
+
+  @Override
+  public UserDeletionDto getUserDeletion(final Long id) {
+    log.debug("Fetching the deletion progress of user ID = {}.", id);
+    return userDeletionRepository.findById(id)
+        .map(UserMapper::mapToUserDeletionDto)
+        .orElseThrow(() -> {
+          log.warn("Deletion of user with ID = {} not found in DB.", id);
+          return new NotFoundException("User deletion not found.");
+        });
   }
 
   @Override
   public void validateUserExist(final Long id) {
     log.debug("Validating user id {} is not null and exist in DB", id);
-    if (id == null || !userRepository.existsById(id)) {
+    if (id == null || !userRepository.existsByIdAndDeletedIsNull(id)) {
       log.warn("Validation User with ID = {} is not null and exists in DB failed.", id);
       throw new NotFoundException("User not found.");
     }
@@ -0,0 +1,41 @@
+package ru.practicum.shareit.user.dto;
+
+import java.time.LocalDateTime;
+import lombok.Builder;
+import lombok.Data;
+import ru.practicum.shareit.user.model.UserDeletion;
+
+/**
+ * Data Transfer Object representing the progress of removing the data of a deleted user: the
+ * number of bookings, comments, items and item requests removed so far.
+ *
+ * @see UserDeletion
+ * @see UserMapper
+ */
+@Data
+@Builder
+public class UserDeletionDto {
+
+  private Long userId;
+
+  private State state;
+
+  private LocalDateTime requested;
+
+  private LocalDateTime finished;
+
+  private long bookings;
+
+  private long comments;
+
+  private long items;
+
+  private long requests;
+
+  /**
+   * Whether rows of the user are still to be removed.
+   */
+  public enum State {
+    IN_PROGRESS, COMPLETED
+  }
+}
@@ -3,6 +3,7 @@ package ru.practicum.shareit.user.dto;
 import java.util.Objects;
 import lombok.experimental.UtilityClass;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.model.UserDeletion;
 
 /**
  * Utility class for mapping between {@link User} entities and {@link UserDto}. This class provides
@@ -10,6 +11,7 @@ import ru.practicum.shareit.user.model.User;
  * <ul>
  *   <li> {@link #mapToUser(UserDto)}: maps a {@link UserDto} to a {@link User} entity.</li>
  *   <li>{@link #mapToUserDto(User)}: maps a {@link User} to {@link UserDto}.</li>
+ *   <li>{@link #mapToUserDeletionDto(UserDeletion)}: maps a {@link UserDeletion} to {@link UserDeletionDto}.</li>
  * </ul>
  */
 @UtilityClass
@@ -32,4 +34,19 @@ public class UserMapper {
         .email(userDto.getEmail())
         .build();
   }
+
+  public UserDeletionDto mapToUserDeletionDto(final UserDeletion deletion) {
+    Objects.requireNonNull(deletion, "UserDeletion cannot be null");
+    return UserDeletionDto.builder()
+        .userId(deletion.getUserId())
+        .state(deletion.getFinished() == null
+            ? UserDeletionDto.State.IN_PROGRESS : UserDeletionDto.State.COMPLETED)
+        .requested(deletion.getRequested())
+        .finished(deletion.getFinished())
+        .bookings(deletion.getBookings())
+        .comments(deletion.getComments())
+        .items(deletion.getItems())
+        .requests(deletion.getRequests())
+        .build();
+  }
 }
@@ -6,6 +6,8 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import java.time.LocalDateTime;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.EqualsAndHashCode;
@@ -16,7 +18,10 @@ import lombok.Setter;
 /**
  * Represents a user entity in the ShareIt app.
  * <p>
- * This class is mapped to the "users" table in the database.
+ * This class is mapped to the "users" table in the database. A deleted user stays in the table,
+ * with the time of deletion in {@code deleted}, until {@link ru.practicum.shareit.user.UserDeletionPurger}
+ * has removed the user's data; the user queries of {@link ru.practicum.shareit.user.UserRepository}
+ * skip deleted users, while bookings and comments still reference them until they are removed.
  */
 @Entity
 @Table(name = "users")
@@ -39,4 +44,11 @@ public class User {
   @Column(name = "email", length = 250, nullable = false, unique = true)
   private String email;
 
+  @Version
+  @Column(name = "version", nullable = false)
+  private Long version;
+
+  @Column(name = "deleted")
+  private LocalDateTime deleted;
+
 }
@@ -0,0 +1,51 @@
+package ru.practicum.shareit.user.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * The progress of deleting a user: when it was requested, when the last row was removed, and the
+ * number of rows removed so far per table.
+ * <p>
+ * This class is mapped to the "user_deletions" table in the database. It references the user by
+ * ID only, so it outlives the user.
+ */
+@Entity
+@Table(name = "user_deletions")
+@NoArgsConstructor
+@AllArgsConstructor
+@Setter
+@Getter
+@Builder
+public class UserDeletion {
+
+  @Id
+  @Column(name = "user_id", updatable = false, nullable = false)
+  private Long userId;
+
+  @Column(name = "requested", nullable = false)
+  private LocalDateTime requested;
+
+  @Column(name = "finished")
+  private LocalDateTime finished;
+
+  @Column(name = "bookings", nullable = false)
+  private long bookings;
+
+  @Column(name = "comments", nullable = false)
+  private long comments;
+
+  @Column(name = "items", nullable = false)
+  private long items;
+
+  @Column(name = "requests", nullable = false)
+  private long requests;
+}
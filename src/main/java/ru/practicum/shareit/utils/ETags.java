@@ -0,0 +1,24 @@
+package ru.practicum.shareit.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import lombok.experimental.UtilityClass;
+import org.springframework.util.DigestUtils;
+
+/**
+ * Builds entity tags for conditional GET requests from the versions a response is assembled of,
+ * so that {@code If-None-Match} can be answered without assembling it. The tags are weak: the
+ * same tag stands for the JSON, CBOR and Smile encoding of a response.
+ */
+@UtilityClass
+public class ETags {
+
+  /**
+   * A tag that changes whenever one of {@code parts} changes. Records and other values with a
+   * {@code toString()} of their state can be passed as they are.
+   */
+  public String of(final Object... parts) {
+    return "W/\"" + DigestUtils.md5DigestAsHex(
+        Arrays.toString(parts).getBytes(StandardCharsets.UTF_8)) + "\"";
+  }
+}
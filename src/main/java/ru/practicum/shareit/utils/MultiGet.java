@@ -0,0 +1,63 @@
+package ru.practicum.shareit.utils;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.experimental.UtilityClass;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.ValidationException;
+
+/**
+ * Helpers of the multi-get endpoints, e.g. {@code GET /items?ids=1,2,3}, which resolve up to
+ * {@value #MAX_IDS} IDs with one {@code IN} query instead of one request per ID.
+ */
+@UtilityClass
+public class MultiGet {
+
+  public static final String PARAMETER = "ids";
+  public static final int MAX_IDS = 500;
+
+  /**
+   * Validates the requested IDs and removes duplicates, keeping the order of the request.
+   *
+   * @throws ValidationException if no IDs, more than {@value #MAX_IDS} or non-positive IDs are
+   *                             requested
+   */
+  public List<Long> distinctIds(final List<Long> ids) {
+    if (ids == null || ids.isEmpty()) {
+      throw new ValidationException("IDs can not be empty.");
+    }
+    if (ids.size() > MAX_IDS) {
+      throw new ValidationException("No more than " + MAX_IDS + " IDs can be requested at once.");
+    }
+    if (ids.stream().anyMatch(id -> id == null || id <= 0)) {
+      throw new ValidationException("IDs should be positive.");
+    }
+    return List.copyOf(new LinkedHashSet<>(ids));
+  }
+
+  /**
+   * Orders the found entities as the IDs were requested.
+   *
+   * @throws NotFoundException with {@code notFoundMessage} if any ID was not found, as the
+   *                           single-entity endpoint would
+   */
+  public <T> List<T> inRequestedOrder(final List<Long> ids, final Collection<T> found,
+                                      final Function<T, Long> idOf,
+                                      final String notFoundMessage) {
+    final Map<Long, T> byId = found.stream()
+        .collect(Collectors.toMap(idOf, Function.identity(), (first, second) -> first));
+    return ids.stream()
+        .map(id -> {
+          final T entity = byId.get(id);
+          if (entity == null) {
+            throw new NotFoundException(notFoundMessage);
+          }
+          return entity;
+        })
+        .toList();
+  }
+}
@@ -0,0 +1,31 @@
+package ru.practicum.shareit.utils;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.retry.annotation.Backoff;
+import org.springframework.retry.annotation.Retryable;
+
+/**
+ * Re-runs the annotated transactional method when it fails with an
+ * {@link OptimisticLockingFailureException}, i.e. when the entity it updated was modified
+ * concurrently.
+ * <p>
+ * Every attempt runs in a new transaction and re-reads the current state of the entity. The number
+ * of attempts and the randomized exponential backoff are configured by the
+ * {@code shareit.retry.*} properties. When all attempts fail, the exception is propagated and
+ * mapped to {@code 409 Conflict}.
+ */
+@Documented
+@Target({ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Retryable(retryFor = OptimisticLockingFailureException.class,
+    maxAttemptsExpression = "${shareit.retry.max-attempts:5}",
+    backoff = @Backoff(delayExpression = "${shareit.retry.delay:10}",
+        multiplierExpression = "${shareit.retry.multiplier:2}", random = true))
+public @interface RetryOnConflict {
+
+}
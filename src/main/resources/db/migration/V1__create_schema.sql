@@ -1,8 +1,3 @@
-DROP TABLE IF EXISTS users CASCADE;
-DROP TABLE IF EXISTS items CASCADE;
-DROP TABLE IF EXISTS bookings CASCADE;
-DROP TABLE IF EXISTS comments CASCADE;
-
 CREATE TABLE IF NOT EXISTS users
 (
   id BIGINT GENERATED ALWAYS AS IDENTITY,
@@ -12,6 +7,16 @@ CREATE TABLE IF NOT EXISTS users
   CONSTRAINT UQ_USER_EMAIL UNIQUE (email)
 );
 
+CREATE TABLE IF NOT EXISTS requests
+(
+  id BIGINT GENERATED ALWAYS AS IDENTITY,
+  description varchar(1000) NOT NULL,
+  requestor_id BIGINT NOT NULL,
+  created TIMESTAMP WITHOUT TIME ZONE NOT NULL DEFAULT NOW(),
+  CONSTRAINT pk_requests PRIMARY KEY (id),
+  CONSTRAINT fk_request_user FOREIGN KEY (requestor_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
 CREATE TABLE IF NOT EXISTS items
 (
   id BIGINT GENERATED ALWAYS AS IDENTITY,
@@ -20,8 +25,10 @@ CREATE TABLE IF NOT EXISTS items
   is_available BOOLEAN DEFAULT true,
   owner_id BIGINT NOT NULL,
   request_id BIGINT,
+  version BIGINT NOT NULL DEFAULT 0,
   CONSTRAINT pk_item PRIMARY KEY (id),
-  CONSTRAINT fk_user_owner FOREIGN KEY (owner_id) REFERENCES users(id) ON DELETE CASCADE
+  CONSTRAINT fk_user_owner FOREIGN KEY (owner_id) REFERENCES users(id) ON DELETE CASCADE,
+  CONSTRAINT fk_item_request FOREIGN KEY (request_id) REFERENCES requests(id) ON DELETE SET NULL
 );
 
 CREATE TABLE IF NOT EXISTS bookings
@@ -32,6 +39,7 @@ CREATE TABLE IF NOT EXISTS bookings
   item_id BIGINT NOT NULL,
   booker_id BIGINT NOT NULL,
   status varchar(50) NOT NULL DEFAULT 'WAITING',
+  version BIGINT NOT NULL DEFAULT 0,
   CONSTRAINT pk_bookings PRIMARY KEY (id),
   CONSTRAINT fk_booking_item FOREIGN KEY (item_id) REFERENCES items(id) ON DELETE CASCADE,
   CONSTRAINT fk_booking_user FOREIGN KEY (booker_id) REFERENCES users(id) ON DELETE CASCADE
@@ -49,4 +57,15 @@ CREATE TABLE IF NOT EXISTS comments
   CONSTRAINT fk_comment_user FOREIGN KEY (author_id) REFERENCES users(id) ON DELETE CASCADE
 );
 
-
+CREATE TABLE IF NOT EXISTS idempotency_keys
+(
+  id BIGINT GENERATED ALWAYS AS IDENTITY,
+  user_id BIGINT NOT NULL,
+  operation varchar(50) NOT NULL,
+  idempotency_key varchar(255) NOT NULL,
+  request_hash varchar(64) NOT NULL,
+  response_body TEXT NOT NULL,
+  created TIMESTAMP WITHOUT TIME ZONE NOT NULL DEFAULT NOW(),
+  CONSTRAINT pk_idempotency_keys PRIMARY KEY (id),
+  CONSTRAINT uq_idempotency_key UNIQUE (user_id, operation, idempotency_key)
+);
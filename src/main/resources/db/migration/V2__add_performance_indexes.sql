@@ -0,0 +1,29 @@
+-- Bookings of a booker, newest first: GET /bookings?state=ALL|FUTURE
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_start ON bookings (booker_id, start_date DESC);
+
+-- Bookings of a booker in a status: GET /bookings?state=WAITING|REJECTED|CURRENT|PAST
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_status_start
+  ON bookings (booker_id, status, start_date DESC);
+
+-- Bookings of an item: owner queries joined through items.owner_id, last/next booking of an item,
+-- the overlap check of a new booking and the completed booking check of a new comment
+CREATE INDEX IF NOT EXISTS idx_bookings_item_status_start
+  ON bookings (item_id, status, start_date DESC);
+
+-- Items of an owner ordered by ID: GET /items and the owner side of every booking query
+CREATE INDEX IF NOT EXISTS idx_items_owner ON items (owner_id, id);
+
+-- Items added in answer to item requests
+CREATE INDEX IF NOT EXISTS idx_items_request ON items (request_id);
+
+-- Comments of one or several items: GET /items, GET /items/{itemId}
+CREATE INDEX IF NOT EXISTS idx_comments_item ON comments (item_id);
+
+-- ON DELETE CASCADE of a user deletes the user's comments
+CREATE INDEX IF NOT EXISTS idx_comments_author ON comments (author_id);
+
+-- Item requests of a requestor, paged by descending ID: GET /requests
+CREATE INDEX IF NOT EXISTS idx_requests_requestor ON requests (requestor_id, id DESC);
+
+-- Purge of expired idempotency keys
+CREATE INDEX IF NOT EXISTS idx_idempotency_keys_created ON idempotency_keys (created);
@@ -0,0 +1,27 @@
+-- Closed bookings (PAST and REJECTED) that ended before the archive horizon, moved here from bookings
+-- by the booking archiver and read only for GET /bookings?state=PAST|ALL&includeArchived=true
+CREATE TABLE IF NOT EXISTS bookings_archive
+(
+  id BIGINT NOT NULL,
+  start_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+  end_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+  item_id BIGINT NOT NULL,
+  booker_id BIGINT NOT NULL,
+  status varchar(50) NOT NULL,
+  version BIGINT NOT NULL DEFAULT 0,
+  archived TIMESTAMP WITHOUT TIME ZONE NOT NULL DEFAULT NOW(),
+  CONSTRAINT pk_bookings_archive PRIMARY KEY (id),
+  CONSTRAINT fk_booking_archive_item FOREIGN KEY (item_id) REFERENCES items(id) ON DELETE CASCADE,
+  CONSTRAINT fk_booking_archive_user FOREIGN KEY (booker_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
+-- Archived bookings of a booker in a status, newest first
+CREATE INDEX IF NOT EXISTS idx_bookings_archive_booker_status_start
+  ON bookings_archive (booker_id, status, start_date DESC);
+
+-- Archived bookings of an item: owner queries joined through items.owner_id, comment eligibility
+CREATE INDEX IF NOT EXISTS idx_bookings_archive_item_status_start
+  ON bookings_archive (item_id, status, start_date DESC);
+
+-- Closed bookings due for archiving
+CREATE INDEX IF NOT EXISTS idx_bookings_end_status ON bookings (end_date, status);
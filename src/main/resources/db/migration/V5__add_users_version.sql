@@ -0,0 +1,3 @@
+-- Version of a user for optimistic locking and the ETag of GET /users/{userId}; bookings and
+-- comments embed the user, so their ETags include it as well
+ALTER TABLE users ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,14 @@
+-- Cache invalidations published by the application nodes (shareit.invalidation.bus=jdbc), inserted
+-- in the writing transaction and polled by the other nodes; created is the start of that transaction
+CREATE TABLE IF NOT EXISTS cache_invalidations
+(
+  id BIGINT GENERATED ALWAYS AS IDENTITY,
+  topic varchar(20) NOT NULL,
+  entity_id BIGINT NOT NULL,
+  node varchar(64) NOT NULL,
+  created TIMESTAMP WITHOUT TIME ZONE NOT NULL DEFAULT LOCALTIMESTAMP,
+  CONSTRAINT pk_cache_invalidations PRIMARY KEY (id)
+);
+
+-- Polls read the rows of the last seconds, purges delete the old ones
+CREATE INDEX IF NOT EXISTS idx_cache_invalidations_created ON cache_invalidations (created);
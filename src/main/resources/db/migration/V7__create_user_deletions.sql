@@ -0,0 +1,19 @@
+-- Time a user was deleted at; the user is hidden from then on, and removed with all dependent rows
+-- in small batches by the user deletion purger
+ALTER TABLE users ADD COLUMN IF NOT EXISTS deleted TIMESTAMP WITHOUT TIME ZONE;
+
+-- Progress of a user deletion, kept after the user is gone; rows are counted as they are removed
+CREATE TABLE IF NOT EXISTS user_deletions
+(
+  user_id BIGINT NOT NULL,
+  requested TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+  finished TIMESTAMP WITHOUT TIME ZONE,
+  bookings BIGINT NOT NULL DEFAULT 0,
+  comments BIGINT NOT NULL DEFAULT 0,
+  items BIGINT NOT NULL DEFAULT 0,
+  requests BIGINT NOT NULL DEFAULT 0,
+  CONSTRAINT pk_user_deletions PRIMARY KEY (user_id)
+);
+
+-- Deletions still to be purged
+CREATE INDEX IF NOT EXISTS idx_user_deletions_finished ON user_deletions (finished);
@@ -0,0 +1,184 @@
+package ru.practicum.shareit.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.retry.RetryCallback;
+import org.springframework.retry.RetryContext;
+import org.springframework.retry.RetryListener;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.dto.UserDto;
+
+/**
+ * Contention benchmark for optimistic locking of item and booking updates.
+ * <p>
+ * Several threads update the same item and approve the same booking at once. The benchmark reports
+ * throughput, the number of retried conflicts and the number of conflicts that exhausted all
+ * attempts, and checks that no update is lost. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest
+@Slf4j
+class OptimisticLockContentionBenchmark {
+
+  private static final int THREADS = 8;
+  private static final int UPDATES_PER_THREAD = 50;
+
+  private static final AtomicInteger RETRIES = new AtomicInteger();
+
+  @Autowired
+  private UserService userService;
+
+  @Autowired
+  private ItemService itemService;
+
+  @Autowired
+  private BookingService bookingService;
+
+  @Test
+  void concurrentItemUpdates() throws Exception {
+    final Long ownerId = createUser("owner");
+    final Long itemId = itemService.saveItem(ownerId, ItemDto.builder()
+        .name("drill")
+        .description("item under contention")
+        .available(true)
+        .build()).getId();
+    final AtomicInteger exhausted = new AtomicInteger();
+    RETRIES.set(0);
+
+    final long elapsed = runConcurrently(thread -> {
+      for (int i = 0; i < UPDATES_PER_THREAD; i++) {
+        try {
+          itemService.updateItem(ownerId,
+              ItemDto.builder().description("thread " + thread + " update " + i).build(), itemId);
+        } catch (OptimisticLockingFailureException e) {
+          exhausted.incrementAndGet();
+        }
+      }
+    });
+
+    final int total = THREADS * UPDATES_PER_THREAD;
+    report("updateItem", total, elapsed, exhausted.get());
+  }
+
+  @Test
+  void concurrentBookingApprovals() throws Exception {
+    final Long ownerId = createUser("booking-owner");
+    final Long bookerId = createUser("booker");
+    final List<Long> bookingIds = new ArrayList<>();
+    for (int i = 0; i < UPDATES_PER_THREAD; i++) {
+      final Long itemId = itemService.saveItem(ownerId, ItemDto.builder()
+          .name("item " + i)
+          .description("booked item")
+          .available(true)
+          .build()).getId();
+      bookingIds.add(bookingService.createBooking(bookerId, BookingDto.builder()
+          .itemId(itemId)
+          .start(LocalDateTime.now().plusDays(1))
+          .end(LocalDateTime.now().plusDays(2))
+          .build()).getId());
+    }
+    final AtomicInteger approved = new AtomicInteger();
+    final AtomicInteger exhausted = new AtomicInteger();
+    RETRIES.set(0);
+
+    final long elapsed = runConcurrently(thread -> {
+      for (Long bookingId : bookingIds) {
+        try {
+          if (bookingService.updateStatus(bookingId, ownerId, true).getStatus()
+              == BookingStatus.APPROVED) {
+            approved.incrementAndGet();
+          }
+        } catch (ValidationException e) {
+          // another thread has already approved the booking
+        } catch (OptimisticLockingFailureException e) {
+          exhausted.incrementAndGet();
+        }
+      }
+    });
+
+    report("updateStatus", THREADS * bookingIds.size(), elapsed, exhausted.get());
+    assertEquals(bookingIds.size(), approved.get(), "Every booking must be approved exactly once.");
+  }
+
+  private long runConcurrently(final ThreadTask task) throws Exception {
+    final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+    final CountDownLatch start = new CountDownLatch(1);
+    final List<Future<?>> futures = new ArrayList<>();
+    for (int t = 0; t < THREADS; t++) {
+      final int thread = t;
+      futures.add(executor.submit(() -> {
+        start.await();
+        task.run(thread);
+        return null;
+      }));
+    }
+    final long begin = System.nanoTime();
+    start.countDown();
+    for (Future<?> future : futures) {
+      future.get();
+    }
+    final long elapsed = System.nanoTime() - begin;
+    executor.shutdown();
+    return elapsed;
+  }
+
+  private void report(final String operation, final int calls, final long elapsedNanos,
+                      final int exhausted) {
+    log.info("{}: {} calls by {} threads in {} ms, {} ops/s, {} retried conflicts, "
+            + "{} conflicts after all attempts", operation, calls, THREADS,
+        elapsedNanos / 1_000_000, String.format(Locale.ROOT, "%.1f", calls * 1e9 / elapsedNanos),
+        RETRIES.get(), exhausted);
+  }
+
+  private Long createUser(final String name) {
+    return userService.createNewUser(UserDto.builder()
+        .name(name)
+        .email(name + System.nanoTime() + "@shareit.ru")
+        .build()).getId();
+  }
+
+  @FunctionalInterface
+  private interface ThreadTask {
+
+    void run(int thread);
+  }
+
+  @TestConfiguration
+  static class RetryCountingConfiguration {
+
+    @Bean
+    RetryListener retryCountingListener() {
+      return new RetryListener() {
+        @Override
+        public <T, E extends Throwable> void onError(RetryContext context,
+                                                     RetryCallback<T, E> callback,
+                                                     Throwable throwable) {
+          RETRIES.incrementAndGet();
+        }
+      };
+    }
+  }
+}
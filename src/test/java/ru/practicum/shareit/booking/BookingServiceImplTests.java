@@ -0,0 +1,92 @@
+package ru.practicum.shareit.booking;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.AdditionalAnswers;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.invalidation.InvalidationBus;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.popular.PopularItemsTracker;
+import ru.practicum.shareit.streaming.StreamingReads;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.model.User;
+
+/**
+ * Checks that an item can not be booked by its owner, and only by its owner.
+ */
+class BookingServiceImplTests {
+
+  private static final Long OWNER_ID = 1L;
+  private static final Long BOOKER_ID = 2L;
+
+  private BookingRepository bookingRepository;
+  private UserService userService;
+  private ItemService itemService;
+  private BookingServiceImpl bookingService;
+
+  @BeforeEach
+  void setUp() {
+    bookingRepository = mock(BookingRepository.class);
+    userService = mock(UserService.class);
+    itemService = mock(ItemService.class);
+    when(bookingRepository.save(any(Booking.class))).then(AdditionalAnswers.returnsFirstArg());
+    when(userService.getByIdOrThrow(OWNER_ID)).thenReturn(user(OWNER_ID));
+    when(userService.getByIdOrThrow(BOOKER_ID)).thenReturn(user(BOOKER_ID));
+    bookingService = new BookingServiceImpl(bookingRepository,
+        mock(ArchivedBookingRepository.class), userService, itemService,
+        mock(PopularItemsTracker.class), mock(StreamingReads.class), mock(InvalidationBus.class));
+  }
+
+  @Test
+  void ownerCanNotBookOwnItem() {
+    when(itemService.getItemOrThrow(10L)).thenReturn(item(10L));
+
+    assertThatThrownBy(() -> bookingService.createBooking(OWNER_ID, booking(10L)))
+        .isInstanceOf(NotFoundException.class);
+    verify(bookingRepository, never()).save(any(Booking.class));
+  }
+
+  @Test
+  void bookerWithIdOfItemCanBookIt() {
+    when(itemService.getItemOrThrow(BOOKER_ID)).thenReturn(item(BOOKER_ID));
+
+    final BookingResponseDto booking = bookingService.createBooking(BOOKER_ID, booking(BOOKER_ID));
+
+    assertThat(booking.getStatus()).isEqualTo(BookingStatus.WAITING);
+    assertThat(booking.getBooker().getId()).isEqualTo(BOOKER_ID);
+  }
+
+  private static Item item(final Long id) {
+    return Item.builder()
+        .id(id)
+        .name("Drill")
+        .description("Cordless drill")
+        .available(true)
+        .owner(user(OWNER_ID))
+        .build();
+  }
+
+  private static User user(final Long id) {
+    return User.builder().id(id).name("User " + id).email("user" + id + "@shareit.ru").build();
+  }
+
+  private static BookingDto booking(final Long itemId) {
+    return BookingDto.builder()
+        .itemId(itemId)
+        .start(LocalDateTime.now().plusDays(1))
+        .end(LocalDateTime.now().plusDays(2))
+        .build();
+  }
+}
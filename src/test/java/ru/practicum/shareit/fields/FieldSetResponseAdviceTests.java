@@ -0,0 +1,84 @@
+package ru.practicum.shareit.fields;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import ru.practicum.shareit.exception.ErrorHandler;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+/**
+ * Checks that the {@code fields} parameter is applied only by handlers that declare and validate
+ * it.
+ */
+class FieldSetResponseAdviceTests {
+
+  private MockMvc mockMvc;
+
+  @BeforeEach
+  void setUp() {
+    final MappingJackson2HttpMessageConverter converter = new MappingJackson2HttpMessageConverter(
+        Jackson2ObjectMapperBuilder.json()
+            .filters(new SimpleFilterProvider()
+                .addFilter(FieldSet.FILTER_ID, SimpleBeanPropertyFilter.serializeAll()))
+            .build());
+    mockMvc = MockMvcBuilders.standaloneSetup(new ItemsController())
+        .setControllerAdvice(new FieldSetResponseAdvice(), new ErrorHandler())
+        .setMessageConverters(converter)
+        .build();
+  }
+
+  @Test
+  void declaringHandlerWritesRequestedFields() throws Exception {
+    mockMvc.perform(get("/item").param(FieldSet.PARAMETER, "id"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.id").value(1))
+        .andExpect(jsonPath("$.name").doesNotExist());
+  }
+
+  @Test
+  void declaringHandlerRejectsUnknownFields() throws Exception {
+    mockMvc.perform(get("/item").param(FieldSet.PARAMETER, "title"))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  void otherHandlerIgnoresFields() throws Exception {
+    mockMvc.perform(post("/item").param(FieldSet.PARAMETER, "title"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.id").value(1))
+        .andExpect(jsonPath("$.name").value("Drill"));
+  }
+
+  @RestController
+  static class ItemsController {
+
+    @GetMapping("/item")
+    ItemDto getItem(@RequestParam(name = FieldSet.PARAMETER, required = false) String fields) {
+      FieldSet.of(fields, ItemDto.class);
+      return item();
+    }
+
+    @PostMapping("/item")
+    ItemDto saveItem() {
+      return item();
+    }
+
+    private static ItemDto item() {
+      return ItemDto.builder().id(1L).name("Drill").build();
+    }
+  }
+}
@@ -0,0 +1,105 @@
+package ru.practicum.shareit.idempotency;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.AdditionalAnswers;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionSystemException;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Checks that an outcome is only cached once its transaction has committed.
+ */
+class IdempotencyServiceImplTests {
+
+  private static final Long USER_ID = 1L;
+  private static final String OPERATION = "POST /items";
+  private static final String KEY = "key-1";
+
+  private final AtomicInteger executions = new AtomicInteger();
+  private CommitFailingTransactionManager transactionManager;
+  private IdempotencyRepository idempotencyRepository;
+  private IdempotencyServiceImpl idempotencyService;
+
+  @BeforeEach
+  void setUp() {
+    transactionManager = new CommitFailingTransactionManager();
+    idempotencyRepository = mock(IdempotencyRepository.class);
+    when(idempotencyRepository.findByUserIdAndOperationAndKey(USER_ID, OPERATION, KEY))
+        .thenReturn(Optional.empty());
+    when(idempotencyRepository.saveAndFlush(any(IdempotencyRecord.class)))
+        .then(AdditionalAnswers.returnsFirstArg());
+    idempotencyService = new IdempotencyServiceImpl(idempotencyRepository,
+        new TransactionTemplate(transactionManager), new ObjectMapper(), Duration.ofHours(1), 10);
+  }
+
+  @Test
+  void committedOutcomeIsReplayedFromMemory() {
+    assertThat(execute()).isEqualTo("created 1");
+
+    assertThat(execute()).isEqualTo("created 1");
+
+    assertThat(executions).hasValue(1);
+    verify(idempotencyRepository, times(1))
+        .findByUserIdAndOperationAndKey(USER_ID, OPERATION, KEY);
+  }
+
+  @Test
+  void rolledBackOutcomeIsNotReplayed() {
+    transactionManager.failCommit = true;
+    assertThatThrownBy(this::execute).isInstanceOf(TransactionSystemException.class);
+
+    transactionManager.failCommit = false;
+    assertThat(execute()).isEqualTo("created 2");
+
+    assertThat(executions).hasValue(2);
+  }
+
+  private String execute() {
+    return idempotencyService.execute(USER_ID, OPERATION, KEY, "request", String.class,
+        () -> "created " + executions.incrementAndGet());
+  }
+
+  /**
+   * Runs transaction synchronizations like a real transaction manager, and fails the commit on
+   * demand.
+   */
+  private static class CommitFailingTransactionManager extends AbstractPlatformTransactionManager {
+
+    private boolean failCommit;
+
+    @Override
+    protected Object doGetTransaction() {
+      return new Object();
+    }
+
+    @Override
+    protected void doBegin(final Object transaction, final TransactionDefinition definition) {
+    }
+
+    @Override
+    protected void doCommit(final DefaultTransactionStatus status) {
+      if (failCommit) {
+        throw new TransactionSystemException("Commit failed.");
+      }
+    }
+
+    @Override
+    protected void doRollback(final DefaultTransactionStatus status) {
+    }
+  }
+}
@@ -0,0 +1,63 @@
+package ru.practicum.shareit.item.popular;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+
+class CountMinSketchTests {
+
+  @Test
+  void estimateIsExactWithoutCollisions() {
+    final CountMinSketch sketch = new CountMinSketch(1024, 4);
+
+    for (int i = 0; i < 5; i++) {
+      sketch.add(42L);
+    }
+
+    assertThat(sketch.estimate(42L)).isEqualTo(5);
+    assertThat(sketch.estimate(43L)).isZero();
+  }
+
+  @Test
+  void addReturnsUpdatedEstimate() {
+    final CountMinSketch sketch = new CountMinSketch(1024, 4);
+
+    assertThat(sketch.add(7L)).isEqualTo(1);
+    assertThat(sketch.add(7L)).isEqualTo(2);
+  }
+
+  @Test
+  void estimateNeverUnderestimates() {
+    final CountMinSketch sketch = new CountMinSketch(16, 2);
+    for (long key = 1; key <= 200; key++) {
+      for (int i = 0; i < key % 7; i++) {
+        sketch.add(key);
+      }
+    }
+
+    for (long key = 1; key <= 200; key++) {
+      assertThat(sketch.estimate(key)).isGreaterThanOrEqualTo(key % 7);
+    }
+  }
+
+  @Test
+  void clearResetsAllCounters() {
+    final CountMinSketch sketch = new CountMinSketch(64, 3);
+    sketch.add(1L);
+    sketch.add(2L);
+
+    sketch.clear();
+
+    assertThat(sketch.estimate(1L)).isZero();
+    assertThat(sketch.estimate(2L)).isZero();
+  }
+
+  @Test
+  void invalidDimensionsAreRejected() {
+    assertThatThrownBy(() -> new CountMinSketch(0, 4))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> new CountMinSketch(64, 9))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+}
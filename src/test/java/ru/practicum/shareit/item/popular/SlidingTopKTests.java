@@ -0,0 +1,115 @@
+package ru.practicum.shareit.item.popular;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.popular.SlidingTopK.Entry;
+
+class SlidingTopKTests {
+
+  private MutableClock clock;
+  private SlidingTopK topK;
+
+  @BeforeEach
+  void setUp() {
+    clock = new MutableClock();
+    topK = new SlidingTopK(Duration.ofMinutes(4), 4, 10, 1024, 4, clock);
+  }
+
+  @Test
+  void topIsOrderedByCountDescending() {
+    record(1L, 2);
+    record(2L, 5);
+    record(3L, 3);
+
+    assertThat(topK.top(2)).containsExactly(new Entry(2L, 5), new Entry(3L, 3));
+  }
+
+  @Test
+  void countsAreSummedAcrossLiveSlots() {
+    record(1L, 2);
+    clock.advance(Duration.ofMinutes(1));
+    record(1L, 3);
+    record(2L, 4);
+
+    assertThat(topK.top(10)).containsExactly(new Entry(1L, 5), new Entry(2L, 4));
+  }
+
+  @Test
+  void expiredSlotsAreDropped() {
+    record(1L, 5);
+    clock.advance(Duration.ofMinutes(2));
+    record(2L, 1);
+    clock.advance(Duration.ofMinutes(2));
+
+    assertThat(topK.top(10)).containsExactly(new Entry(2L, 1));
+  }
+
+  @Test
+  void rotatedSlotIsReused() {
+    record(1L, 5);
+    clock.advance(Duration.ofMinutes(4));
+    record(2L, 1);
+
+    assertThat(topK.top(10)).containsExactly(new Entry(2L, 1));
+  }
+
+  @Test
+  void slotKeepsOnlyHeaviestCandidates() {
+    final SlidingTopK small = new SlidingTopK(Duration.ofMinutes(4), 4, 2, 1024, 4, clock);
+    for (long key = 1; key <= 3; key++) {
+      for (int i = 0; i < key; i++) {
+        small.record(key);
+      }
+    }
+
+    assertThat(small.top(10)).extracting(Entry::key).containsExactly(3L, 2L);
+  }
+
+  @Test
+  void emptyTrackerHasNoTop() {
+    assertThat(topK.top(5)).isEqualTo(List.of());
+  }
+
+  private void record(final long key, final int times) {
+    for (int i = 0; i < times; i++) {
+      topK.record(key);
+    }
+  }
+
+  private static final class MutableClock extends Clock {
+
+    private Instant instant = Instant.parse("2026-01-01T00:00:00Z");
+
+    private void advance(final Duration duration) {
+      instant = instant.plus(duration);
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(final ZoneId zone) {
+      return this;
+    }
+
+    @Override
+    public Instant instant() {
+      return instant;
+    }
+
+    @Override
+    public long millis() {
+      return instant.toEpochMilli();
+    }
+  }
+}
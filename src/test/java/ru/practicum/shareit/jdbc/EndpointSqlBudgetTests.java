@@ -0,0 +1,102 @@
+package ru.practicum.shareit.jdbc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.dto.UserDto;
+
+/**
+ * Pins the number of SQL statements of the read endpoints, so that a lazy association touched by
+ * a mapper shows up as a failing test instead of an N+1 query in production. Several items,
+ * bookings and comments are created, so per-row queries exceed the budgets.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@SqlBudget(endpoint = "GET /items/{itemId}", statements = 6)
+@SqlBudget(endpoint = "GET /items", statements = 7)
+@SqlBudget(endpoint = "GET /items/search", statements = 2)
+@SqlBudget(endpoint = "GET /bookings", statements = 9)
+@SqlBudget(endpoint = "GET /bookings/owner", statements = 9)
+@SqlBudget(endpoint = "GET /bookings/{bookingId}", statements = 5)
+@SqlBudget(endpoint = "GET /users", statements = 1)
+class EndpointSqlBudgetTests {
+
+  private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+  private static final int ITEMS = 5;
+
+  @Autowired
+  private MockMvc mockMvc;
+  @Autowired
+  private UserService userService;
+  @Autowired
+  private ItemService itemService;
+  @Autowired
+  private BookingService bookingService;
+
+  @Test
+  void readEndpointsStayWithinStatementBudget() throws Exception {
+    final Long ownerId = createUser("budget-owner@shareit.ru");
+    final Long bookerId = createUser("budget-booker@shareit.ru");
+    final LocalDateTime now = LocalDateTime.now();
+
+    final List<Long> itemIds = new ArrayList<>();
+    final List<Long> bookingIds = new ArrayList<>();
+    while (itemIds.size() < ITEMS) {
+      final Long itemId = itemService.saveItem(ownerId, ItemDto.builder()
+          .name("Budget drill")
+          .description("Drill for the statement budget test")
+          .available(true)
+          .build()).getId();
+      itemIds.add(itemId);
+      for (int i = 1; i <= 2; i++) {
+        final Long bookingId = bookingService.createBooking(bookerId, BookingDto.builder()
+            .itemId(itemId)
+            .start(now.minusDays(10L * i))
+            .end(now.minusDays(10L * i - 1))
+            .build()).getId();
+        bookingService.updateStatus(bookingId, ownerId, true);
+        bookingIds.add(bookingId);
+      }
+      itemService.addComment(bookerId, itemId, CommentDto.builder().text("Works fine").build());
+    }
+
+    perform("/items/" + itemIds.getFirst(), ownerId);
+    perform("/items", ownerId);
+    perform("/items/search?text=drill", bookerId);
+    perform("/bookings?state=ALL", bookerId);
+    perform("/bookings/owner?state=PAST", ownerId);
+    perform("/bookings/" + bookingIds.getFirst(), bookerId);
+    perform("/items?ids=" + join(itemIds), bookerId);
+    perform("/bookings?ids=" + join(bookingIds), ownerId);
+    perform("/users?ids=" + ownerId + "," + bookerId, ownerId);
+  }
+
+  private Long createUser(final String email) {
+    return userService.createNewUser(UserDto.builder().name("Budget").email(email).build())
+        .getId();
+  }
+
+  private static String join(final List<Long> ids) {
+    return ids.stream().map(String::valueOf).collect(Collectors.joining(","));
+  }
+
+  private void perform(final String uri, final Long userId) throws Exception {
+    mockMvc.perform(get(uri).header(USER_ID_HEADER, userId))
+        .andExpect(status().isOk());
+  }
+}
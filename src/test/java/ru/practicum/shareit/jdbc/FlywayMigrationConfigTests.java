@@ -0,0 +1,31 @@
+package ru.practicum.shareit.jdbc;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+
+class FlywayMigrationConfigTests {
+
+  private final FlywayMigrationConfig config = new FlywayMigrationConfig();
+
+  @Test
+  void migratesByDefault() {
+    final Flyway flyway = mock(Flyway.class);
+
+    config.flywayMigrationStrategy(false).migrate(flyway);
+
+    verify(flyway).migrate();
+  }
+
+  @Test
+  void cdsTrainingRunSkipsMigrations() {
+    final Flyway flyway = mock(Flyway.class);
+
+    config.flywayMigrationStrategy(true).migrate(flyway);
+
+    verifyNoInteractions(flyway);
+  }
+}
@@ -0,0 +1,259 @@
+package ru.practicum.shareit.jdbc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import javax.sql.DataSource;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.ArchivedBookingRepository;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.item.CommentRepository;
+import ru.practicum.shareit.item.ItemRepository;
+
+/**
+ * Checks that the queries of the booking, archived booking, item and comment repositories are
+ * served by the indexes of the migrations in {@code db/migration}. Every query method is called
+ * once, its statements are captured with their parameters and explained by H2. A plan must not contain a table scan, and
+ * every index it uses must lead with the same column as a primary key, a unique constraint or an
+ * {@code idx_} index of the migrations: H2 indexes foreign keys on its own, PostgreSQL does not.
+ * {@link ItemRepository#findByText(String)} and {@link ItemRepository#findAllByAvailableTrue} are
+ * not checked: a substring search and a flag with two values can not use a B-tree index.
+ */
+@SpringBootTest
+class RepositoryQueryPlanTests {
+
+  private static final Long ID = 1L;
+  private static final List<Long> IDS = List.of(1L, 2L, 3L);
+  private static final Pattern INDEX_ACCESS = Pattern.compile("/\\* PUBLIC\\.(\\w+): ");
+
+  private final List<QueryInfo> captured = new ArrayList<>();
+  private final QueryExecutionListener listener = new QueryExecutionListener() {
+    @Override
+    public void beforeQuery(final ExecutionInfo execInfo, final List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(final ExecutionInfo execInfo, final List<QueryInfo> queryInfoList) {
+      captured.addAll(queryInfoList);
+    }
+  };
+  private final List<String> violations = new ArrayList<>();
+  private Map<String, String> leadingColumns;
+  private Set<String> declaredLeadingColumns;
+
+  @Autowired
+  private DataSource dataSource;
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+  @Autowired
+  private BookingRepository bookingRepository;
+  @Autowired
+  private ArchivedBookingRepository archivedBookingRepository;
+  @Autowired
+  private ItemRepository itemRepository;
+  @Autowired
+  private CommentRepository commentRepository;
+
+  @BeforeEach
+  void addListener() {
+    leadingColumns = new HashMap<>();
+    declaredLeadingColumns = new HashSet<>();
+    jdbcTemplate.query("""
+        select i.index_name, i.index_type_name, i.table_name, c.column_name
+        from information_schema.indexes as i
+        join information_schema.index_columns as c
+        on c.index_schema = i.index_schema and c.index_name = i.index_name
+        where i.index_schema = 'PUBLIC' and c.ordinal_position = 1
+        """, row -> {
+      final String leadingColumn = row.getString("table_name") + "." + row.getString("column_name");
+      leadingColumns.put(row.getString("index_name"), leadingColumn);
+      if (!"INDEX".equals(row.getString("index_type_name"))
+          || row.getString("index_name").startsWith("IDX_")) {
+        declaredLeadingColumns.add(leadingColumn);
+      }
+    });
+    ((ProxyDataSource) dataSource).getProxyConfig().getQueryListener().addListener(listener);
+  }
+
+  @AfterEach
+  void removeListener() {
+    ((ProxyDataSource) dataSource).getProxyConfig().getQueryListener().getListeners()
+        .remove(listener);
+  }
+
+  @Test
+  void bookingQueriesUseIndexes() throws Exception {
+    final LocalDateTime now = LocalDateTime.now();
+    final BookingStatus status = BookingStatus.APPROVED;
+
+    check("existsByItemIdAndEndAfterAndStartBeforeAndStatus",
+        () -> bookingRepository.existsByItemIdAndEndAfterAndStartBeforeAndStatus(ID, now, now));
+    check("findByIdAndItemOwnerId", () -> bookingRepository.findByIdAndItemOwnerId(ID, ID));
+    check("findByIdAndItemOwnerIdOrBookerId",
+        () -> bookingRepository.findByIdAndItemOwnerIdOrBookerId(ID, ID));
+    check("findRevisionByIdAndItemOwnerIdOrBookerId",
+        () -> bookingRepository.findRevisionByIdAndItemOwnerIdOrBookerId(ID, ID));
+    check("findAllByIdInAndItemOwnerId",
+        () -> bookingRepository.findAllByIdInAndItemOwnerId(IDS, ID));
+    check("findAllByIdInAndItemOwnerIdOrBookerId",
+        () -> bookingRepository.findAllByIdInAndItemOwnerIdOrBookerId(IDS, ID));
+    checkStream("streamAllByBookerIdOrderByStartDesc",
+        () -> bookingRepository.streamAllByBookerIdOrderByStartDesc(ID));
+    checkStream("streamAllByBookerIdAndStartAfterOrderByStartDesc",
+        () -> bookingRepository.streamAllByBookerIdAndStartAfterOrderByStartDesc(ID, now));
+    checkStream("streamAllByBookerIdAndStatusAndEndBeforeOrderByStartDesc",
+        () -> bookingRepository.streamAllByBookerIdAndStatusAndEndBeforeOrderByStartDesc(ID,
+            status, now));
+    checkStream("streamAllByBookerIdAndStatusAndStartBeforeAndEndAfterOrderByStartDesc",
+        () -> bookingRepository
+            .streamAllByBookerIdAndStatusAndStartBeforeAndEndAfterOrderByStartDesc(ID, status,
+                now, now));
+    checkStream("streamAllByBookerIdAndStatusOrderByStartDesc",
+        () -> bookingRepository.streamAllByBookerIdAndStatusOrderByStartDesc(ID, status));
+    checkStream("streamAllByItemOwnerIdOrderByStartDesc",
+        () -> bookingRepository.streamAllByItemOwnerIdOrderByStartDesc(ID));
+    checkStream("streamAllByItemOwnerIdAndStartAfterOrderByStartDesc",
+        () -> bookingRepository.streamAllByItemOwnerIdAndStartAfterOrderByStartDesc(ID, now));
+    checkStream("streamAllByItemOwnerIdAndStatusAndEndBeforeOrderByStartDesc",
+        () -> bookingRepository.streamAllByItemOwnerIdAndStatusAndEndBeforeOrderByStartDesc(ID,
+            status, now));
+    checkStream("streamAllByItemOwnerIdAndStatusAndStartBeforeAndEndAfterOrderByStartDesc",
+        () -> bookingRepository
+            .streamAllByItemOwnerIdAndStatusAndStartBeforeAndEndAfterOrderByStartDesc(ID, status,
+                now, now));
+    checkStream("streamAllByItemOwnerIdAndStatusOrderByStartDesc",
+        () -> bookingRepository.streamAllByItemOwnerIdAndStatusOrderByStartDesc(ID, status));
+    check("findByItemIdAndItemOwnerId", () -> bookingRepository.findByItemIdAndItemOwnerId(ID, ID));
+    check("findAllByItemIdInAndItemOwnerId",
+        () -> bookingRepository.findAllByItemIdInAndItemOwnerId(IDS, ID));
+    check("findRevisionByItemId",
+        () -> bookingRepository.findRevisionByItemId(ID, now));
+    check("existsByItemIdAndBookerIdAndStatusAndEndBefore",
+        () -> bookingRepository.existsByItemIdAndBookerIdAndStatusAndEndBefore(ID, ID, status,
+            now));
+    check("findIdsByEndBeforeAndStatusIn",
+        () -> bookingRepository.findIdsByEndBeforeAndStatusIn(now,
+            List.of(BookingStatus.APPROVED, BookingStatus.REJECTED), Limit.of(10)));
+    check("findIdsByBookerId", () -> bookingRepository.findIdsByBookerId(ID, Limit.of(10)));
+    check("findIdsByItemOwnerId", () -> bookingRepository.findIdsByItemOwnerId(ID, Limit.of(10)));
+    checkStream("ArchivedBookingRepository.streamAllByBookerIdOrderByStartDesc",
+        () -> archivedBookingRepository.streamAllByBookerIdOrderByStartDesc(ID));
+    checkStream("ArchivedBookingRepository.streamAllByBookerIdAndStatusOrderByStartDesc",
+        () -> archivedBookingRepository.streamAllByBookerIdAndStatusOrderByStartDesc(ID, status));
+    checkStream("ArchivedBookingRepository.streamAllByItemOwnerIdOrderByStartDesc",
+        () -> archivedBookingRepository.streamAllByItemOwnerIdOrderByStartDesc(ID));
+    checkStream("ArchivedBookingRepository.streamAllByItemOwnerIdAndStatusOrderByStartDesc",
+        () -> archivedBookingRepository.streamAllByItemOwnerIdAndStatusOrderByStartDesc(ID,
+            status));
+    check("ArchivedBookingRepository.findByIdAndItemOwnerIdOrBookerId",
+        () -> archivedBookingRepository.findByIdAndItemOwnerIdOrBookerId(ID, ID));
+    check("ArchivedBookingRepository.findAllByIdInAndItemOwnerIdOrBookerId",
+        () -> archivedBookingRepository.findAllByIdInAndItemOwnerIdOrBookerId(IDS, ID));
+    check("ArchivedBookingRepository.findLastByItemIdIn",
+        () -> archivedBookingRepository.findLastByItemIdIn(IDS,
+            List.of(BookingStatus.APPROVED, BookingStatus.REJECTED)));
+    check("ArchivedBookingRepository.existsByItemIdAndBookerIdAndStatus",
+        () -> archivedBookingRepository.existsByItemIdAndBookerIdAndStatus(ID, ID, status));
+    check("ArchivedBookingRepository.findIdsByBookerId",
+        () -> archivedBookingRepository.findIdsByBookerId(ID, Limit.of(10)));
+    check("ArchivedBookingRepository.findIdsByItemOwnerId",
+        () -> archivedBookingRepository.findIdsByItemOwnerId(ID, Limit.of(10)));
+
+    assertThat(violations).isEmpty();
+  }
+
+  @Test
+  void itemAndCommentQueriesUseIndexes() throws Exception {
+    check("findByIdAndOwnerId", () -> itemRepository.findByIdAndOwnerId(ID, ID));
+    check("findAllByOwnerIdOrderById", () -> itemRepository.findAllByOwnerIdOrderById(ID));
+    checkStream("streamAllByOwnerIdOrderById",
+        () -> itemRepository.streamAllByOwnerIdOrderById(ID));
+    check("existsByOwnerId", () -> itemRepository.existsByOwnerId(ID));
+    check("findRevisionById", () -> itemRepository.findRevisionById(ID));
+    check("findAllByRequestIdIn", () -> itemRepository.findAllByRequestIdIn(IDS));
+    check("findAllByItemId", () -> commentRepository.findAllByItemId(ID));
+    check("findAllByItemIdIn", () -> commentRepository.findAllByItemIdIn(IDS));
+    check("findIdsByOwnerId", () -> itemRepository.findIdsByOwnerId(ID, Limit.of(10)));
+    check("findIdsByAuthorId", () -> commentRepository.findIdsByAuthorId(ID, Limit.of(10)));
+    check("CommentRepository.findIdsByItemOwnerId",
+        () -> commentRepository.findIdsByItemOwnerId(ID, Limit.of(10)));
+
+    assertThat(violations).isEmpty();
+  }
+
+  private void check(final String method, final Runnable query) throws Exception {
+    captured.clear();
+    query.run();
+    final List<QueryInfo> statements = List.copyOf(captured);
+    assertThat(statements).as("Statements of %s", method).isNotEmpty();
+    for (QueryInfo queryInfo : statements) {
+      final String plan = explain(queryInfo);
+      if (plan.contains(".tableScan")) {
+        violations.add(method + " scans a table: " + plan);
+      }
+      final Matcher indexAccess = INDEX_ACCESS.matcher(plan);
+      while (indexAccess.find()) {
+        final String leadingColumn = leadingColumns.get(indexAccess.group(1));
+        if (!declaredLeadingColumns.contains(leadingColumn)) {
+          violations.add(method + " has no declared index on " + leadingColumn + ": " + plan);
+        }
+      }
+    }
+  }
+
+  /**
+   * Checks a method returning a {@link Stream}, which has to be consumed in a transaction.
+   */
+  private void checkStream(final String method, final Supplier<Stream<?>> query)
+      throws Exception {
+    check(method, () -> new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+      try (Stream<?> rows = query.get()) {
+        rows.forEach(row -> {
+        });
+      }
+    }));
+  }
+
+  private String explain(final QueryInfo queryInfo) throws Exception {
+    try (Connection connection = dataSource.getConnection();
+         PreparedStatement statement =
+             connection.prepareStatement("EXPLAIN " + queryInfo.getQuery())) {
+      for (ParameterSetOperation operation : queryInfo.getParametersList().getFirst()) {
+        operation.getMethod().invoke(statement, operation.getArgs());
+      }
+      try (ResultSet plan = statement.executeQuery()) {
+        plan.next();
+        return plan.getString(1);
+      }
+    }
+  }
+}
@@ -0,0 +1,38 @@
+package ru.practicum.shareit.jdbc;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Repeatable;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+/**
+ * Declares the maximum number of SQL statements a request to {@link #endpoint()} may execute
+ * while the annotated test runs. The endpoint is the HTTP method and the path pattern of the
+ * handler, e.g. {@code GET /items/{itemId}}. Declared on a class, the budget applies to every test
+ * method of it.
+ *
+ * @see SqlBudgetExtension
+ */
+@Documented
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Repeatable(SqlBudget.List.class)
+@ExtendWith(SqlBudgetExtension.class)
+public @interface SqlBudget {
+
+  String endpoint();
+
+  int statements();
+
+  @Documented
+  @Target({ElementType.TYPE, ElementType.METHOD})
+  @Retention(RetentionPolicy.RUNTIME)
+  @ExtendWith(SqlBudgetExtension.class)
+  @interface List {
+
+    SqlBudget[] value();
+  }
+}
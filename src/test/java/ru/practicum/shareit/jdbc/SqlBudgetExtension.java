@@ -0,0 +1,87 @@
+package ru.practicum.shareit.jdbc;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.platform.commons.support.AnnotationSupport;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.PayloadApplicationEvent;
+import org.springframework.context.event.ApplicationEventMulticaster;
+import org.springframework.context.support.AbstractApplicationContext;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+/**
+ * Fails a Spring test when a request executed more SQL statements than declared by
+ * {@link SqlBudget} for its endpoint. Reports are collected from {@link SqlBudgetFilter} while the
+ * test method runs, so statements of the test setup are not counted; requests to endpoints
+ * without a declared budget are ignored.
+ */
+public class SqlBudgetExtension implements BeforeEachCallback, AfterEachCallback {
+
+  private static final ExtensionContext.Namespace NAMESPACE =
+      ExtensionContext.Namespace.create(SqlBudgetExtension.class);
+
+  @Override
+  public void beforeEach(final ExtensionContext context) {
+    final List<SqlStatementsReport> reports = new ArrayList<>();
+    final ApplicationListener<ApplicationEvent> listener = event -> {
+      if (event instanceof PayloadApplicationEvent<?> payload
+          && payload.getPayload() instanceof SqlStatementsReport report) {
+        synchronized (reports) {
+          reports.add(report);
+        }
+      }
+    };
+    multicaster(context).addApplicationListener(listener);
+    context.getStore(NAMESPACE).put(ExtensionContext.class, new Recording(listener, reports));
+  }
+
+  @Override
+  public void afterEach(final ExtensionContext context) {
+    final Recording recording =
+        context.getStore(NAMESPACE).remove(ExtensionContext.class, Recording.class);
+    multicaster(context).removeApplicationListener(recording.listener());
+
+    final Map<String, Integer> budgets = budgets(context);
+    final List<String> violations = new ArrayList<>();
+    synchronized (recording.reports()) {
+      for (SqlStatementsReport report : recording.reports()) {
+        final Integer budget = budgets.get(report.endpoint());
+        if (budget != null && report.statements().count() > budget) {
+          violations.add(String.format("%s executed %d SQL statements, the budget is %d.",
+              report.endpoint(), report.statements().count(), budget));
+        }
+      }
+    }
+    if (!violations.isEmpty()) {
+      throw new AssertionError("SQL statement budget exceeded:\n" + String.join("\n", violations));
+    }
+  }
+
+  private static Map<String, Integer> budgets(final ExtensionContext context) {
+    final Map<String, Integer> budgets = new HashMap<>();
+    AnnotationSupport.findRepeatableAnnotations(context.getRequiredTestClass(), SqlBudget.class)
+        .forEach(budget -> budgets.put(budget.endpoint(), budget.statements()));
+    AnnotationSupport.findRepeatableAnnotations(context.getRequiredTestMethod(), SqlBudget.class)
+        .forEach(budget -> budgets.put(budget.endpoint(), budget.statements()));
+    return budgets;
+  }
+
+  private static ApplicationEventMulticaster multicaster(final ExtensionContext context) {
+    final ConfigurableApplicationContext applicationContext =
+        (ConfigurableApplicationContext) SpringExtension.getApplicationContext(context);
+    return applicationContext.getBean(
+        AbstractApplicationContext.APPLICATION_EVENT_MULTICASTER_BEAN_NAME,
+        ApplicationEventMulticaster.class);
+  }
+
+  private record Recording(ApplicationListener<?> listener, List<SqlStatementsReport> reports) {
+
+  }
+}
@@ -0,0 +1,93 @@
+package ru.practicum.shareit.jdbc;
+
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectClass;
+import static org.junit.platform.testkit.engine.EventConditions.event;
+import static org.junit.platform.testkit.engine.EventConditions.finishedSuccessfully;
+import static org.junit.platform.testkit.engine.EventConditions.finishedWithFailure;
+import static org.junit.platform.testkit.engine.EventConditions.test;
+import static org.junit.platform.testkit.engine.TestExecutionResultConditions.instanceOf;
+import static org.junit.platform.testkit.engine.TestExecutionResultConditions.message;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.junit.platform.testkit.engine.EngineTestKit;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.dto.UserDto;
+
+/**
+ * Checks that {@link SqlBudgetExtension} fails a test whose request executes more SQL statements
+ * than its budget allows. The nested test classes are run through the JUnit engine test kit, so
+ * the outcome of a test can be asserted; Surefire skips nested classes on its own.
+ */
+class SqlBudgetExtensionTests {
+
+  private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+
+  @Test
+  void requestOverBudgetFailsTest() {
+    EngineTestKit.engine("junit-jupiter")
+        .selectors(selectClass(OverBudget.class))
+        .execute()
+        .testEvents()
+        .assertThatEvents()
+        .haveExactly(1, event(test("getUser"), finishedWithFailure(
+            instanceOf(AssertionError.class),
+            message(text -> text.startsWith("SQL statement budget exceeded")
+                && text.contains("GET /users/{userId} executed")))));
+  }
+
+  @Test
+  void requestWithinBudgetPassesTest() {
+    EngineTestKit.engine("junit-jupiter")
+        .selectors(selectClass(WithinBudget.class))
+        .execute()
+        .testEvents()
+        .assertThatEvents()
+        .haveExactly(1, event(test("getUser"), finishedSuccessfully()));
+  }
+
+  @SpringBootTest
+  @AutoConfigureMockMvc
+  @SqlBudget(endpoint = "GET /users/{userId}", statements = 0)
+  static class OverBudget {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private UserService userService;
+
+    @Test
+    void getUser() throws Exception {
+      getUser(mockMvc, userService, "over-budget@shareit.ru");
+    }
+  }
+
+  @SpringBootTest
+  @AutoConfigureMockMvc
+  @SqlBudget(endpoint = "GET /users/{userId}", statements = 5)
+  static class WithinBudget {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private UserService userService;
+
+    @Test
+    void getUser() throws Exception {
+      getUser(mockMvc, userService, "within-budget@shareit.ru");
+    }
+  }
+
+  private static void getUser(final MockMvc mockMvc, final UserService userService,
+                              final String email) throws Exception {
+    final Long userId = userService.createNewUser(
+        UserDto.builder().name("Budget").email(email).build()).getId();
+    mockMvc.perform(get("/users/" + userId).header(USER_ID_HEADER, userId))
+        .andExpect(status().isOk());
+  }
+}
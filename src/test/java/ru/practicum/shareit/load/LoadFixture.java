@@ -0,0 +1,108 @@
+package ru.practicum.shareit.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import ru.practicum.shareit.load.PostmanCollection.RequestTemplate;
+
+/**
+ * Seeds the application with users and items over HTTP and binds collection variables for each
+ * replayed request. Owners and their items are drawn at random, so item updates and reads hit
+ * existing rows the caller owns; names and emails are unique per request.
+ */
+final class LoadFixture {
+
+  private static final String[] WORDS = {
+      "drill", "ladder", "tent", "bicycle", "kayak", "projector", "camera", "saw", "grill", "tripod",
+      "sander", "scooter", "hammock", "telescope", "speaker", "lawnmower"
+  };
+
+  private final HttpClient client;
+  private final URI baseUri;
+  private final ObjectMapper mapper;
+  private final AtomicLong sequence = new AtomicLong();
+  private final List<Long> owners = new ArrayList<>();
+  private final Map<Long, List<Long>> itemsByOwner = new HashMap<>();
+
+  LoadFixture(final HttpClient client, final URI baseUri, final ObjectMapper mapper) {
+    this.client = client;
+    this.baseUri = baseUri;
+    this.mapper = mapper;
+  }
+
+  void seed(final int users, final int itemsPerUser) throws IOException, InterruptedException {
+    for (int i = 0; i < users; i++) {
+      final long ownerId = createUser();
+      final List<Long> items = new ArrayList<>(itemsPerUser);
+      for (int j = 0; j < itemsPerUser; j++) {
+        final long n = sequence.incrementAndGet();
+        items.add(post("/items", ownerId, Map.of(
+            "name", word() + " " + n,
+            "description", "A " + word() + " and a " + word() + " in good condition",
+            "available", n % 4 != 0)));
+      }
+      owners.add(ownerId);
+      itemsByOwner.put(ownerId, items);
+    }
+  }
+
+  /**
+   * Returns the variables for one request. Requests that delete the user get a fresh user created
+   * beforehand, outside the measured interval, so the seeded data set stays intact.
+   */
+  Map<String, String> bind(final RequestTemplate template)
+      throws IOException, InterruptedException {
+    final ThreadLocalRandom random = ThreadLocalRandom.current();
+    final long ownerId = owners.get(random.nextInt(owners.size()));
+    final List<Long> items = itemsByOwner.get(ownerId);
+    final long n = sequence.incrementAndGet();
+    final Map<String, String> variables = new HashMap<>();
+    variables.put("baseUrl", baseUri.toString());
+    variables.put("userId", String.valueOf(
+        "DELETE".equals(template.method()) ? createUser() : ownerId));
+    variables.put("itemId", String.valueOf(items.get(random.nextInt(items.size()))));
+    variables.put("userName", "Load user " + n);
+    variables.put("userEmail", "load-" + n + "@shareit.ru");
+    variables.put("itemName", word() + " " + n);
+    variables.put("itemDescription", "A " + word() + " for rent");
+    variables.put("itemAvailable", String.valueOf(random.nextBoolean()));
+    variables.put("searchString", word());
+    return variables;
+  }
+
+  private long createUser() throws IOException, InterruptedException {
+    final long n = sequence.incrementAndGet();
+    return post("/users", null,
+        Map.of("name", "Seed user " + n, "email", "seed-" + n + "@shareit.ru"));
+  }
+
+  private long post(final String path, final Long userId, final Map<String, Object> body)
+      throws IOException, InterruptedException {
+    final HttpRequest.Builder request = HttpRequest.newBuilder(baseUri.resolve(path))
+        .header("Content-Type", "application/json")
+        .POST(HttpRequest.BodyPublishers.ofString(mapper.writeValueAsString(body)));
+    if (userId != null) {
+      request.header("X-Sharer-User-Id", userId.toString());
+    }
+    final HttpResponse<String> response =
+        client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    if (response.statusCode() / 100 != 2) {
+      throw new IllegalStateException(
+          "Seeding " + path + " failed with " + response.statusCode() + ": " + response.body());
+    }
+    return mapper.readTree(response.body()).path("id").asLong();
+  }
+
+  private static String word() {
+    return WORDS[ThreadLocalRandom.current().nextInt(WORDS.length)];
+  }
+}
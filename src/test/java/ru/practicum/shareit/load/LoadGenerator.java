@@ -0,0 +1,260 @@
+package ru.practicum.shareit.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.ShareItApp;
+import ru.practicum.shareit.load.PostmanCollection.RequestTemplate;
+
+/**
+ * Replays the requests of a Postman collection against the application booted in-process on H2
+ * and reports per-endpoint latency percentiles and throughput.
+ * <p>
+ * Every worker thread picks collection requests uniformly at random, so the traffic mix follows the
+ * collection. Variables are bound by {@link LoadFixture}. After a warm-up phase, the latency of
+ * each request is recorded into an HdrHistogram of its endpoint, and the results are written as
+ * JSON, including the compressed histograms, so runs of different releases can be compared or
+ * merged later.
+ * <p>
+ * Run with {@code mvn verify -Pload [-Dload.args="threads=16 duration=PT1M"]}. Supported options,
+ * as {@code key=value} arguments: {@code collection}, {@code output}, {@code threads},
+ * {@code users}, {@code items}, {@code warmup} and {@code duration}.
+ */
+public final class LoadGenerator {
+
+  private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+  private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+  private final Map<String, String> options;
+  private final ObjectMapper mapper = new ObjectMapper().findAndRegisterModules();
+  private final Map<String, EndpointStats> stats = new ConcurrentHashMap<>();
+
+  private LoadGenerator(final Map<String, String> options) {
+    this.options = options;
+  }
+
+  public static void main(final String[] args) throws Exception {
+    final Map<String, String> options = new HashMap<>(Map.of(
+        "collection", "postman/sprint14.json",
+        "output", "target/load-test-result.json",
+        "threads", "8",
+        "users", "20",
+        "items", "5",
+        "warmup", "PT10S",
+        "duration", "PT30S"));
+    for (String arg : args) {
+      final int separator = arg.indexOf('=');
+      if (separator <= 0) {
+        throw new IllegalArgumentException("Expected key=value, got: " + arg);
+      }
+      options.put(arg.substring(0, separator), arg.substring(separator + 1));
+    }
+    new LoadGenerator(options).run();
+  }
+
+  private void run() throws Exception {
+    final List<RequestTemplate> templates =
+        PostmanCollection.load(Path.of(options.get("collection")), mapper);
+    final int threads = Integer.parseInt(options.get("threads"));
+    final Duration warmup = Duration.parse(options.get("warmup"));
+    final Duration duration = Duration.parse(options.get("duration"));
+
+    try (ConfigurableApplicationContext context = startApplication();
+         HttpClient client = HttpClient.newBuilder()
+             .version(HttpClient.Version.HTTP_1_1)
+             .connectTimeout(REQUEST_TIMEOUT)
+             .build()) {
+      final URI baseUri =
+          URI.create("http://localhost:" + context.getEnvironment().getProperty("local.server.port"));
+      final LoadFixture fixture = new LoadFixture(client, baseUri, mapper);
+      fixture.seed(Integer.parseInt(options.get("users")), Integer.parseInt(options.get("items")));
+
+      replay(client, baseUri, fixture, templates, threads, warmup);
+      stats.clear();
+      final Instant startedAt = Instant.now();
+      final long elapsedNanos = replay(client, baseUri, fixture, templates, threads, duration);
+      writeReport(startedAt, elapsedNanos, threads);
+    }
+  }
+
+  /**
+   * Boots the application on a random port with SQL and debug logging switched off, so the
+   * numbers are not dominated by console output, and without throttling, so the load reaches the
+   * database.
+   */
+  private static ConfigurableApplicationContext startApplication() {
+    return new SpringApplicationBuilder(ShareItApp.class).run(
+        "--spring.profiles.active=test",
+        "--server.port=0",
+        "--shareit.throttling.enabled=false",
+        "--spring.jpa.show-sql=false",
+        "--logging.level.root=ERROR",
+        "--logging.level.ru.practicum.shareit=ERROR",
+        "--logging.level.org.hibernate.SQL=ERROR",
+        "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=ERROR",
+        "--logging.level.org.springframework.transaction.interceptor=ERROR",
+        "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=ERROR",
+        "--logging.level.org.zalando.logbook=ERROR");
+  }
+
+  /**
+   * Replays random collection requests from {@code threads} workers for the given duration and
+   * returns the elapsed time in nanoseconds.
+   */
+  private long replay(final HttpClient client, final URI baseUri, final LoadFixture fixture,
+                      final List<RequestTemplate> templates, final int threads,
+                      final Duration duration) throws Exception {
+    final long start = System.nanoTime();
+    final long deadline = start + duration.toNanos();
+    final ExecutorService workers = Executors.newFixedThreadPool(threads);
+    try {
+      final List<Future<?>> futures = new ArrayList<>(threads);
+      for (int i = 0; i < threads; i++) {
+        futures.add(workers.submit(() -> {
+          while (System.nanoTime() < deadline) {
+            final RequestTemplate template =
+                templates.get(ThreadLocalRandom.current().nextInt(templates.size()));
+            send(client, baseUri, template, fixture.bind(template));
+          }
+          return null;
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      workers.shutdownNow();
+    }
+    return System.nanoTime() - start;
+  }
+
+  private void send(final HttpClient client, final URI baseUri, final RequestTemplate template,
+                    final Map<String, String> variables) throws InterruptedException {
+    final HttpRequest.Builder request = HttpRequest.newBuilder(
+            baseUri.resolve(PostmanCollection.render(template.url(), variables)))
+        .timeout(REQUEST_TIMEOUT)
+        .method(template.method(), template.body() == null
+            ? HttpRequest.BodyPublishers.noBody()
+            : HttpRequest.BodyPublishers.ofString(
+                PostmanCollection.render(template.body(), variables)));
+    template.headers().forEach((name, value) ->
+        request.header(name, PostmanCollection.render(value, variables)));
+
+    final EndpointStats endpoint =
+        stats.computeIfAbsent(template.endpoint(), key -> new EndpointStats());
+    final long started = System.nanoTime();
+    try {
+      final HttpResponse<Void> response =
+          client.send(request.build(), HttpResponse.BodyHandlers.discarding());
+      endpoint.record(System.nanoTime() - started, response.statusCode());
+    } catch (IOException e) {
+      endpoint.errors.increment();
+    }
+  }
+
+  private void writeReport(final Instant startedAt, final long elapsedNanos, final int threads)
+      throws IOException {
+    final double seconds = elapsedNanos / 1e9;
+    final Histogram total = new Histogram(HIGHEST_TRACKABLE_MICROS, 3);
+    final Map<String, Object> endpoints = new TreeMap<>();
+    stats.forEach((name, endpoint) -> {
+      total.add(endpoint.latency);
+      endpoints.put(name, endpoint.summary(seconds));
+    });
+
+    final Map<String, Object> report = new LinkedHashMap<>();
+    report.put("collection", options.get("collection"));
+    report.put("startedAt", startedAt.toString());
+    report.put("durationSeconds", seconds);
+    report.put("threads", threads);
+    report.put("total", summary(total, seconds));
+    report.put("endpoints", endpoints);
+
+    final Path output = Path.of(options.get("output"));
+    if (output.getParent() != null) {
+      Files.createDirectories(output.getParent());
+    }
+    mapper.writerWithDefaultPrettyPrinter().writeValue(output.toFile(), report);
+
+    System.out.printf("%-28s %9s %10s %10s %10s%n", "Endpoint", "Requests", "Req/s", "p50, ms",
+        "p99, ms");
+    stats.entrySet().stream().sorted(Map.Entry.comparingByKey()).forEach(entry -> {
+      final Histogram latency = entry.getValue().latency;
+      System.out.printf("%-28s %9d %10.1f %10.2f %10.2f%n", entry.getKey(),
+          latency.getTotalCount(), latency.getTotalCount() / seconds,
+          latency.getValueAtPercentile(50) / 1000.0, latency.getValueAtPercentile(99) / 1000.0);
+    });
+    System.out.println("Results written to " + output.toAbsolutePath());
+  }
+
+  private static Map<String, Object> summary(final Histogram latency, final double seconds) {
+    final Map<String, Object> millis = new LinkedHashMap<>();
+    millis.put("p50", latency.getValueAtPercentile(50) / 1000.0);
+    millis.put("p90", latency.getValueAtPercentile(90) / 1000.0);
+    millis.put("p99", latency.getValueAtPercentile(99) / 1000.0);
+    millis.put("p999", latency.getValueAtPercentile(99.9) / 1000.0);
+    millis.put("max", latency.getMaxValue() / 1000.0);
+    millis.put("mean", latency.getMean() / 1000.0);
+
+    final ByteBuffer buffer = ByteBuffer.allocate(latency.getNeededByteBufferCapacity());
+    final int length = latency.encodeIntoCompressedByteBuffer(buffer);
+    final Map<String, Object> summary = new LinkedHashMap<>();
+    summary.put("requests", latency.getTotalCount());
+    summary.put("throughputPerSecond", latency.getTotalCount() / seconds);
+    summary.put("latencyMillis", millis);
+    summary.put("histogram", Base64.getEncoder().encodeToString(
+        Arrays.copyOf(buffer.array(), length)));
+    return summary;
+  }
+
+  /**
+   * Latencies in microseconds, response status counts and transport errors of one endpoint.
+   */
+  private static final class EndpointStats {
+
+    private final Histogram latency = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+    private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+    private final LongAdder errors = new LongAdder();
+
+    private void record(final long nanos, final int status) {
+      latency.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(nanos), HIGHEST_TRACKABLE_MICROS));
+      statuses.computeIfAbsent(status, key -> new LongAdder()).increment();
+    }
+
+    private Map<String, Object> summary(final double seconds) {
+      final Map<String, Object> summary = LoadGenerator.summary(latency, seconds);
+      final Map<String, Long> byStatus = new TreeMap<>();
+      statuses.forEach((status, count) -> byStatus.put(String.valueOf(status), count.sum()));
+      summary.put("statuses", byStatus);
+      summary.put("errors", errors.sum());
+      return summary;
+    }
+  }
+}
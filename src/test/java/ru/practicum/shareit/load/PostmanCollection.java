@@ -0,0 +1,83 @@
+package ru.practicum.shareit.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Reads the requests of a Postman v2.1 collection as replayable templates. Only the method, URL,
+ * headers and raw body are used; pre-request and test scripts are ignored, their variables are
+ * bound by {@link LoadFixture} instead.
+ */
+final class PostmanCollection {
+
+  private static final Pattern VARIABLE = Pattern.compile("\\{\\{(\\w+)}}");
+  private static final Pattern HOST_PREFIX =
+      Pattern.compile("^(\\{\\{baseUrl}}|(https?://)?[\\w.-]+:\\d+)");
+
+  private PostmanCollection() {
+  }
+
+  static List<RequestTemplate> load(final Path file, final ObjectMapper mapper) throws IOException {
+    final List<RequestTemplate> templates = new ArrayList<>();
+    collect(mapper.readTree(file.toFile()).path("item"), templates);
+    return templates;
+  }
+
+  private static void collect(final JsonNode items, final List<RequestTemplate> templates) {
+    for (JsonNode item : items) {
+      if (item.has("item")) {
+        collect(item.get("item"), templates);
+        continue;
+      }
+      final JsonNode request = item.path("request");
+      final JsonNode url = request.path("url");
+      final String raw = url.isTextual() ? url.asText() : url.path("raw").asText();
+      final Map<String, String> headers = new LinkedHashMap<>();
+      for (JsonNode header : request.path("header")) {
+        if (!header.path("disabled").asBoolean(false)) {
+          headers.put(header.path("key").asText(), header.path("value").asText());
+        }
+      }
+      final String body = request.path("body").path("raw").asText("");
+      templates.add(new RequestTemplate(item.path("name").asText(),
+          request.path("method").asText("GET"), HOST_PREFIX.matcher(raw).replaceFirst(""),
+          headers, body.isBlank() ? null : body));
+    }
+  }
+
+  /**
+   * Replaces every {@code {{name}}} placeholder with its binding, unknown ones with an empty
+   * string.
+   */
+  static String render(final String template, final Map<String, String> variables) {
+    final Matcher matcher = VARIABLE.matcher(template);
+    final StringBuilder result = new StringBuilder(template.length());
+    while (matcher.find()) {
+      matcher.appendReplacement(result,
+          Matcher.quoteReplacement(variables.getOrDefault(matcher.group(1), "")));
+    }
+    return matcher.appendTail(result).toString();
+  }
+
+  /**
+   * A single collection request. {@link #endpoint()} groups requests by method and path pattern,
+   * e.g. {@code PATCH /items/{itemId}}, so that all variants of an endpoint share one histogram.
+   */
+  record RequestTemplate(String name, String method, String url, Map<String, String> headers,
+                         String body) {
+
+    String endpoint() {
+      final int query = url.indexOf('?');
+      final String path = query < 0 ? url : url.substring(0, query);
+      return method + " " + VARIABLE.matcher(path).replaceAll("{$1}");
+    }
+  }
+}
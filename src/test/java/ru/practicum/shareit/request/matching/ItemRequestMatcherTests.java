@@ -0,0 +1,133 @@
+package ru.practicum.shareit.request.matching;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.ItemRequestRepository;
+
+/**
+ * Checks the suggestions of {@link ItemRequestMatcher} and that index changes of a transaction
+ * are only applied once it has committed.
+ */
+class ItemRequestMatcherTests {
+
+  private ItemRequestMatcher matcher;
+
+  @BeforeEach
+  void setUp() {
+    matcher = new ItemRequestMatcher(mock(ItemRepository.class),
+        mock(ItemRequestRepository.class), 20);
+  }
+
+  @AfterEach
+  void tearDown() {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+  }
+
+  @Test
+  void newItemIsSuggestedForMatchingOpenRequest() {
+    matcher.onRequestCreated(request(1L, "Need a cordless drill for the weekend"));
+    matcher.onRequestCreated(request(2L, "Looking for a tent"));
+
+    matcher.onItemSaved(item(10L, "Drill", "Cordless drill with two batteries", true, null));
+
+    assertThat(matcher.getSuggestedItemIds(1L)).containsExactly(10L);
+    assertThat(matcher.getSuggestedItemIds(2L)).isEmpty();
+    assertThat(matcher.getSuggestedRequestIds(List.of(10L)))
+        .isEqualTo(Map.of(1L, List.of(10L)));
+  }
+
+  @Test
+  void newRequestIsMatchedAgainstAvailableItemsOnly() {
+    matcher.onItemSaved(item(10L, "Drill", "Cordless drill", true, null));
+    matcher.onItemSaved(item(11L, "Drill", "Old hammer drill", false, null));
+
+    matcher.onRequestCreated(request(1L, "cordless drill"));
+
+    assertThat(matcher.getSuggestedItemIds(1L)).containsExactly(10L);
+  }
+
+  @Test
+  void itemAddedForRequestClosesIt() {
+    final ItemRequest request = request(1L, "Need a drill");
+    matcher.onItemSaved(item(10L, "Drill", "Cordless drill", true, null));
+    matcher.onRequestCreated(request);
+
+    matcher.onItemSaved(item(11L, "Drill", "Hammer drill", true, request));
+
+    assertThat(matcher.getSuggestedRequestIds(List.of(10L, 11L))).isEmpty();
+    assertThat(matcher.getSuggestedItemIds(1L)).isEmpty();
+  }
+
+  @Test
+  void itemMadeUnavailableLosesItsSuggestions() {
+    matcher.onRequestCreated(request(1L, "Need a drill"));
+    matcher.onItemSaved(item(10L, "Drill", "Cordless drill", true, null));
+
+    matcher.onItemUpdated(item(10L, "Drill", "Cordless drill", false, null));
+
+    assertThat(matcher.getSuggestedItemIds(1L)).isEmpty();
+    assertThat(matcher.getSuggestedRequestIds(List.of(10L))).isEmpty();
+  }
+
+  @Test
+  void changesAreAppliedAfterCommit() {
+    TransactionSynchronizationManager.initSynchronization();
+    matcher.onRequestCreated(request(1L, "Need a drill"));
+    matcher.onItemSaved(item(10L, "Drill", "Cordless drill", true, null));
+
+    assertThat(matcher.getSuggestedItemIds(1L)).isEmpty();
+
+    final List<TransactionSynchronization> synchronizations =
+        TransactionSynchronizationManager.getSynchronizations();
+    TransactionSynchronizationManager.clearSynchronization();
+    synchronizations.forEach(TransactionSynchronization::afterCommit);
+
+    assertThat(matcher.getSuggestedItemIds(1L)).containsExactly(10L);
+  }
+
+  @Test
+  void rolledBackChangesAreDiscarded() {
+    final ItemRequest request = request(1L, "Need a drill");
+    matcher.onRequestCreated(request);
+    matcher.onItemSaved(item(10L, "Drill", "Cordless drill", true, null));
+
+    TransactionSynchronizationManager.initSynchronization();
+    matcher.onItemSaved(item(11L, "Drill", "Hammer drill", true, request));
+    final List<TransactionSynchronization> synchronizations =
+        TransactionSynchronizationManager.getSynchronizations();
+    TransactionSynchronizationManager.clearSynchronization();
+    synchronizations.forEach(synchronization ->
+        synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+    assertThat(matcher.getSuggestedItemIds(1L)).containsExactly(10L);
+    assertThat(matcher.getSuggestedRequestIds(List.of(11L))).isEmpty();
+  }
+
+  private static Item item(final Long id, final String name, final String description,
+                           final boolean available, final ItemRequest request) {
+    return Item.builder()
+        .id(id)
+        .name(name)
+        .description(description)
+        .available(available)
+        .request(request)
+        .build();
+  }
+
+  private static ItemRequest request(final Long id, final String description) {
+    return ItemRequest.builder().id(id).description(description).build();
+  }
+}
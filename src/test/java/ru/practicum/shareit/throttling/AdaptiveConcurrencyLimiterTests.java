@@ -0,0 +1,84 @@
+package ru.practicum.shareit.throttling;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.jdbc.SqlStatementCounter.SqlStatements;
+
+class AdaptiveConcurrencyLimiterTests {
+
+  private static final SqlStatements FAST = new SqlStatements(2, 2_000L);
+  private static final SqlStatements SLOW = new SqlStatements(2, 200_000L);
+
+  private AdaptiveConcurrencyLimiter limiter;
+
+  @BeforeEach
+  void setUp() {
+    limiter = new AdaptiveConcurrencyLimiter(new SimpleMeterRegistry(), 10, 4, 100, 2.0);
+  }
+
+  @Test
+  void requestsOverLimitAreRejected() {
+    for (int i = 0; i < 10; i++) {
+      assertThat(limiter.tryAcquire()).isTrue();
+    }
+
+    assertThat(limiter.tryAcquire()).isFalse();
+    assertThat(limiter.getInFlight()).isEqualTo(10);
+  }
+
+  @Test
+  void latencySpikeDecreasesLimit() {
+    runOneAtATime(1000, FAST);
+
+    runOneAtATime(1, SLOW);
+
+    assertThat(limiter.getLimit()).isEqualTo(9);
+  }
+
+  @Test
+  void limitDoesNotFallBelowMinimum() {
+    runOneAtATime(1000, FAST);
+
+    runOneAtATime(100, SLOW);
+
+    assertThat(limiter.getLimit()).isEqualTo(4);
+  }
+
+  @Test
+  void busyLimiterWithSteadyLatencyIncreasesLimit() {
+    for (int i = 0; i < 9; i++) {
+      limiter.tryAcquire();
+    }
+
+    runOneAtATime(30, FAST);
+
+    assertThat(limiter.getLimit()).isGreaterThan(10);
+  }
+
+  @Test
+  void idleLimiterKeepsLimit() {
+    runOneAtATime(100, FAST);
+
+    assertThat(limiter.getLimit()).isEqualTo(10);
+  }
+
+  @Test
+  void requestsWithoutStatementsAreNotSampled() {
+    runOneAtATime(1000, FAST);
+
+    runOneAtATime(10, new SqlStatements(0, 0L));
+
+    assertThat(limiter.getLimit()).isEqualTo(10);
+    assertThat(limiter.getInFlight()).isZero();
+  }
+
+  private void runOneAtATime(final int requests, final SqlStatements statements) {
+    for (int i = 0; i < requests; i++) {
+      assertThat(limiter.tryAcquire()).isTrue();
+      limiter.release(statements);
+    }
+  }
+}
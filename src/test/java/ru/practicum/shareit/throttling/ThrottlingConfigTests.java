@@ -0,0 +1,46 @@
+package ru.practicum.shareit.throttling;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+/**
+ * Checks which limiters are created for the combinations of throttling and the datasource proxy.
+ */
+class ThrottlingConfigTests {
+
+  private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+      .withBean(MeterRegistry.class, SimpleMeterRegistry::new)
+      .withUserConfiguration(ThrottlingConfig.class, UserRateLimiter.class,
+          AdaptiveConcurrencyLimiter.class);
+
+  @Test
+  void throttlingWithProxyCreatesBothLimiters() {
+    contextRunner.run(context -> {
+      assertThat(context).hasSingleBean(UserRateLimiter.class);
+      assertThat(context).hasSingleBean(AdaptiveConcurrencyLimiter.class);
+    });
+  }
+
+  @Test
+  void throttlingWithoutProxyKeepsOnlyRateLimit() {
+    contextRunner.withPropertyValues("shareit.sql.proxy.enabled=false").run(context -> {
+      assertThat(context).hasNotFailed();
+      assertThat(context).hasSingleBean(ThrottlingConfig.class);
+      assertThat(context).hasSingleBean(UserRateLimiter.class);
+      assertThat(context).doesNotHaveBean(AdaptiveConcurrencyLimiter.class);
+    });
+  }
+
+  @Test
+  void disabledThrottlingCreatesNoLimiter() {
+    contextRunner.withPropertyValues("shareit.throttling.enabled=false").run(context -> {
+      assertThat(context).doesNotHaveBean(ThrottlingConfig.class);
+      assertThat(context).doesNotHaveBean(UserRateLimiter.class);
+      assertThat(context).doesNotHaveBean(AdaptiveConcurrencyLimiter.class);
+    });
+  }
+}
@@ -0,0 +1,115 @@
+package ru.practicum.shareit.throttling;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import ru.practicum.shareit.exception.ErrorHandler;
+
+/**
+ * Checks the answers of throttled requests, with a rate of one request per second and a burst of
+ * two.
+ */
+class ThrottlingInterceptorTests {
+
+  private AdaptiveConcurrencyLimiter concurrencyLimiter;
+  private MockMvc mockMvc;
+
+  @BeforeEach
+  void setUp() {
+    final MeterRegistry registry = new SimpleMeterRegistry();
+    concurrencyLimiter = new AdaptiveConcurrencyLimiter(registry, 4, 1, 4, 2.0);
+    mockMvc = MockMvcBuilders.standaloneSetup(new ThrottledController())
+        .addInterceptors(new ThrottlingInterceptor(new UserRateLimiter(registry, 1.0, 2, 100),
+            concurrencyLimiter, Map.of("GET /search", 2)))
+        .setControllerAdvice(new ErrorHandler())
+        .build();
+  }
+
+  @Test
+  void requestOverRateLimitIsAnsweredWithRetryAfter() throws Exception {
+    perform("/ping", 1L).andExpect(status().isOk());
+    perform("/ping", 1L).andExpect(status().isOk());
+
+    perform("/ping", 1L)
+        .andExpect(status().isTooManyRequests())
+        .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+    perform("/ping", 2L).andExpect(status().isOk());
+  }
+
+  @Test
+  void expensiveEndpointTakesItsCost() throws Exception {
+    perform("/search", 1L).andExpect(status().isOk());
+
+    perform("/ping", 1L).andExpect(status().isTooManyRequests());
+  }
+
+  @Test
+  void requestWithoutUserIsNotRateLimited() throws Exception {
+    for (int i = 0; i < 5; i++) {
+      mockMvc.perform(get("/ping")).andExpect(status().isOk());
+    }
+  }
+
+  @Test
+  void requestAtConcurrencyLimitIsAnsweredWithServiceUnavailable() throws Exception {
+    for (int i = 0; i < 4; i++) {
+      concurrencyLimiter.tryAcquire();
+    }
+
+    perform("/ping", 1L)
+        .andExpect(status().isServiceUnavailable())
+        .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+  }
+
+  @Test
+  void admittedRequestIsReleased() throws Exception {
+    perform("/ping", 1L).andExpect(status().isOk());
+
+    assertThat(concurrencyLimiter.getInFlight()).isZero();
+  }
+
+  @Test
+  void withoutConcurrencyLimiterOnlyRateLimitApplies() throws Exception {
+    mockMvc = MockMvcBuilders.standaloneSetup(new ThrottledController())
+        .addInterceptors(new ThrottlingInterceptor(
+            new UserRateLimiter(new SimpleMeterRegistry(), 1.0, 2, 100), null, Map.of()))
+        .setControllerAdvice(new ErrorHandler())
+        .build();
+
+    perform("/ping", 1L).andExpect(status().isOk());
+    perform("/ping", 1L).andExpect(status().isOk());
+
+    perform("/ping", 1L).andExpect(status().isTooManyRequests());
+  }
+
+  private ResultActions perform(final String uri, final Long userId) throws Exception {
+    return mockMvc.perform(get(uri).header(ThrottlingInterceptor.USER_ID_HEADER, userId));
+  }
+
+  @RestController
+  static class ThrottledController {
+
+    @GetMapping("/ping")
+    String ping() {
+      return "pong";
+    }
+
+    @GetMapping("/search")
+    String search() {
+      return "found";
+    }
+  }
+}
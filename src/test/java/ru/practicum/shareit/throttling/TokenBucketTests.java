@@ -0,0 +1,62 @@
+package ru.practicum.shareit.throttling;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class TokenBucketTests {
+
+  private static final long REFILL = 100L;
+  private static final long CAPACITY = 3 * REFILL;
+
+  @Test
+  void burstIsTakenAtOnceAndThenRefused() {
+    final TokenBucket bucket = new TokenBucket(0L);
+
+    assertThat(bucket.tryTake(REFILL, CAPACITY, 0L)).isZero();
+    assertThat(bucket.tryTake(REFILL, CAPACITY, 0L)).isZero();
+    assertThat(bucket.tryTake(REFILL, CAPACITY, 0L)).isZero();
+    assertThat(bucket.tryTake(REFILL, CAPACITY, 0L)).isEqualTo(REFILL);
+  }
+
+  @Test
+  void tokensRefillOverTime() {
+    final TokenBucket bucket = new TokenBucket(0L);
+    for (int i = 0; i < 3; i++) {
+      bucket.tryTake(REFILL, CAPACITY, 0L);
+    }
+
+    assertThat(bucket.tryTake(REFILL, CAPACITY, 40L)).isEqualTo(60L);
+    assertThat(bucket.tryTake(REFILL, CAPACITY, 100L)).isZero();
+    assertThat(bucket.tryTake(REFILL, CAPACITY, 100L)).isEqualTo(REFILL);
+  }
+
+  @Test
+  void refusedRequestTakesNoTokens() {
+    final TokenBucket bucket = new TokenBucket(0L);
+    for (int i = 0; i < 3; i++) {
+      bucket.tryTake(REFILL, CAPACITY, 0L);
+    }
+    bucket.tryTake(REFILL, CAPACITY, 0L);
+
+    assertThat(bucket.tryTake(REFILL, CAPACITY, REFILL)).isZero();
+  }
+
+  @Test
+  void expensiveRequestTakesSeveralTokens() {
+    final TokenBucket bucket = new TokenBucket(0L);
+
+    assertThat(bucket.tryTake(2 * REFILL, CAPACITY, 0L)).isZero();
+    assertThat(bucket.tryTake(2 * REFILL, CAPACITY, 0L)).isEqualTo(REFILL);
+    assertThat(bucket.tryTake(REFILL, CAPACITY, 0L)).isZero();
+  }
+
+  @Test
+  void bucketIsFullOnceRefilled() {
+    final TokenBucket bucket = new TokenBucket(0L);
+    bucket.tryTake(2 * REFILL, CAPACITY, 0L);
+
+    assertThat(bucket.isFull(REFILL)).isFalse();
+    assertThat(bucket.isFull(2 * REFILL)).isTrue();
+  }
+}
@@ -0,0 +1,28 @@
+package ru.practicum.shareit.throttling;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+class UserRateLimiterTests {
+
+  @Test
+  void everyUserHasOwnBucket() {
+    final UserRateLimiter limiter = new UserRateLimiter(new SimpleMeterRegistry(), 1.0, 2, 100);
+
+    assertThat(limiter.tryAcquire(1L, 2)).isZero();
+    assertThat(limiter.tryAcquire(1L, 1)).isPositive();
+    assertThat(limiter.tryAcquire(2L, 2)).isZero();
+  }
+
+  @Test
+  void usersBeyondBucketCapShareOverflowBucket() {
+    final UserRateLimiter limiter = new UserRateLimiter(new SimpleMeterRegistry(), 1.0, 1, 1);
+
+    assertThat(limiter.tryAcquire(1L, 1)).isZero();
+    assertThat(limiter.tryAcquire(2L, 1)).isZero();
+    assertThat(limiter.tryAcquire(3L, 1)).isPositive();
+    assertThat(limiter.tryAcquire(1L, 1)).isPositive();
+  }
+}
@@ -0,0 +1,223 @@
+package ru.practicum.shareit.user;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Collection;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.stubbing.Answer;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.ArchivedBookingRepository;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.invalidation.InvalidationBus;
+import ru.practicum.shareit.item.CommentRepository;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.request.matching.ItemRequestMatcher;
+
+/**
+ * Checks the order and the progress of the removal of a deleted user's data, in batches of two
+ * rows, and that the {@link ItemRequestMatcher} forgets the removed items and requests.
+ */
+class UserDeletionPurgerTests {
+
+  private static final Long USER_ID = 1L;
+  private static final Answer<Integer> DELETED_ALL =
+      invocation -> invocation.<Collection<?>>getArgument(0).size();
+
+  private UserRepository userRepository;
+  private UserDeletionRepository userDeletionRepository;
+  private BookingRepository bookingRepository;
+  private ArchivedBookingRepository archivedBookingRepository;
+  private CommentRepository commentRepository;
+  private ItemRepository itemRepository;
+  private ItemRequestRepository itemRequestRepository;
+  private ItemRequestMatcher matcher;
+  private MeterRegistry registry;
+  private UserDeletionPurger purger;
+
+  @BeforeEach
+  void setUp() {
+    userRepository = mock(UserRepository.class);
+    userDeletionRepository = mock(UserDeletionRepository.class);
+    bookingRepository = mock(BookingRepository.class);
+    archivedBookingRepository = mock(ArchivedBookingRepository.class);
+    commentRepository = mock(CommentRepository.class);
+    itemRepository = mock(ItemRepository.class);
+    itemRequestRepository = mock(ItemRequestRepository.class);
+    when(bookingRepository.deleteAllByIdIn(anyCollection())).then(DELETED_ALL);
+    when(archivedBookingRepository.deleteAllByIdIn(anyCollection())).then(DELETED_ALL);
+    when(commentRepository.deleteAllByIdIn(anyCollection())).then(DELETED_ALL);
+    when(itemRepository.deleteAllByIdIn(anyCollection())).then(DELETED_ALL);
+    when(itemRequestRepository.deleteAllByIdIn(anyCollection())).then(DELETED_ALL);
+    matcher = new ItemRequestMatcher(itemRepository, itemRequestRepository, 20);
+    registry = new SimpleMeterRegistry();
+    purger = new UserDeletionPurger(userRepository, userDeletionRepository, bookingRepository,
+        archivedBookingRepository, commentRepository, itemRepository, itemRequestRepository,
+        matcher, mock(InvalidationBus.class),
+        new TransactionTemplate(new NoOpTransactionManager()), registry, 2);
+  }
+
+  @AfterEach
+  void tearDown() {
+    purger.destroy();
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+  }
+
+  @Test
+  void dataIsRemovedInBatchesBeforeTheUser() {
+    stubUserData();
+
+    purger.purgePending();
+
+    final InOrder order = inOrder(bookingRepository, archivedBookingRepository,
+        commentRepository, itemRepository, itemRequestRepository, userRepository,
+        userDeletionRepository);
+    order.verify(bookingRepository).deleteAllByIdIn(List.of(1L, 2L));
+    order.verify(bookingRepository).deleteAllByIdIn(List.of(3L));
+    order.verify(archivedBookingRepository).deleteAllByIdIn(List.of(4L));
+    order.verify(commentRepository).deleteAllByIdIn(List.of(5L));
+    order.verify(bookingRepository).deleteAllByIdIn(List.of(6L));
+    order.verify(commentRepository).deleteAllByIdIn(List.of(7L));
+    order.verify(itemRepository).deleteAllByIdIn(List.of(10L));
+    order.verify(itemRequestRepository).deleteAllByIdIn(List.of(20L));
+    order.verify(userRepository).deleteById(USER_ID);
+    order.verify(userDeletionRepository).markFinished(eq(USER_ID), any());
+  }
+
+  @Test
+  void removedRowsAreAddedToProgress() {
+    stubUserData();
+
+    purger.purgePending();
+
+    verify(userDeletionRepository).addRemoved(USER_ID, 2L, 0L, 0L, 0L);
+    verify(userDeletionRepository, times(3)).addRemoved(USER_ID, 1L, 0L, 0L, 0L);
+    verify(userDeletionRepository, times(2)).addRemoved(USER_ID, 0L, 1L, 0L, 0L);
+    verify(userDeletionRepository).addRemoved(USER_ID, 0L, 0L, 1L, 0L);
+    verify(userDeletionRepository).addRemoved(USER_ID, 0L, 0L, 0L, 1L);
+    assertThat(removed("bookings")).isEqualTo(4.0);
+    assertThat(removed("bookings_archive")).isEqualTo(1.0);
+    assertThat(removed("comments")).isEqualTo(2.0);
+    assertThat(removed("items")).isEqualTo(1.0);
+    assertThat(removed("requests")).isEqualTo(1.0);
+  }
+
+  @Test
+  void removedItemsAndRequestsAreNoLongerSuggested() {
+    stubUserData();
+    matcher.onRequestCreated(request(20L, "Looking for a tent"));
+    matcher.onRequestCreated(request(30L, "Need a drill"));
+    matcher.onItemSaved(item(10L, "Drill", "Cordless drill", true));
+    matcher.onItemSaved(item(11L, "Tent", "Tent for two", true));
+
+    purger.purgePending();
+
+    assertThat(matcher.getSuggestedItemIds(20L)).isEmpty();
+    assertThat(matcher.getSuggestedItemIds(30L)).isEmpty();
+    assertThat(matcher.getSuggestedRequestIds(List.of(10L, 11L))).isEmpty();
+  }
+
+  @Test
+  void withdrawnItemsAreDroppedAfterCommit() {
+    when(itemRepository.findIdsByOwnerId(eq(USER_ID), any(Limit.class)))
+        .thenReturn(List.of(10L));
+    matcher.onRequestCreated(request(30L, "Need a drill"));
+    matcher.onItemSaved(item(10L, "Drill", "Cordless drill", true));
+
+    TransactionSynchronizationManager.initSynchronization();
+    purger.schedule(USER_ID);
+
+    verify(itemRepository).markUnavailableByOwnerId(USER_ID);
+    assertThat(matcher.getSuggestedItemIds(30L)).containsExactly(10L);
+
+    final List<TransactionSynchronization> synchronizations =
+        TransactionSynchronizationManager.getSynchronizations();
+    TransactionSynchronizationManager.clearSynchronization();
+    synchronizations.forEach(TransactionSynchronization::afterCommit);
+
+    assertThat(matcher.getSuggestedItemIds(30L)).isEmpty();
+  }
+
+  private void stubUserData() {
+    when(userDeletionRepository.findPendingUserIds()).thenReturn(List.of(USER_ID));
+    when(bookingRepository.findIdsByBookerId(eq(USER_ID), any(Limit.class)))
+        .thenReturn(List.of(1L, 2L), List.of(3L));
+    when(archivedBookingRepository.findIdsByBookerId(eq(USER_ID), any(Limit.class)))
+        .thenReturn(List.of(4L));
+    when(commentRepository.findIdsByAuthorId(eq(USER_ID), any(Limit.class)))
+        .thenReturn(List.of(5L));
+    when(bookingRepository.findIdsByItemOwnerId(eq(USER_ID), any(Limit.class)))
+        .thenReturn(List.of(6L));
+    when(commentRepository.findIdsByItemOwnerId(eq(USER_ID), any(Limit.class)))
+        .thenReturn(List.of(7L));
+    when(itemRepository.findIdsByOwnerId(eq(USER_ID), any(Limit.class)))
+        .thenReturn(List.of(10L));
+    when(itemRequestRepository.findIdsByRequestorId(eq(USER_ID), any(Limit.class)))
+        .thenReturn(List.of(20L));
+  }
+
+  private double removed(final String table) {
+    return registry.get("shareit.users.deletion.removed").tag("table", table).counter().count();
+  }
+
+  private static Item item(final Long id, final String name, final String description,
+                           final boolean available) {
+    return Item.builder()
+        .id(id)
+        .name(name)
+        .description(description)
+        .available(available)
+        .build();
+  }
+
+  private static ItemRequest request(final Long id, final String description) {
+    return ItemRequest.builder().id(id).description(description).build();
+  }
+
+  /**
+   * Runs transaction synchronizations like a real transaction manager, without a database.
+   */
+  private static class NoOpTransactionManager extends AbstractPlatformTransactionManager {
+
+    @Override
+    protected Object doGetTransaction() {
+      return new Object();
+    }
+
+    @Override
+    protected void doBegin(final Object transaction, final TransactionDefinition definition) {
+    }
+
+    @Override
+    protected void doCommit(final DefaultTransactionStatus status) {
+    }
+
+    @Override
+    protected void doRollback(final DefaultTransactionStatus status) {
+    }
+  }
+}